@@ -0,0 +1,126 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 预订事务并发压测。
+ * 多个线程同时抢订同一会议室的少量时间段，统计吞吐量、冲突与重试次数，并校验数据库中没有重叠的预订。
+ * <p>
+ * 需要一个可写的测试数据库，例如：
+ * 
+ * <pre>
+ * javac -cp "lib/*" -d out src/*.java bench/*.java
+ * java -cp "out:lib/*" -Ddb.url=jdbc:mysql://localhost:3306/conference_room_booking \
+ *      -Ddb.user=root -Ddb.password=... BookingContentionBenchmark 32 1 1 50
+ * </pre>
+ * 
+ * 参数依次为：线程数、会议室ID、用户ID、每个线程的预订次数。压测使用 2099 年的时间段，结束后删除压测数据。
+ */
+public class BookingContentionBenchmark {
+    // 所有线程争抢的时间段数量
+    private static final int SLOT_COUNT = 20;
+    private static final long SLOT_MILLIS = 60 * 60 * 1000L;
+    private static final long BASE_TIME = Timestamp.valueOf("2099-01-01 00:00:00").getTime();
+    private static final String SUBJECT = "BookingContentionBenchmark";
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int roomId = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        int userId = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+        int attemptsPerThread = args.length > 3 ? Integer.parseInt(args[3]) : 20;
+
+        cleanUp(roomId);
+        ReservationDAO dao = new ReservationDAO();
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < attemptsPerThread; i++) {
+                    // 随机选择一个时间段，并随机错开半个时间段，制造部分重叠
+                    int slot = ThreadLocalRandom.current().nextInt(SLOT_COUNT);
+                    long begin = BASE_TIME + slot * SLOT_MILLIS
+                            + (ThreadLocalRandom.current().nextBoolean() ? SLOT_MILLIS / 2 : 0);
+                    Reservation r = new Reservation(0, userId, roomId, null, SUBJECT, null,
+                            new Timestamp(begin), new Timestamp(begin + SLOT_MILLIS), Reservation.STATUS_CONFIRMED);
+                    try {
+                        dao.createReservation(r);
+                        booked.incrementAndGet();
+                    } catch (ReservationDAO.BookingConflictException e) {
+                        conflicts.incrementAndGet();
+                    } catch (SQLException e) {
+                        errors.incrementAndGet();
+                        System.err.println("预订失败: " + e.getMessage());
+                    }
+                }
+            }, "booking-bench-" + t);
+            workers.add(worker);
+            worker.start();
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        double seconds = (System.nanoTime() - begin) / 1e9;
+        int total = threads * attemptsPerThread;
+
+        System.out.printf("线程数=%d, 请求数=%d, 耗时=%.2fs, 吞吐量=%.1f 次/秒%n", threads, total, seconds, total / seconds);
+        System.out.printf("成功=%d, 冲突=%d, 错误=%d%n", booked.get(), conflicts.get(), errors.get());
+        System.out.println(ReservationDAO.getBookingStatistics());
+        System.out.println(UserDAO.getConnectionPool().getStatistics());
+
+        int overlaps = countOverlaps(roomId);
+        System.out.println(overlaps == 0 ? "校验通过：没有重叠的预订" : "校验失败：发现 " + overlaps + " 对重叠的预订");
+        cleanUp(roomId);
+        UserDAO.getConnectionPool().shutdown();
+        if (overlaps > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static int countOverlaps(int roomId) throws SQLException {
+        String sql = "SELECT COUNT(*) FROM Reservation a JOIN Reservation b " +
+                "ON a.roomId = b.roomId AND a.reservationId < b.reservationId " +
+                "AND a.startTime < b.endTime AND b.startTime < a.endTime " +
+                "WHERE a.roomId = ? AND a.subject = ? AND b.subject = ? AND a.status != ? AND b.status != ?";
+        try (Connection conn = UserDAO.getConnection();
+                PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, roomId);
+            pstmt.setString(2, SUBJECT);
+            pstmt.setString(3, SUBJECT);
+            pstmt.setInt(4, Reservation.STATUS_CANCELLED);
+            pstmt.setInt(5, Reservation.STATUS_CANCELLED);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+
+    private static void cleanUp(int roomId) throws SQLException {
+        String sql = "DELETE FROM Reservation WHERE roomId = ? AND subject = ? AND startTime >= ?";
+        try (Connection conn = UserDAO.getConnection();
+                PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, roomId);
+            pstmt.setString(2, SUBJECT);
+            pstmt.setTimestamp(3, new Timestamp(BASE_TIME));
+            pstmt.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 最早可用时间段查找的性能测试，不需要数据库。
+ * 生成指定数量的会议室和预订，装入预订区间索引，然后从随机的起始时间查找最早可用的时间段，
+ * 统计单次查找的耗时，并与“逐个会议室取出区间列表再扫描、不剪枝”的做法对比，校验两者结果一致。
+ *
+ * <pre>
+ * javac -cp "lib/*" -d out src/*.java bench/*.java
+ * java -Xmx4g -cp "out:lib/*" SlotFinderBenchmark 10000 1000000 200
+ * </pre>
+ *
+ * 参数依次为：会议室数、预订数、查找次数。每个会议室的预订从起始日开始连续排列（默认约 9 天），
+ * 相邻预订之间随机留出 0~75 分钟的空档，查找的起始时间落在前 8 天内，
+ * 因此查找一小时的时间段时，多数会议室需要向后扫描若干个区间才能找到足够长的空档。
+ */
+public class SlotFinderBenchmark {
+    private static final long MINUTE_MILLIS = 60 * 1000L;
+    private static final long DAY_MILLIS = 24 * 60 * MINUTE_MILLIS;
+    private static final long BASE_TIME = Timestamp.valueOf("2099-01-01 00:00:00").getTime();
+    private static final long SEARCH_DAYS = 30;
+
+    public static void main(String[] args) {
+        int roomCount = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int reservationCount = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        int queryCount = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+        Random random = new Random(42);
+
+        List<MeetingRoom> rooms = new ArrayList<>(roomCount);
+        for (int i = 1; i <= roomCount; i++) {
+            rooms.add(new MeetingRoom(i, "Room-" + i, 4 + random.nextInt(60), "Floor " + (i % 30), "",
+                    MeetingRoom.STATUS_AVAILABLE));
+        }
+        rooms.sort(FreeRoomFinder.BEST_FIT);
+
+        long generateStart = System.nanoTime();
+        List<Reservation> reservations = new ArrayList<>(reservationCount);
+        int perRoom = Math.max(1, reservationCount / roomCount);
+        int id = 1;
+        for (int roomId = 1; roomId <= roomCount && reservations.size() < reservationCount; roomId++) {
+            long time = BASE_TIME + random.nextInt(120) * MINUTE_MILLIS;
+            for (int i = 0; i < perRoom && reservations.size() < reservationCount; i++) {
+                long duration = (30 + random.nextInt(91)) * MINUTE_MILLIS;
+                reservations.add(new Reservation(id++, 1, roomId, null, "bench", null, new Timestamp(time),
+                        new Timestamp(time + duration), Reservation.STATUS_CONFIRMED));
+                time += duration + random.nextInt(76) * MINUTE_MILLIS;
+            }
+        }
+        ReservationIntervalIndex index = new ReservationIntervalIndex();
+        long loadStart = System.nanoTime();
+        index.load(reservations, BASE_TIME);
+        long loadEnd = System.nanoTime();
+        System.out.printf("会议室=%d, 预订=%d, 生成=%.0fms, 建立索引=%.0fms%n", roomCount, reservations.size(),
+                (loadStart - generateStart) / 1e6, (loadEnd - loadStart) / 1e6);
+        reservations = null;
+
+        long duration = 60 * MINUTE_MILLIS;
+        long[] froms = new long[queryCount];
+        for (int i = 0; i < queryCount; i++) {
+            froms[i] = BASE_TIME + (long) (random.nextDouble() * 8 * DAY_MILLIS);
+        }
+
+        // 预热 JIT
+        for (int i = 0; i < Math.min(queryCount, 20); i++) {
+            SlotFinder.findEarliestSlot(rooms, index, froms[i], duration, froms[i] + SEARCH_DAYS * DAY_MILLIS);
+            naiveEarliestSlot(rooms, index, froms[i], duration, froms[i] + SEARCH_DAYS * DAY_MILLIS);
+        }
+
+        long[] sweepNanos = new long[queryCount];
+        long[] naiveNanos = new long[queryCount];
+        int mismatches = 0;
+        for (int i = 0; i < queryCount; i++) {
+            long latestStart = froms[i] + SEARCH_DAYS * DAY_MILLIS;
+            long t0 = System.nanoTime();
+            SlotFinder.Slot slot = SlotFinder.findEarliestSlot(rooms, index, froms[i], duration, latestStart);
+            long t1 = System.nanoTime();
+            long naive = naiveEarliestSlot(rooms, index, froms[i], duration, latestStart);
+            long t2 = System.nanoTime();
+            sweepNanos[i] = t1 - t0;
+            naiveNanos[i] = t2 - t1;
+            long found = slot == null ? -1 : slot.getStartTime().getTime();
+            if (found != naive) {
+                mismatches++;
+            }
+        }
+
+        report("剪枝扫描", sweepNanos);
+        report("逐个会议室取区间列表", naiveNanos);
+        System.out.println(mismatches == 0 ? "校验通过：两种做法结果一致" : "校验失败：" + mismatches + " 次结果不一致");
+        if (mismatches > 0) {
+            System.exit(1);
+        }
+    }
+
+    // 对照组：每个会议室取出查找范围内的全部区间再扫描，不使用已找到的结果剪枝
+    private static long naiveEarliestSlot(List<MeetingRoom> rooms, ReservationIntervalIndex index, long from,
+            long duration, long latestStart) {
+        long best = -1;
+        for (MeetingRoom room : rooms) {
+            long candidate = from;
+            for (ReservationIntervalIndex.Interval interval : index.getIntervals(room.getRoomId(), from,
+                    latestStart + duration)) {
+                if (interval.getStart() >= candidate + duration) {
+                    break;
+                }
+                candidate = Math.max(candidate, interval.getEnd());
+            }
+            if (candidate <= latestStart && (best < 0 || candidate < best)) {
+                best = candidate;
+            }
+        }
+        return best;
+    }
+
+    private static void report(String name, long[] nanos) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        double total = 0;
+        for (long n : sorted) {
+            total += n;
+        }
+        System.out.printf("%s: 平均=%.2fms, p50=%.2fms, p99=%.2fms, 最大=%.2fms%n", name, total / sorted.length / 1e6,
+                sorted[sorted.length / 2] / 1e6, sorted[Math.min(sorted.length - 1, sorted.length * 99 / 100)] / 1e6,
+                sorted[sorted.length - 1] / 1e6);
+    }
+}
@@ -72,7 +72,10 @@ CREATE TABLE Reservation (
     status INT,                        -- 预约状态
     createdTime DATETIME DEFAULT CURRENT_TIMESTAMP,              -- 创建时间
     FOREIGN KEY (userId) REFERENCES `User`(userId),
-    FOREIGN KEY (roomId) REFERENCES MeetingRoom(roomId)
+    FOREIGN KEY (roomId) REFERENCES MeetingRoom(roomId),
+    INDEX `idx_reservation_room_time` (roomId, startTime, endTime),   -- 冲突检测、按会议室查询
+    INDEX `idx_reservation_user_start` (userId, startTime),           -- 按用户查询预订记录
+    INDEX `idx_reservation_status_start` (status, startTime)          -- 按状态和时间统计
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='预约表';
 
 -- 权限映射表
@@ -12,7 +12,7 @@ import java.util.ArrayList;
 /**
  * 管理员设置面板，用于管理员配置系统设置。
  */
-public class AdminSettingsPanel extends JPanel {
+public class AdminSettingsPanel extends JPanel implements PanelLifecycle {
 
     private final User currentUser;
     private final UserDAO userDAO;
@@ -37,6 +37,9 @@ public class AdminSettingsPanel extends JPanel {
     private JButton deleteRoomTypeButton;
     private JButton initializeDefaultsButton;
 
+    // 权限和会议室类型可能被其他管理员修改，再次显示时超过 60 秒即刷新
+    private final Freshness freshness = new Freshness(60 * 1000L);
+
     /**
      * 构造函数，初始化管理员系统设置面板。
      */
@@ -49,6 +52,13 @@ public class AdminSettingsPanel extends JPanel {
         loadData();
     }
 
+    @Override
+    public void onShow() {
+        if (freshness.isStale()) {
+            loadData();
+        }
+    }
+
     private void initComponents() {
         setLayout(new MigLayout("fill, insets 20", "[grow]", "[grow]"));
 
@@ -246,6 +256,7 @@ public class AdminSettingsPanel extends JPanel {
     }
 
     private void loadData() {
+        freshness.markLoading();
         // 异步加载数据
         new SwingWorker<Void, Void>() {
             @Override
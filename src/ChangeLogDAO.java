@@ -0,0 +1,252 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 变更日志表 ChangeLog 的数据库操作。
+ * 预订、会议室、设备的每次增删改都由对应的 DAO 在同一个连接（事务）中追加一条记录，
+ * version 由数据库自增生成并单调递增，其他客户端据此增量同步（见 DeltaSyncService）。
+ * <p>
+ * 变更日志表由迁移 V2 创建；数据库尚未迁移到该版本时不记录日志，也不进行增量同步。
+ */
+public class ChangeLogDAO {
+
+    // 创建变更日志表的迁移版本
+    public static final int SCHEMA_VERSION = 2;
+
+    public static final String ENTITY_RESERVATION = "Reservation";
+    public static final String ENTITY_MEETING_ROOM = "MeetingRoom";
+    public static final String ENTITY_EQUIPMENT = "Equipment";
+
+    public static final String OP_INSERT = "INSERT";
+    public static final String OP_UPDATE = "UPDATE";
+    public static final String OP_DELETE = "DELETE";
+
+    // 本客户端的标识，同步时跳过自己写入的变更（本地缓存已经更新过）
+    private static final String CLIENT_ID = UUID.randomUUID().toString();
+
+    /**
+     * 数据库中是否已有变更日志表。
+     */
+    public static boolean isAvailable() {
+        return SchemaMigrator.getCurrentVersion() >= SCHEMA_VERSION;
+    }
+
+    public static String getClientId() {
+        return CLIENT_ID;
+    }
+
+    /**
+     * 在调用方的连接（事务）中追加一条变更记录。变更日志表不可用时不做任何事情。
+     *
+     * @param conn       执行修改的连接
+     * @param entityType 实体类型，ENTITY_ 常量之一
+     * @param entityId   实体ID
+     * @param operation  操作，OP_ 常量之一
+     * @param roomId     相关的会议室ID（预订和设备所属的会议室），没有时为 null
+     * @throws SQLException 数据库访问异常
+     */
+    public static void record(Connection conn, String entityType, int entityId, String operation, Integer roomId)
+            throws SQLException {
+        if (!isAvailable()) {
+            return;
+        }
+        String sql = "INSERT INTO ChangeLog (entityType, entityId, operation, roomId, clientId) VALUES (?, ?, ?, ?, ?)";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, entityType);
+            pstmt.setInt(2, entityId);
+            pstmt.setString(3, operation);
+            if (roomId == null) {
+                pstmt.setNull(4, java.sql.Types.INTEGER);
+            } else {
+                pstmt.setInt(4, roomId);
+            }
+            pstmt.setString(5, CLIENT_ID);
+            pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * 在调用方的连接（事务）中为一批实体追加变更记录，作为一个 JDBC 批处理执行。变更日志表不可用时不做任何事情。
+     *
+     * @param conn       执行修改的连接
+     * @param entityType 实体类型，ENTITY_ 常量之一
+     * @param entityIds  实体ID
+     * @param operation  操作，OP_ 常量之一
+     * @param roomId     相关的会议室ID，没有时为 null
+     * @throws SQLException 数据库访问异常
+     */
+    public static void recordBatch(Connection conn, String entityType, int[] entityIds, String operation,
+            Integer roomId) throws SQLException {
+        Integer[] roomIds = new Integer[entityIds.length];
+        Arrays.fill(roomIds, roomId);
+        insertBatch(conn, entityType, entityIds, operation, roomIds);
+    }
+
+    /**
+     * 与 recordBatch 相同，但每个实体有各自的会议室ID（例如联合预订中的多个会议室）。
+     *
+     * @param roomIds 与 entityIds 一一对应的会议室ID
+     */
+    public static void recordBatch(Connection conn, String entityType, int[] entityIds, String operation,
+            int[] roomIds) throws SQLException {
+        if (roomIds.length != entityIds.length) {
+            throw new IllegalArgumentException("会议室ID与实体ID数量不一致");
+        }
+        Integer[] boxed = new Integer[roomIds.length];
+        for (int i = 0; i < roomIds.length; i++) {
+            boxed[i] = roomIds[i];
+        }
+        insertBatch(conn, entityType, entityIds, operation, boxed);
+    }
+
+    private static void insertBatch(Connection conn, String entityType, int[] entityIds, String operation,
+            Integer[] roomIds) throws SQLException {
+        if (!isAvailable() || entityIds.length == 0) {
+            return;
+        }
+        String sql = "INSERT INTO ChangeLog (entityType, entityId, operation, roomId, clientId) VALUES (?, ?, ?, ?, ?)";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < entityIds.length; i++) {
+                pstmt.setString(1, entityType);
+                pstmt.setInt(2, entityIds[i]);
+                pstmt.setString(3, operation);
+                if (roomIds[i] == null) {
+                    pstmt.setNull(4, java.sql.Types.INTEGER);
+                } else {
+                    pstmt.setInt(4, roomIds[i]);
+                }
+                pstmt.setString(5, CLIENT_ID);
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+    }
+
+    /**
+     * 获取当前最大的变更版本号，没有记录时返回 0。
+     *
+     * @throws SQLException 数据库访问异常
+     */
+    public long getLatestVersion() throws SQLException {
+        String sql = "SELECT MAX(version) FROM ChangeLog";
+        try (Connection conn = UserDAO.getConnection();
+                PreparedStatement pstmt = conn.prepareStatement(sql);
+                ResultSet rs = pstmt.executeQuery()) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    /**
+     * 获取版本号大于 version 的变更，按版本号升序（按主键范围查询）。
+     *
+     * @param version 起始版本号（不含）
+     * @param limit   最多返回的条数
+     * @return 变更列表
+     * @throws SQLException 数据库访问异常
+     */
+    public List<Change> getChangesSince(long version, int limit) throws SQLException {
+        List<Change> changes = new ArrayList<>();
+        String sql = "SELECT version, entityType, entityId, operation, roomId, clientId, changeTime " +
+                "FROM ChangeLog WHERE version > ? ORDER BY version LIMIT ?";
+        try (Connection conn = UserDAO.getConnection();
+                PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setLong(1, version);
+            pstmt.setInt(2, limit);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    int roomId = rs.getInt("roomId");
+                    changes.add(new Change(
+                            rs.getLong("version"),
+                            rs.getString("entityType"),
+                            rs.getInt("entityId"),
+                            rs.getString("operation"),
+                            rs.wasNull() ? null : roomId,
+                            rs.getString("clientId"),
+                            rs.getTimestamp("changeTime")));
+                }
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * 删除早于指定时间的变更记录。
+     *
+     * @return 删除的条数
+     * @throws SQLException 数据库访问异常
+     */
+    public int purgeBefore(Timestamp before) throws SQLException {
+        String sql = "DELETE FROM ChangeLog WHERE changeTime < ?";
+        try (Connection conn = UserDAO.getConnection();
+                PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setTimestamp(1, before);
+            return pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * 一条变更记录。
+     */
+    public static class Change {
+        private final long version;
+        private final String entityType;
+        private final int entityId;
+        private final String operation;
+        private final Integer roomId;
+        private final String clientId;
+        private final Timestamp changeTime;
+
+        public Change(long version, String entityType, int entityId, String operation, Integer roomId,
+                String clientId, Timestamp changeTime) {
+            this.version = version;
+            this.entityType = entityType;
+            this.entityId = entityId;
+            this.operation = operation;
+            this.roomId = roomId;
+            this.clientId = clientId;
+            this.changeTime = changeTime;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public String getEntityType() {
+            return entityType;
+        }
+
+        public int getEntityId() {
+            return entityId;
+        }
+
+        public String getOperation() {
+            return operation;
+        }
+
+        public Integer getRoomId() {
+            return roomId;
+        }
+
+        public String getClientId() {
+            return clientId;
+        }
+
+        public Timestamp getChangeTime() {
+            return changeTime;
+        }
+
+        /**
+         * 是否由本客户端写入。
+         */
+        public boolean isLocal() {
+            return CLIENT_ID.equals(clientId);
+        }
+    }
+}
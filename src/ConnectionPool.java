@@ -0,0 +1,435 @@
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 数据库连接池。
+ * 所有 DAO 通过 UserDAO.getConnection() 从这里借出连接，调用 close() 时连接归还到池中而不是真正断开，
+ * 从而避免每次查询都重新进行 TCP + 认证握手。
+ * <p>
+ * 支持最小/最大连接数、空闲连接回收、借出时校验、连接泄漏检测以及运行统计。
+ * 当前线程绑定了 StatementScope 时，创建的语句会登记到该作用域，以便取消任务时中止查询。
+ */
+public class ConnectionPool {
+    // 连接空闲时间短于该值时借出前不再校验，避免每次借出都多一次网络往返
+    private static final long VALIDATION_BYPASS_MILLIS = 500;
+    // 借出校验的超时时间（秒）
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+    // 后台维护任务的执行间隔
+    private static final long HOUSEKEEPING_INTERVAL_MILLIS = 30_000;
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int minSize;
+    private final int maxSize;
+    private final long idleTimeoutMillis;
+    private final long borrowTimeoutMillis;
+    private final long leakThresholdMillis;
+
+    // 空闲连接：从头部借出、归还到头部，长时间未用的连接自然沉到尾部等待回收
+    private final LinkedBlockingDeque<PooledConnection> idleConnections = new LinkedBlockingDeque<>();
+    private final Set<PooledConnection> borrowedConnections = ConcurrentHashMap.newKeySet();
+    // 许可数等于最大连接数，借出时获取、物理连接关闭时释放
+    private final Semaphore permits;
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean shutdown = false;
+
+    // 统计数据
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong destroyedCount = new AtomicLong();
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong borrowWaitNanos = new AtomicLong();
+    private final AtomicLong timeoutCount = new AtomicLong();
+    private final AtomicLong validationFailureCount = new AtomicLong();
+    private final AtomicLong leakCount = new AtomicLong();
+
+    /**
+     * 创建连接池。
+     *
+     * @param url                 JDBC 连接地址
+     * @param user                数据库用户名
+     * @param password            数据库密码
+     * @param minSize             保持的最小空闲连接数
+     * @param maxSize             最大连接数
+     * @param idleTimeoutMillis   空闲连接超过该时间后被回收（保留最小连接数）
+     * @param borrowTimeoutMillis 借出连接的最长等待时间
+     * @param leakThresholdMillis 连接借出超过该时间未归还则视为泄漏并打印借出位置，0 表示关闭检测
+     */
+    public ConnectionPool(String url, String user, String password, int minSize, int maxSize,
+            long idleTimeoutMillis, long borrowTimeoutMillis, long leakThresholdMillis) {
+        if (maxSize <= 0 || minSize < 0 || minSize > maxSize) {
+            throw new IllegalArgumentException("连接池大小配置无效: min=" + minSize + ", max=" + maxSize);
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.leakThresholdMillis = leakThresholdMillis;
+        this.permits = new Semaphore(maxSize, true);
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "connection-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        housekeeper.scheduleWithFixedDelay(this::housekeep, HOUSEKEEPING_INTERVAL_MILLIS,
+                HOUSEKEEPING_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "connection-pool-shutdown"));
+    }
+
+    /**
+     * 从池中借出一个连接。使用完毕后调用 close() 即可归还。
+     *
+     * @return 逻辑连接
+     * @throws SQLException 等待超时或无法建立新连接
+     */
+    public Connection getConnection() throws SQLException {
+        if (shutdown) {
+            throw new SQLException("连接池已关闭");
+        }
+        long waitStart = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                timeoutCount.incrementAndGet();
+                throw new SQLException("获取数据库连接超时（" + borrowTimeoutMillis + "ms），当前统计: " + getStatistics());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("获取数据库连接时线程被中断", e);
+        }
+
+        PooledConnection pooled;
+        try {
+            pooled = takeIdleOrCreate();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+        borrowWaitNanos.addAndGet(System.nanoTime() - waitStart);
+        borrowCount.incrementAndGet();
+
+        pooled.borrowedAt = System.currentTimeMillis();
+        pooled.leakReported = false;
+        pooled.borrowSite = leakThresholdMillis > 0 ? new Throwable("连接借出位置") : null;
+        borrowedConnections.add(pooled);
+        return pooled.newLogicalConnection();
+    }
+
+    /**
+     * 取出一个可用的空闲连接，没有则新建。调用前必须已持有许可。
+     */
+    private PooledConnection takeIdleOrCreate() throws SQLException {
+        PooledConnection pooled;
+        while ((pooled = idleConnections.pollFirst()) != null) {
+            if (validate(pooled)) {
+                return pooled;
+            }
+            validationFailureCount.incrementAndGet();
+            closePhysical(pooled);
+        }
+        return createPhysical();
+    }
+
+    private boolean validate(PooledConnection pooled) {
+        if (System.currentTimeMillis() - pooled.lastUsedAt < VALIDATION_BYPASS_MILLIS) {
+            return true;
+        }
+        try {
+            return pooled.physical.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private PooledConnection createPhysical() throws SQLException {
+        Connection physical = DriverManager.getConnection(url, user, password);
+        createdCount.incrementAndGet();
+        return new PooledConnection(physical);
+    }
+
+    /**
+     * 逻辑连接关闭时调用：重置连接状态后放回空闲队列。
+     */
+    private void release(PooledConnection pooled) {
+        borrowedConnections.remove(pooled);
+        boolean reusable = !shutdown;
+        try {
+            if (pooled.physical.isClosed()) {
+                reusable = false;
+            } else if (!pooled.physical.getAutoCommit()) {
+                // 调用方未提交的事务一律回滚，避免把未完成的事务带给下一个使用者
+                pooled.physical.rollback();
+                pooled.physical.setAutoCommit(true);
+            }
+            if (reusable && pooled.physical.isReadOnly()) {
+                pooled.physical.setReadOnly(false);
+            }
+            if (reusable) {
+                pooled.physical.clearWarnings();
+            }
+        } catch (SQLException e) {
+            reusable = false;
+        }
+
+        if (reusable) {
+            pooled.lastUsedAt = System.currentTimeMillis();
+            pooled.borrowSite = null;
+            idleConnections.offerFirst(pooled);
+            permits.release();
+        } else {
+            closePhysical(pooled);
+            permits.release();
+        }
+    }
+
+    private void closePhysical(PooledConnection pooled) {
+        try {
+            pooled.physical.close();
+        } catch (SQLException e) {
+            // 关闭失败不影响连接池继续工作
+        }
+        destroyedCount.incrementAndGet();
+    }
+
+    /**
+     * 后台维护：回收超时空闲连接、补足最小连接数、报告疑似泄漏的连接。
+     */
+    private void housekeep() {
+        if (shutdown) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+
+        // 从尾部（最久未使用）开始回收，保留 minSize 个连接
+        PooledConnection candidate;
+        while (idleConnections.size() + borrowedConnections.size() > minSize
+                && (candidate = idleConnections.peekLast()) != null
+                && now - candidate.lastUsedAt > idleTimeoutMillis) {
+            if (idleConnections.removeLastOccurrence(candidate)) {
+                closePhysical(candidate);
+            }
+        }
+
+        // 补足最小空闲连接
+        while (idleConnections.size() + borrowedConnections.size() < minSize) {
+            try {
+                idleConnections.offerLast(createPhysical());
+            } catch (SQLException e) {
+                System.err.println("连接池补充连接失败: " + e.getMessage());
+                break;
+            }
+        }
+
+        if (leakThresholdMillis > 0) {
+            for (PooledConnection pooled : borrowedConnections) {
+                if (!pooled.leakReported && now - pooled.borrowedAt > leakThresholdMillis) {
+                    pooled.leakReported = true;
+                    leakCount.incrementAndGet();
+                    System.err.println("检测到可能的数据库连接泄漏：连接已借出 " + (now - pooled.borrowedAt) + "ms 未归还");
+                    if (pooled.borrowSite != null) {
+                        pooled.borrowSite.printStackTrace();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 关闭连接池，断开所有空闲连接。已借出的连接在归还时关闭。
+     */
+    public void shutdown() {
+        if (shutdown) {
+            return;
+        }
+        shutdown = true;
+        housekeeper.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idleConnections.pollFirst()) != null) {
+            closePhysical(pooled);
+        }
+    }
+
+    /**
+     * 获取连接池当前的运行统计。
+     */
+    public Statistics getStatistics() {
+        int idle = idleConnections.size();
+        int active = borrowedConnections.size();
+        long borrows = borrowCount.get();
+        return new Statistics(idle + active, idle, active, maxSize, permits.getQueueLength(),
+                createdCount.get(), destroyedCount.get(), borrows,
+                borrows == 0 ? 0 : borrowWaitNanos.get() / borrows / 1000,
+                timeoutCount.get(), validationFailureCount.get(), leakCount.get());
+    }
+
+    /**
+     * 连接池统计快照。
+     */
+    public static class Statistics {
+        private final int totalConnections;
+        private final int idleConnections;
+        private final int activeConnections;
+        private final int maxConnections;
+        private final int waitingThreads;
+        private final long createdCount;
+        private final long destroyedCount;
+        private final long borrowCount;
+        private final long averageBorrowWaitMicros;
+        private final long timeoutCount;
+        private final long validationFailureCount;
+        private final long leakCount;
+
+        public Statistics(int totalConnections, int idleConnections, int activeConnections, int maxConnections,
+                int waitingThreads, long createdCount, long destroyedCount, long borrowCount,
+                long averageBorrowWaitMicros, long timeoutCount, long validationFailureCount, long leakCount) {
+            this.totalConnections = totalConnections;
+            this.idleConnections = idleConnections;
+            this.activeConnections = activeConnections;
+            this.maxConnections = maxConnections;
+            this.waitingThreads = waitingThreads;
+            this.createdCount = createdCount;
+            this.destroyedCount = destroyedCount;
+            this.borrowCount = borrowCount;
+            this.averageBorrowWaitMicros = averageBorrowWaitMicros;
+            this.timeoutCount = timeoutCount;
+            this.validationFailureCount = validationFailureCount;
+            this.leakCount = leakCount;
+        }
+
+        public int getTotalConnections() {
+            return totalConnections;
+        }
+
+        public int getIdleConnections() {
+            return idleConnections;
+        }
+
+        public int getActiveConnections() {
+            return activeConnections;
+        }
+
+        public int getMaxConnections() {
+            return maxConnections;
+        }
+
+        public int getWaitingThreads() {
+            return waitingThreads;
+        }
+
+        public long getCreatedCount() {
+            return createdCount;
+        }
+
+        public long getDestroyedCount() {
+            return destroyedCount;
+        }
+
+        public long getBorrowCount() {
+            return borrowCount;
+        }
+
+        public long getAverageBorrowWaitMicros() {
+            return averageBorrowWaitMicros;
+        }
+
+        public long getTimeoutCount() {
+            return timeoutCount;
+        }
+
+        public long getValidationFailureCount() {
+            return validationFailureCount;
+        }
+
+        public long getLeakCount() {
+            return leakCount;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "Pool{total=%d, idle=%d, active=%d, max=%d, waiting=%d, created=%d, destroyed=%d, borrows=%d, avgWait=%dus, timeouts=%d, invalid=%d, leaks=%d}",
+                    totalConnections, idleConnections, activeConnections, maxConnections, waitingThreads,
+                    createdCount, destroyedCount, borrowCount, averageBorrowWaitMicros, timeoutCount,
+                    validationFailureCount, leakCount);
+        }
+    }
+
+    /**
+     * 池中的一条物理连接及其借出信息。
+     */
+    private class PooledConnection {
+        final Connection physical;
+        volatile long lastUsedAt = System.currentTimeMillis();
+        volatile long borrowedAt;
+        volatile boolean leakReported;
+        volatile Throwable borrowSite;
+
+        PooledConnection(Connection physical) {
+            this.physical = physical;
+        }
+
+        /**
+         * 为本次借出创建一个逻辑连接代理，close() 只归还不断开，且只生效一次。
+         */
+        Connection newLogicalConnection() {
+            AtomicBoolean closed = new AtomicBoolean(false);
+            InvocationHandler handler = (proxy, method, args) -> {
+                String name = method.getName();
+                switch (name) {
+                    case "close":
+                        if (closed.compareAndSet(false, true)) {
+                            release(this);
+                        }
+                        return null;
+                    case "isClosed":
+                        return closed.get() || physical.isClosed();
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "toString":
+                        return "PooledConnection[" + physical + "]";
+                    default:
+                        if (closed.get()) {
+                            throw new SQLException("连接已归还到连接池，不能继续使用");
+                        }
+                        Object result = invoke(method, args);
+                        // 后台任务中创建的语句登记到任务的作用域，任务取消时可以中止查询
+                        StatementScope scope = StatementScope.current();
+                        if (scope != null && result instanceof Statement) {
+                            return scope.track((Statement) result, method.getReturnType());
+                        }
+                        return result;
+                }
+            };
+            return (Connection) Proxy.newProxyInstance(ConnectionPool.class.getClassLoader(),
+                    new Class<?>[] { Connection.class }, handler);
+        }
+
+        private Object invoke(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
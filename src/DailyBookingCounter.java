@@ -0,0 +1,101 @@
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 按天缓存的预订数量（不含已取消的预订）。
+ * 首次查询某天时从数据库加载，之后在本客户端创建、修改、取消预订时增量更新，
+ * 主页的"今日预订"统计因此只需一次哈希查找。
+ * <p>
+ * 其他客户端的变更无法增量感知，因此每个缓存项有一个较短的有效期，过期后重新从数据库加载。
+ */
+public class DailyBookingCounter {
+
+    private static final DailyBookingCounter SHARED = new DailyBookingCounter();
+
+    // 最多缓存的天数，超出后淘汰最久未访问的日期
+    private static final int MAX_DAYS = 62;
+    // 缓存项有效期
+    private static final long TTL_MILLIS = 5 * 60 * 1000L;
+
+    private final Map<LocalDate, Entry> counts = new LinkedHashMap<LocalDate, Entry>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<LocalDate, Entry> eldest) {
+            return size() > MAX_DAYS;
+        }
+    };
+    // 每次变更递增，用于丢弃加载期间已经过期的查询结果
+    private long modificationCount = 0;
+
+    /**
+     * 获取全局共享的计数缓存。
+     */
+    public static DailyBookingCounter getShared() {
+        return SHARED;
+    }
+
+    /**
+     * 获取缓存的预订数量。
+     *
+     * @return 缓存的数量；未缓存或已过期时返回 null
+     */
+    public synchronized Integer get(LocalDate day) {
+        Entry entry = counts.get(day);
+        if (entry == null) {
+            return null;
+        }
+        if (System.currentTimeMillis() - entry.loadedAt > TTL_MILLIS) {
+            counts.remove(day);
+            return null;
+        }
+        return entry.count;
+    }
+
+    /**
+     * 获取当前的变更序号，在从数据库加载之前调用。
+     */
+    public synchronized long getModificationCount() {
+        return modificationCount;
+    }
+
+    /**
+     * 缓存从数据库加载的数量。如果加载期间发生过变更，加载结果可能已不准确，不予缓存。
+     *
+     * @param day                     日期
+     * @param count                   数据库中的数量
+     * @param modificationCountAtLoad 加载前通过 getModificationCount() 获得的序号
+     */
+    public synchronized void putIfUnchanged(LocalDate day, int count, long modificationCountAtLoad) {
+        if (modificationCount == modificationCountAtLoad) {
+            counts.put(day, new Entry(count));
+        }
+    }
+
+    /**
+     * 增量调整某天的数量。该日期未缓存时无需处理。
+     */
+    public synchronized void adjust(LocalDate day, int delta) {
+        modificationCount++;
+        Entry entry = counts.get(day);
+        if (entry != null) {
+            entry.count = Math.max(0, entry.count + delta);
+        }
+    }
+
+    /**
+     * 清空所有缓存，在无法确定变更影响哪一天时调用。
+     */
+    public synchronized void invalidateAll() {
+        modificationCount++;
+        counts.clear();
+    }
+
+    private static class Entry {
+        int count;
+        final long loadedAt = System.currentTimeMillis();
+
+        Entry(int count) {
+            this.count = count;
+        }
+    }
+}
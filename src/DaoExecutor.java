@@ -0,0 +1,264 @@
+import javax.swing.SwingUtilities;
+import java.lang.reflect.Method;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * 数据库访问的统一异步执行服务，替代各面板各自创建的 SwingWorker。
+ * <p>
+ * JDK 支持虚拟线程时每个任务使用一个虚拟线程，否则使用固定大小的守护线程池。
+ * 同时执行的任务数不超过连接池大小（可用 -Ddao.maxConcurrency 调整），多余的任务排队等待，
+ * 避免大量任务同时阻塞在获取连接上。
+ * <p>
+ * 界面通过 TaskGroup 提交任务：面板销毁时取消整组任务，再用 onEdt() 在事件分发线程上处理结果。
+ * 取消任务时会中止该任务正在执行的 JDBC 语句（见 StatementScope），任务中的查询默认有
+ * 30 秒超时（可用 -Ddao.queryTimeoutSeconds 调整，0 表示不限制）。
+ */
+public class DaoExecutor {
+
+    // 任务中的查询未设置超时时使用的默认超时（秒）
+    private static final int DEFAULT_QUERY_TIMEOUT_SECONDS = 30;
+
+    private static final DaoExecutor SHARED = new DaoExecutor();
+
+    private final ExecutorService executor;
+    private final boolean virtualThreads;
+    private final Semaphore concurrency;
+    private final int queryTimeoutSeconds;
+
+    /**
+     * 可抛出受检异常的数据库任务。
+     */
+    public interface SQLCallable<T> {
+        T call() throws Exception;
+    }
+
+    /**
+     * 获取全局共享的执行服务。
+     */
+    public static DaoExecutor getShared() {
+        return SHARED;
+    }
+
+    private DaoExecutor() {
+        int maxConcurrency = Integer.getInteger("dao.maxConcurrency",
+                UserDAO.getConnectionPool().getStatistics().getMaxConnections());
+        this.concurrency = new Semaphore(Math.max(1, maxConcurrency), true);
+        this.queryTimeoutSeconds = Integer.getInteger("dao.queryTimeoutSeconds", DEFAULT_QUERY_TIMEOUT_SECONDS);
+
+        ExecutorService virtual = newVirtualThreadExecutor();
+        if (virtual != null) {
+            this.executor = virtual;
+            this.virtualThreads = true;
+        } else {
+            AtomicInteger threadNumber = new AtomicInteger();
+            int poolSize = Math.max(1, maxConcurrency);
+            this.executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(), r -> {
+                        Thread thread = new Thread(r, "dao-worker-" + threadNumber.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            ((ThreadPoolExecutor) this.executor).allowCoreThreadTimeOut(true);
+            this.virtualThreads = false;
+        }
+    }
+
+    // 通过反射使用 Executors.newVirtualThreadPerTaskExecutor()，在不支持虚拟线程的 JDK 上返回 null
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = java.util.concurrent.Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 是否使用虚拟线程执行任务。
+     */
+    public boolean isUsingVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * 异步执行一个数据库任务。取消返回的 Future 会中断正在执行的任务，并取消任务中正在执行的语句。
+     *
+     * @param task 数据库任务
+     * @return 任务结果
+     */
+    public <T> CompletableFuture<T> submit(SQLCallable<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        StatementScope scope = new StatementScope(queryTimeoutSeconds);
+        Future<?> running = executor.submit(() -> {
+            if (result.isDone()) {
+                return;
+            }
+            try {
+                concurrency.acquire();
+            } catch (InterruptedException e) {
+                result.cancel(false);
+                return;
+            }
+            StatementScope previous = scope.enter();
+            try {
+                if (!result.isDone()) {
+                    result.complete(task.call());
+                }
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            } finally {
+                scope.exit(previous);
+                concurrency.release();
+            }
+        });
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                running.cancel(true);
+                // 中断对阻塞在网络读写上的 JDBC 调用无效，需要显式取消语句。
+                // 取消语句可能需要新建连接，放到后台执行，避免阻塞调用方（通常是事件分发线程）
+                if (scope.getOpenStatementCount() > 0) {
+                    CompletableFuture.runAsync(scope::cancel);
+                } else {
+                    scope.cancel();
+                }
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 创建一个任务组，通常每个面板一个。
+     */
+    public TaskGroup newTaskGroup() {
+        return new TaskGroup();
+    }
+
+    /**
+     * 任务完成后在事件分发线程上处理结果。任务被取消时两个回调都不会调用。
+     *
+     * @param future    任务
+     * @param onSuccess 成功时的处理
+     * @param onError   失败时的处理，参数为原始异常（已去掉 CompletionException 等包装）
+     */
+    public static <T> void onEdt(CompletableFuture<T> future, Consumer<? super T> onSuccess,
+            Consumer<Throwable> onError) {
+        future.whenComplete((value, error) -> {
+            if (future.isCancelled()) {
+                return;
+            }
+            SwingUtilities.invokeLater(() -> {
+                if (error == null) {
+                    onSuccess.accept(value);
+                } else {
+                    onError.accept(unwrap(error));
+                }
+            });
+        });
+    }
+
+    /**
+     * 去掉 CompletionException 和 ExecutionException 的包装，返回原始异常。
+     */
+    public static Throwable unwrap(Throwable error) {
+        Throwable current = error;
+        while ((current instanceof CompletionException || current instanceof ExecutionException)
+                && current.getCause() != null) {
+            current = current.getCause();
+        }
+        return current;
+    }
+
+    /**
+     * 一组可以一起取消的任务。取消后提交的任务会立即以取消状态结束。
+     */
+    public class TaskGroup {
+        private final Set<CompletableFuture<?>> inFlight = ConcurrentHashMap.newKeySet();
+        private volatile boolean cancelled = false;
+
+        /**
+         * 在本组中异步执行一个数据库任务。
+         */
+        public <T> CompletableFuture<T> submit(SQLCallable<T> task) {
+            if (cancelled) {
+                CompletableFuture<T> future = new CompletableFuture<>();
+                future.cancel(false);
+                return future;
+            }
+            CompletableFuture<T> future = DaoExecutor.this.submit(task);
+            inFlight.add(future);
+            future.whenComplete((value, error) -> inFlight.remove(future));
+            if (cancelled) {
+                future.cancel(true);
+            }
+            return future;
+        }
+
+        /**
+         * 执行任务，完成后在事件分发线程上处理结果，相当于 submit() 加 onEdt()。
+         */
+        public <T> CompletableFuture<T> run(SQLCallable<T> task, Consumer<? super T> onSuccess,
+                Consumer<Throwable> onError) {
+            CompletableFuture<T> future = submit(task);
+            onEdt(future, value -> {
+                if (!cancelled) {
+                    onSuccess.accept(value);
+                }
+            }, error -> {
+                if (!cancelled) {
+                    onError.accept(error);
+                }
+            });
+            return future;
+        }
+
+        /**
+         * 取消本组所有未完成的任务，之后提交的任务也会被立即取消。
+         */
+        public void cancelAll() {
+            cancelled = true;
+            for (CompletableFuture<?> future : inFlight) {
+                future.cancel(true);
+            }
+            inFlight.clear();
+        }
+
+        /**
+         * 取消本组当前未完成的任务，之后仍可以继续提交新任务。面板切换到后台时调用。
+         *
+         * @return 取消的任务数
+         */
+        public int cancelInFlight() {
+            int count = 0;
+            for (CompletableFuture<?> future : inFlight) {
+                if (future.cancel(true)) {
+                    count++;
+                }
+            }
+            inFlight.clear();
+            return count;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        /**
+         * 未完成的任务数。
+         */
+        public int getInFlightCount() {
+            return inFlight.size();
+        }
+    }
+}
@@ -0,0 +1,307 @@
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 多客户端增量同步服务。
+ * 定期按版本号读取变更日志（见 ChangeLogDAO）中新增的记录，只把其他客户端的变更应用到本地缓存：
+ * 预订索引、每日计数、会议室缓存、设备索引和会议室实时状态，从而代替按固定间隔整体重新查询。
+ * 一次轮询读到的变更按会议室合并，每个会议室只刷新一次；其他客户端的变更不计入本地数据版本，
+ * 不会使已显示的面板整体过期。
+ * <p>
+ * version 由数据库自增生成，并发事务提交的顺序可能与分配的顺序不同，读取时可能出现“空洞”
+ * （较小的版本号尚未提交）。同步水位只推进到连续的已处理版本；空洞超过 GAP_TIMEOUT_MILLIS
+ * 仍未出现时跳过该版本，并整体重新加载本地缓存，因为该事务可能只是提交得晚而不是已回滚。
+ * 跳过的版本在 SKIPPED_RECHECK_MILLIS 内仍会在每次轮询时检查，之后提交的变更照常应用。
+ */
+public class DeltaSyncService {
+
+    // 轮询间隔
+    private static final long POLL_INTERVAL_MILLIS = 5 * 1000L;
+    // 等待空洞中的版本提交的最长时间
+    private static final long GAP_TIMEOUT_MILLIS = 10 * 1000L;
+    // 跳过的版本继续检查是否已提交的时间
+    private static final long SKIPPED_RECHECK_MILLIS = 10 * 60 * 1000L;
+    // 每次最多读取的变更条数
+    private static final int BATCH_SIZE = 500;
+    // 变更日志保留天数，启动时清理更早的记录
+    private static final int RETENTION_DAYS = 7;
+
+    private static final DeltaSyncService SHARED = new DeltaSyncService();
+
+    private final ChangeLogDAO changeLogDAO = new ChangeLogDAO();
+    private ScheduledExecutorService scheduler;
+    private ScheduledFuture<?> pollTask;
+    // 每次启动后从当前最新版本重新开始
+    private volatile boolean needsInitialize = true;
+    // 已开始应用变更；数据库尚未迁移到变更日志版本时为 false
+    private volatile boolean active = false;
+    // markStartingPoint() 记录的起始版本，-1 表示初始化时读取当前最新版本
+    private volatile long startingPoint = -1;
+
+    // 以下字段只在调度线程上访问
+    // 该版本及之前的变更都已处理
+    private long watermark = 0;
+    // 水位之后已经处理过的版本
+    private final Set<Long> appliedAboveWatermark = new HashSet<>();
+    // 空洞版本 → 首次发现的时间
+    private final TreeMap<Long, Long> gapsSeenAt = new TreeMap<>();
+    // 因等待超时而跳过的版本 → 跳过的时间
+    private final TreeMap<Long, Long> skippedAt = new TreeMap<>();
+
+    /**
+     * 获取全局共享的同步服务。
+     */
+    public static DeltaSyncService getShared() {
+        return SHARED;
+    }
+
+    private DeltaSyncService() {
+    }
+
+    /**
+     * 记录同步的起始版本。应在加载本地缓存之前调用，使加载期间其他客户端提交的变更也会被应用
+     * （重复应用同一变更没有副作用）。不调用时从启动同步时的最新版本开始。
+     */
+    public void markStartingPoint() {
+        try {
+            // 变更日志表尚不可用时，之后写入的所有变更都在缓存加载之后，从头开始
+            startingPoint = ChangeLogDAO.isAvailable() ? changeLogDAO.getLatestVersion() : 0;
+        } catch (SQLException e) {
+            startingPoint = -1;
+            System.err.println("读取变更日志版本失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 启动同步。数据库尚未迁移到变更日志版本时（例如迁移仍在后台执行），每次轮询时重新检查，迁移完成后开始同步。
+     */
+    public synchronized void start() {
+        if (pollTask != null) {
+            return;
+        }
+        needsInitialize = true;
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "delta-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        pollTask = scheduler.scheduleWithFixedDelay(this::poll, 0, POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 停止同步，在退出登录时调用。
+     */
+    public synchronized void stop() {
+        if (pollTask == null) {
+            return;
+        }
+        pollTask.cancel(false);
+        scheduler.shutdown();
+        pollTask = null;
+        scheduler = null;
+        active = false;
+        startingPoint = -1;
+    }
+
+    /**
+     * 同步是否正在运行。运行时其他客户端的修改会及时反映到本地缓存，缓存可以使用更长的有效期。
+     */
+    public boolean isRunning() {
+        return active;
+    }
+
+    private void poll() {
+        try {
+            if (!ChangeLogDAO.isAvailable()) {
+                return;
+            }
+            if (needsInitialize) {
+                initialize();
+                return;
+            }
+            long now = System.currentTimeMillis();
+            PendingRefresh pending = new PendingRefresh();
+            applyLateChanges(pending, now);
+            List<ChangeLogDAO.Change> changes = changeLogDAO.getChangesSince(watermark, BATCH_SIZE);
+            for (ChangeLogDAO.Change change : changes) {
+                if (appliedAboveWatermark.contains(change.getVersion())) {
+                    continue;
+                }
+                if (!change.isLocal()) {
+                    apply(change, pending);
+                }
+                appliedAboveWatermark.add(change.getVersion());
+            }
+            pending.flush();
+            if (advanceWatermark(now)) {
+                reloadAll();
+            }
+        } catch (SQLException e) {
+            System.err.println("增量同步失败: " + e.getMessage());
+        } catch (RuntimeException e) {
+            // 不让异常终止定时任务
+            e.printStackTrace();
+        }
+    }
+
+    // 从加载缓存前记录的版本（或当前最新版本）开始同步，并清理过期的日志
+    private void initialize() throws SQLException {
+        long start = startingPoint;
+        watermark = start >= 0 ? start : changeLogDAO.getLatestVersion();
+        appliedAboveWatermark.clear();
+        gapsSeenAt.clear();
+        skippedAt.clear();
+        needsInitialize = false;
+        active = true;
+        long cutoff = System.currentTimeMillis() - RETENTION_DAYS * 24 * 60 * 60 * 1000L;
+        int purged = changeLogDAO.purgeBefore(new Timestamp(cutoff));
+        if (purged > 0) {
+            System.out.println("已清理过期变更日志 " + purged + " 条");
+        }
+    }
+
+    // 把水位推进到连续处理过的版本，等待过久的空洞被跳过。返回是否跳过了版本
+    private boolean advanceWatermark(long now) {
+        boolean skipped = false;
+        while (true) {
+            long next = watermark + 1;
+            if (appliedAboveWatermark.remove(next)) {
+                watermark = next;
+                gapsSeenAt.remove(next);
+                continue;
+            }
+            if (appliedAboveWatermark.isEmpty()) {
+                // 水位之后没有已处理的版本，不存在空洞
+                gapsSeenAt.clear();
+                return skipped;
+            }
+            Long seenAt = gapsSeenAt.putIfAbsent(next, now);
+            if (seenAt != null && now - seenAt >= GAP_TIMEOUT_MILLIS) {
+                System.err.println("变更日志版本 " + next + " 等待 " + (now - seenAt) / 1000 + " 秒仍未提交，已跳过");
+                watermark = next;
+                gapsSeenAt.remove(next);
+                skippedAt.put(next, now);
+                skipped = true;
+                continue;
+            }
+            // 同时记录其后的空洞，使它们的等待时间从同一时刻开始计算
+            long highest = appliedAboveWatermark.stream().mapToLong(Long::longValue).max().getAsLong();
+            for (long v = next + 1; v < highest; v++) {
+                if (!appliedAboveWatermark.contains(v)) {
+                    gapsSeenAt.putIfAbsent(v, now);
+                }
+            }
+            return skipped;
+        }
+    }
+
+    // 应用跳过之后才提交的版本（已在水位之下，正常读取不会再读到）
+    private void applyLateChanges(PendingRefresh pending, long now) throws SQLException {
+        skippedAt.values().removeIf(at -> now - at >= SKIPPED_RECHECK_MILLIS);
+        if (skippedAt.isEmpty()) {
+            return;
+        }
+        // 跳过的版本都不大于水位，按版本排序读取时排在最前面
+        List<ChangeLogDAO.Change> changes = changeLogDAO.getChangesSince(skippedAt.firstKey() - 1, BATCH_SIZE);
+        for (ChangeLogDAO.Change change : changes) {
+            if (change.getVersion() > watermark) {
+                break;
+            }
+            if (skippedAt.remove(change.getVersion()) == null) {
+                continue;
+            }
+            System.err.println("已跳过的变更日志版本 " + change.getVersion() + " 延迟提交，补充应用");
+            if (!change.isLocal()) {
+                apply(change, pending);
+            }
+        }
+    }
+
+    // 跳过版本后，期间可能漏掉了其他客户端的变更，整体重新加载本地缓存
+    private void reloadAll() {
+        System.err.println("增量同步跳过了未提交的版本，重新加载本地缓存");
+        try {
+            ReservationIntervalIndex.getShared().warmUp();
+        } catch (SQLException e) {
+            System.err.println("重新加载预订索引失败: " + e.getMessage());
+        }
+        DailyBookingCounter.getShared().invalidateAll();
+        MeetingRoomDAO.invalidateRoomCache();
+        EquipmentIndex.getShared().invalidate();
+        PermissionMatrix.getShared().invalidate();
+        // 递增本地数据版本，使会议室实时状态和已显示的面板整体重新加载
+        MeetingRoomDAO.invalidateDashboardSnapshot();
+    }
+
+    // 记录变更涉及的会议室，实际的刷新在 PendingRefresh.flush() 中每个会议室只做一次
+    private void apply(ChangeLogDAO.Change change, PendingRefresh pending) {
+        String entityType = change.getEntityType();
+        Integer roomId = change.getRoomId();
+        if (ChangeLogDAO.ENTITY_RESERVATION.equals(entityType)) {
+            pending.reservationsChanged = true;
+            if (roomId != null) {
+                pending.reservationRoomIds.add(roomId);
+            }
+        } else if (ChangeLogDAO.ENTITY_MEETING_ROOM.equals(entityType)) {
+            MeetingRoomDAO.invalidateRoom(change.getEntityId());
+            if (ChangeLogDAO.OP_DELETE.equals(change.getOperation())) {
+                EquipmentIndex.getShared().invalidate();
+            }
+            pending.roomsChanged = true;
+        } else if (ChangeLogDAO.ENTITY_EQUIPMENT.equals(entityType)) {
+            applyEquipmentChange(change);
+        }
+    }
+
+    private void applyEquipmentChange(ChangeLogDAO.Change change) {
+        EquipmentIndex index = EquipmentIndex.getShared();
+        if (ChangeLogDAO.OP_DELETE.equals(change.getOperation())) {
+            index.remove(change.getEntityId());
+            return;
+        }
+        try {
+            Equipment equipment = new EquipmentDAO().getEquipmentById(change.getEntityId());
+            if (equipment == null) {
+                // 之后又被删除，删除记录会在后面处理
+                index.remove(change.getEntityId());
+            } else {
+                index.put(equipment);
+            }
+        } catch (SQLException e) {
+            index.invalidate();
+        }
+    }
+
+    /**
+     * 一次轮询中需要刷新的本地缓存。
+     */
+    private static class PendingRefresh {
+        final Set<Integer> reservationRoomIds = new HashSet<>();
+        boolean reservationsChanged;
+        boolean roomsChanged;
+
+        void flush() {
+            if (!reservationRoomIds.isEmpty()) {
+                new ReservationDAO().refreshRoomIndexes(reservationRoomIds);
+            }
+            if (reservationsChanged) {
+                DailyBookingCounter.getShared().invalidateAll();
+            }
+            if (roomsChanged) {
+                PermissionMatrix.getShared().invalidate();
+            }
+            if (reservationsChanged || roomsChanged) {
+                MeetingRoomDAO.invalidateDashboardCounters();
+                RoomStatusSnapshot.getShared().reloadRooms(reservationRoomIds, roomsChanged);
+            }
+        }
+    }
+}
@@ -33,6 +33,13 @@ public class Equipment {
         this.purchaseDate = purchaseDate;
     }
 
+    // Copy constructor, used by caches that must not share mutable instances with callers
+    public Equipment(Equipment other) {
+        this(other.equipmentId, other.roomId, other.name, other.model, other.status,
+                other.purchaseDate == null ? null : new Date(other.purchaseDate.getTime()));
+        this.roomName = other.roomName;
+    }
+
     // Getters
     public int getEquipmentId() {
         return equipmentId;
@@ -1,9 +1,13 @@
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 public class EquipmentDAO {
 
+    // Identical concurrent reads share one in-flight query
+    private static final SingleFlight<Boolean, List<Equipment>> ALL_EQUIPMENT = new SingleFlight<>();
+
     /**
      * Get all equipment from the database, joined with room name for display.
      * 
@@ -11,6 +15,14 @@ public class EquipmentDAO {
      * @throws SQLException on database error.
      */
     public List<Equipment> getAllEquipment() throws SQLException {
+        // A full pass over the table is also used to refresh the in-memory index
+        long modificationCount = EquipmentIndex.getShared().getModificationCount();
+        List<Equipment> all = ALL_EQUIPMENT.execute(Boolean.TRUE, () -> queryAllEquipment());
+        EquipmentIndex.getShared().loadIfUnchanged(all, modificationCount);
+        return new ArrayList<>(all);
+    }
+
+    List<Equipment> queryAllEquipment() throws SQLException {
         List<Equipment> equipmentList = new ArrayList<>();
         String sql = "SELECT e.equipmentId, e.roomId, e.name, e.model, e.status, e.purchaseDate, m.name as roomName " +
                 "FROM Equipment e LEFT JOIN MeetingRoom m ON e.roomId = m.roomId " +
@@ -34,31 +46,55 @@ public class EquipmentDAO {
     }
 
     /**
-     * Get all equipment for a specific room.
+     * Get a single piece of equipment straight from the database, joined with room name for display.
      * 
-     * @param roomId The ID of the room.
-     * @return A list of equipment in that room.
+     * @param equipmentId The ID of the equipment.
+     * @return The equipment, or null if it does not exist.
      * @throws SQLException on database error.
      */
-    public List<Equipment> getEquipmentByRoomId(int roomId) throws SQLException {
-        List<Equipment> equipmentList = new ArrayList<>();
-        String sql = "SELECT equipmentId, roomId, name, model, status, purchaseDate FROM Equipment WHERE roomId = ?";
+    public Equipment getEquipmentById(int equipmentId) throws SQLException {
+        String sql = "SELECT e.equipmentId, e.roomId, e.name, e.model, e.status, e.purchaseDate, m.name as roomName " +
+                "FROM Equipment e LEFT JOIN MeetingRoom m ON e.roomId = m.roomId " +
+                "WHERE e.equipmentId = ?";
         try (Connection conn = UserDAO.getConnection();
                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, roomId);
+            pstmt.setInt(1, equipmentId);
             try (ResultSet rs = pstmt.executeQuery()) {
-                while (rs.next()) {
-                    equipmentList.add(new Equipment(
+                if (rs.next()) {
+                    Equipment equipment = new Equipment(
                             rs.getInt("equipmentId"),
                             rs.getInt("roomId"),
                             rs.getString("name"),
                             rs.getString("model"),
                             rs.getInt("status"),
-                            rs.getDate("purchaseDate")));
+                            rs.getDate("purchaseDate"));
+                    equipment.setRoomName(rs.getString("roomName"));
+                    return equipment;
                 }
             }
         }
-        return equipmentList;
+        return null;
+    }
+
+    /**
+     * Get all equipment for a specific room, answered from the in-memory equipment index.
+     * 
+     * @param roomId The ID of the room.
+     * @return A list of equipment in that room.
+     * @throws SQLException on database error while (re)loading the index.
+     */
+    public List<Equipment> getEquipmentByRoomId(int roomId) throws SQLException {
+        return new ArrayList<>(EquipmentIndex.getShared().getByRoomId(roomId));
+    }
+
+    /**
+     * Get all equipment grouped by room, answered from the in-memory equipment index.
+     * 
+     * @return A map from room ID to the equipment in that room (lists are read-only). Rooms without equipment are absent.
+     * @throws SQLException on database error while (re)loading the index.
+     */
+    public Map<Integer, List<Equipment>> getEquipmentGroupedByRoomId() throws SQLException {
+        return EquipmentIndex.getShared().getGroupedByRoomId();
     }
 
     /**
@@ -71,13 +107,35 @@ public class EquipmentDAO {
     public boolean addEquipment(Equipment equipment) throws SQLException {
         String sql = "INSERT INTO Equipment (roomId, name, model, status, purchaseDate) VALUES (?, ?, ?, ?, ?)";
         try (Connection conn = UserDAO.getConnection();
-                PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            // The change-log entry is committed together with the change itself
+            conn.setAutoCommit(false);
             pstmt.setInt(1, equipment.getRoomId());
             pstmt.setString(2, equipment.getName());
             pstmt.setString(3, equipment.getModel());
             pstmt.setInt(4, equipment.getStatus());
             pstmt.setDate(5, equipment.getPurchaseDate());
-            return pstmt.executeUpdate() > 0;
+            boolean changed = pstmt.executeUpdate() > 0;
+            int equipmentId = 0;
+            if (changed) {
+                try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                    if (keys.next()) {
+                        equipmentId = keys.getInt(1);
+                        ChangeLogDAO.record(conn, ChangeLogDAO.ENTITY_EQUIPMENT, equipmentId, ChangeLogDAO.OP_INSERT,
+                                equipment.getRoomId());
+                    }
+                }
+            }
+            conn.commit();
+            ALL_EQUIPMENT.forget();
+            if (changed) {
+                if (equipmentId > 0) {
+                    updateIndex(equipmentId, equipment);
+                } else {
+                    EquipmentIndex.getShared().invalidate();
+                }
+            }
+            return changed;
         }
     }
 
@@ -92,13 +150,24 @@ public class EquipmentDAO {
         String sql = "UPDATE Equipment SET roomId = ?, name = ?, model = ?, status = ?, purchaseDate = ? WHERE equipmentId = ?";
         try (Connection conn = UserDAO.getConnection();
                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            conn.setAutoCommit(false);
             pstmt.setInt(1, equipment.getRoomId());
             pstmt.setString(2, equipment.getName());
             pstmt.setString(3, equipment.getModel());
             pstmt.setInt(4, equipment.getStatus());
             pstmt.setDate(5, equipment.getPurchaseDate());
             pstmt.setInt(6, equipment.getEquipmentId());
-            return pstmt.executeUpdate() > 0;
+            boolean changed = pstmt.executeUpdate() > 0;
+            if (changed) {
+                ChangeLogDAO.record(conn, ChangeLogDAO.ENTITY_EQUIPMENT, equipment.getEquipmentId(),
+                        ChangeLogDAO.OP_UPDATE, equipment.getRoomId());
+            }
+            conn.commit();
+            ALL_EQUIPMENT.forget();
+            if (changed) {
+                updateIndex(equipment.getEquipmentId(), equipment);
+            }
+            return changed;
         }
     }
 
@@ -113,8 +182,34 @@ public class EquipmentDAO {
         String sql = "DELETE FROM Equipment WHERE equipmentId = ?";
         try (Connection conn = UserDAO.getConnection();
                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            conn.setAutoCommit(false);
             pstmt.setInt(1, equipmentId);
-            return pstmt.executeUpdate() > 0;
+            boolean changed = pstmt.executeUpdate() > 0;
+            if (changed) {
+                ChangeLogDAO.record(conn, ChangeLogDAO.ENTITY_EQUIPMENT, equipmentId, ChangeLogDAO.OP_DELETE, null);
+            }
+            conn.commit();
+            ALL_EQUIPMENT.forget();
+            if (changed) {
+                EquipmentIndex.getShared().remove(equipmentId);
+            }
+            return changed;
+        }
+    }
+
+    /**
+     * Put the saved state of a piece of equipment into the index, with the room name filled in.
+     * If the room name cannot be looked up, the index is dropped and reloaded on next use instead.
+     */
+    private static void updateIndex(int equipmentId, Equipment saved) {
+        Equipment indexed = new Equipment(equipmentId, saved.getRoomId(), saved.getName(), saved.getModel(),
+                saved.getStatus(), saved.getPurchaseDate());
+        try {
+            MeetingRoom room = new MeetingRoomDAO().getMeetingRoomById(saved.getRoomId());
+            indexed.setRoomName(room == null ? null : room.getName());
+            EquipmentIndex.getShared().put(indexed);
+        } catch (SQLException e) {
+            EquipmentIndex.getShared().invalidate();
         }
     }
 }
\ No newline at end of file
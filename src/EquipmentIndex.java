@@ -0,0 +1,190 @@
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 按会议室组织的设备索引（内存）。
+ * 通过一次 getAllEquipment 查询建立 roomId → 设备列表的映射，会议室卡片和详情窗口查询设备时不再访问数据库。
+ * <p>
+ * 本客户端增删改设备时由 EquipmentDAO 增量更新索引；其他客户端的修改通过有效期感知，
+ * 管理员打开设备管理界面（完整查询一次设备表）时也会用查询结果刷新索引。
+ * Equipment 对象可以修改，索引只保存自己的副本：存入时复制，读取时返回副本（与 ReadThroughCache 相同）。
+ */
+public class EquipmentIndex {
+
+    // 索引有效期
+    private static final long TTL_MILLIS = 5 * 60 * 1000L;
+
+    private static final EquipmentIndex SHARED = new EquipmentIndex();
+
+    private volatile Snapshot snapshot;
+    // 每次变更递增，用于丢弃加载期间已经过期的结果
+    private long generation = 0;
+    // 索引过期时多张卡片同时查询，只加载一次
+    private final SingleFlight<Boolean, List<Equipment>> loads = new SingleFlight<>();
+
+    /**
+     * 获取全局共享的设备索引。
+     */
+    public static EquipmentIndex getShared() {
+        return SHARED;
+    }
+
+    /**
+     * 获取指定会议室的设备。
+     *
+     * @return 设备副本的列表（不可修改），没有设备时为空列表
+     * @throws SQLException 索引需要加载且访问数据库失败时抛出
+     */
+    public List<Equipment> getByRoomId(int roomId) throws SQLException {
+        List<Equipment> equipment = getSnapshot().byRoomId.get(roomId);
+        return equipment == null ? Collections.emptyList() : Collections.unmodifiableList(copyAll(equipment));
+    }
+
+    /**
+     * 获取所有会议室的设备（副本），按会议室ID分组。没有设备的会议室不在结果中。
+     *
+     * @throws SQLException 索引需要加载且访问数据库失败时抛出
+     */
+    public Map<Integer, List<Equipment>> getGroupedByRoomId() throws SQLException {
+        Map<Integer, List<Equipment>> grouped = new HashMap<>();
+        for (Map.Entry<Integer, List<Equipment>> entry : getSnapshot().byRoomId.entrySet()) {
+            grouped.put(entry.getKey(), Collections.unmodifiableList(copyAll(entry.getValue())));
+        }
+        return grouped;
+    }
+
+    /**
+     * 会议室是否有名称包含指定关键字、状态正常的设备。直接在索引上判断，不复制设备，供逐个会议室筛选时使用。
+     *
+     * @throws SQLException 索引需要加载且访问数据库失败时抛出
+     */
+    public boolean hasNormalEquipment(int roomId, String nameKeyword) throws SQLException {
+        List<Equipment> equipment = getSnapshot().byRoomId.get(roomId);
+        if (equipment == null) {
+            return false;
+        }
+        for (Equipment e : equipment) {
+            if (e.getStatus() == Equipment.STATUS_NORMAL && e.getName() != null
+                    && e.getName().contains(nameKeyword)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 获取当前的变更序号，在从数据库完整查询设备之前调用。
+     */
+    public synchronized long getModificationCount() {
+        return generation;
+    }
+
+    /**
+     * 用一次完整查询的结果重建索引。如果查询期间发生过变更，结果可能已不准确，不予使用。
+     *
+     * @param allEquipment            设备表中的全部设备
+     * @param modificationCountAtLoad 查询前通过 getModificationCount() 获得的序号
+     */
+    public void loadIfUnchanged(List<Equipment> allEquipment, long modificationCountAtLoad) {
+        install(new Snapshot(copyAll(allEquipment)), modificationCountAtLoad);
+    }
+
+    /**
+     * 新增或替换一个设备。索引尚未加载时无需处理。
+     */
+    public synchronized void put(Equipment equipment) {
+        generation++;
+        Snapshot current = snapshot;
+        if (current != null) {
+            Map<Integer, Equipment> byId = new HashMap<>(current.byId);
+            byId.put(equipment.getEquipmentId(), new Equipment(equipment));
+            snapshot = new Snapshot(byId.values(), current.loadedAt);
+        }
+        loads.forget();
+    }
+
+    /**
+     * 从索引中移除一个设备。
+     */
+    public synchronized void remove(int equipmentId) {
+        generation++;
+        Snapshot current = snapshot;
+        if (current != null && current.byId.containsKey(equipmentId)) {
+            Map<Integer, Equipment> byId = new HashMap<>(current.byId);
+            byId.remove(equipmentId);
+            snapshot = new Snapshot(byId.values(), current.loadedAt);
+        }
+        loads.forget();
+    }
+
+    /**
+     * 使索引失效，下次查询时重新加载。
+     */
+    public void invalidate() {
+        synchronized (this) {
+            generation++;
+            snapshot = null;
+        }
+        loads.forget();
+    }
+
+    private Snapshot getSnapshot() throws SQLException {
+        Snapshot current = snapshot;
+        if (current != null && System.currentTimeMillis() - current.loadedAt <= TTL_MILLIS) {
+            return current;
+        }
+        long loadGeneration;
+        synchronized (this) {
+            loadGeneration = generation;
+        }
+        Snapshot loaded = new Snapshot(loads.execute(Boolean.TRUE, () -> new EquipmentDAO().queryAllEquipment()));
+        install(loaded, loadGeneration);
+        return loaded;
+    }
+
+    private static List<Equipment> copyAll(List<Equipment> equipment) {
+        List<Equipment> copy = new ArrayList<>(equipment.size());
+        for (Equipment e : equipment) {
+            copy.add(new Equipment(e));
+        }
+        return copy;
+    }
+
+    private synchronized void install(Snapshot loaded, long loadGeneration) {
+        if (generation == loadGeneration) {
+            snapshot = loaded;
+        }
+    }
+
+    /**
+     * 某一时刻的不可变索引。
+     */
+    private static class Snapshot {
+        final Map<Integer, Equipment> byId = new HashMap<>();
+        final Map<Integer, List<Equipment>> byRoomId;
+        final long loadedAt;
+
+        Snapshot(Iterable<Equipment> equipment) {
+            this(equipment, System.currentTimeMillis());
+        }
+
+        Snapshot(Iterable<Equipment> equipment, long loadedAt) {
+            this.loadedAt = loadedAt;
+            Map<Integer, List<Equipment>> grouped = new HashMap<>();
+            for (Equipment e : equipment) {
+                byId.put(e.getEquipmentId(), e);
+                grouped.computeIfAbsent(e.getRoomId(), id -> new ArrayList<>()).add(e);
+            }
+            for (Map.Entry<Integer, List<Equipment>> entry : grouped.entrySet()) {
+                List<Equipment> list = entry.getValue();
+                list.sort((a, b) -> Integer.compare(a.getEquipmentId(), b.getEquipmentId()));
+                entry.setValue(Collections.unmodifiableList(list));
+            }
+            this.byRoomId = grouped;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 空闲会议室查找：一次调用返回在指定时间段内空闲、满足条件且当前用户可以预订的所有会议室。
+ * <p>
+ * 会议室来自会议室列表缓存，预订权限由内存中的权限矩阵判断（与 getBookableMeetingRooms 相同：
+ * 会议室可用且角色对其类型有预订权限）；时间段是否空闲优先由内存中的预订区间索引回答，
+ * 索引无法覆盖时用一次查询取出该时间段内被占用的会议室。因此一次查找最多访问一次数据库，与会议室数量无关。
+ * <p>
+ * 查找结果只用于展示，保存预订时仍由 ReservationDAO 在数据库中做最终的冲突检查。
+ */
+public class FreeRoomFinder {
+
+    // 优先推荐容量最接近需求的会议室
+    static final Comparator<MeetingRoom> BEST_FIT = Comparator.comparingInt(MeetingRoom::getCapacity)
+            .thenComparing(MeetingRoom::getName, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final MeetingRoomDAO meetingRoomDAO = new MeetingRoomDAO();
+    private final ReservationDAO reservationDAO = new ReservationDAO();
+
+    /**
+     * 查找在 [start, end) 内空闲的会议室，按容量从小到大排序。
+     *
+     * @param userRole 用户角色
+     * @param start    开始时间
+     * @param end      结束时间
+     * @param criteria 会议室条件
+     * @return 空闲的会议室
+     * @throws SQLException 数据库访问异常
+     */
+    public List<MeetingRoom> findFreeRooms(String userRole, Timestamp start, Timestamp end, Criteria criteria)
+            throws SQLException {
+        List<MeetingRoom> candidates = getCandidateRooms(userRole, criteria);
+        List<MeetingRoom> free = new ArrayList<>();
+        ReservationIntervalIndex index = ReservationIntervalIndex.getShared();
+        if (index.covers(start.getTime())) {
+            for (MeetingRoom room : candidates) {
+                if (!index.hasConflict(room.getRoomId(), start.getTime(), end.getTime(), 0)) {
+                    free.add(room);
+                }
+            }
+        } else {
+            Set<Integer> busy = reservationDAO.getBusyRoomIds(start, end);
+            for (MeetingRoom room : candidates) {
+                if (!busy.contains(room.getRoomId())) {
+                    free.add(room);
+                }
+            }
+        }
+        free.sort(BEST_FIT);
+        return free;
+    }
+
+    /**
+     * 获取当前角色可以预订、且满足条件的会议室（不考虑时间）。
+     */
+    List<MeetingRoom> getCandidateRooms(String userRole, Criteria criteria) throws SQLException {
+        PermissionMatrix permissions = PermissionMatrix.getShared();
+        List<MeetingRoom> candidates = new ArrayList<>();
+        for (MeetingRoom room : meetingRoomDAO.getAllMeetingRoomsWithType()) {
+            if (room.getStatus() == MeetingRoom.STATUS_AVAILABLE && criteria.matches(room)
+                    && permissions.hasPermission(userRole, room.getRoomTypeCode(), PermissionMatrix.CAN_BOOK)
+                    && hasRequiredEquipment(room.getRoomId(), criteria.getEquipmentKeyword())) {
+                candidates.add(room);
+            }
+        }
+        return candidates;
+    }
+
+    // 设备由内存中的设备索引回答，只认可正常状态的设备
+    private static boolean hasRequiredEquipment(int roomId, String equipmentKeyword) throws SQLException {
+        if (equipmentKeyword.isEmpty()) {
+            return true;
+        }
+        return EquipmentIndex.getShared().hasNormalEquipment(roomId, equipmentKeyword);
+    }
+
+    /**
+     * 会议室筛选条件。
+     */
+    public static class Criteria {
+        private final int minCapacity;
+        private final String roomTypeCode;
+        private final String locationKeyword;
+        private final String equipmentKeyword;
+
+        /**
+         * @param minCapacity     最少容纳人数，0 表示不限
+         * @param roomTypeCode    会议室类型代码，null 表示不限
+         * @param locationKeyword 位置中包含的关键字，null 或空字符串表示不限
+         */
+        public Criteria(int minCapacity, String roomTypeCode, String locationKeyword) {
+            this(minCapacity, roomTypeCode, locationKeyword, null);
+        }
+
+        /**
+         * @param minCapacity      最少容纳人数，0 表示不限
+         * @param roomTypeCode     会议室类型代码，null 表示不限
+         * @param locationKeyword  位置中包含的关键字，null 或空字符串表示不限
+         * @param equipmentKeyword 必须具备的设备名称关键字（如“投影仪”），null 或空字符串表示不限
+         */
+        public Criteria(int minCapacity, String roomTypeCode, String locationKeyword, String equipmentKeyword) {
+            this.minCapacity = minCapacity;
+            this.roomTypeCode = roomTypeCode;
+            this.locationKeyword = locationKeyword == null ? "" : locationKeyword.trim();
+            this.equipmentKeyword = equipmentKeyword == null ? "" : equipmentKeyword.trim();
+        }
+
+        public int getMinCapacity() {
+            return minCapacity;
+        }
+
+        public String getRoomTypeCode() {
+            return roomTypeCode;
+        }
+
+        public String getLocationKeyword() {
+            return locationKeyword;
+        }
+
+        public String getEquipmentKeyword() {
+            return equipmentKeyword;
+        }
+
+        boolean matches(MeetingRoom room) {
+            return room.getCapacity() >= minCapacity
+                    && (roomTypeCode == null || roomTypeCode.equals(room.getRoomTypeCode()))
+                    && (locationKeyword.isEmpty()
+                            || (room.getLocation() != null && room.getLocation().contains(locationKeyword)));
+        }
+    }
+}
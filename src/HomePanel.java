@@ -4,15 +4,12 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import net.miginfocom.swing.MigLayout;
 import java.sql.SQLException;
-import java.util.Date;
-import java.util.List;
-import java.util.concurrent.ExecutionException;
 import java.util.function.Consumer;
 
 /**
  * 主页面板，作为应用程序的欢迎页面。
  */
-public class HomePanel extends JPanel {
+public class HomePanel extends JPanel implements PanelLifecycle {
 
     private JLabel totalRoomsLabel;
     private JLabel availableRoomsLabel;
@@ -20,6 +17,10 @@ public class HomePanel extends JPanel {
     private JPanel quickActionsPanel;
     private JPanel statsPanel;
     private final Consumer<String> navigationCallback;
+    // 统计数据本身有 15 秒的共享缓存，面板数据按同样的有效期刷新
+    private final Freshness freshness = new Freshness(15 * 1000L);
+    // 本面板发起的数据库任务，切换到后台时取消未完成的任务，面板销毁时全部取消
+    private final DaoExecutor.TaskGroup tasks = DaoExecutor.getShared().newTaskGroup();
 
     public HomePanel(Consumer<String> callback) {
         this.navigationCallback = callback;
@@ -27,6 +28,26 @@ public class HomePanel extends JPanel {
         loadHomeData();
     }
 
+    @Override
+    public void onShow() {
+        if (freshness.isStale()) {
+            loadHomeData();
+        }
+    }
+
+    @Override
+    public void onHide() {
+        // 切换到其他面板时不再等待加载结果，下次显示时重新加载
+        if (tasks.cancelInFlight() > 0) {
+            freshness.invalidate();
+        }
+    }
+
+    @Override
+    public void onDispose() {
+        tasks.cancelAll();
+    }
+
     private void initComponents() {
         setLayout(new MigLayout("fill, insets 20", "[grow]", "[][][grow]"));
 
@@ -157,42 +178,25 @@ public class HomePanel extends JPanel {
     }
 
     private void loadHomeData() {
-        // 使用SwingWorker异步加载统计数据
+        freshness.markLoading();
+        // 通过 DaoExecutor 异步加载统计数据
         totalRoomsLabel.setText("加载中...");
         availableRoomsLabel.setText("加载中...");
         todayBookingsLabel.setText("加载中...");
-        SwingWorker<List<Integer>, Void> worker = new SwingWorker<>() {
-            @Override
-            protected List<Integer> doInBackground() throws Exception {
-                MeetingRoomDAO meetingRoomDAO = new MeetingRoomDAO();
-                ReservationDAO reservationDAO = new ReservationDAO();
-
-                int totalRooms = meetingRoomDAO.getTotalRoomCount();
-                int availableRooms = meetingRoomDAO.getAvailableRoomCount();
-                int todayBookings = reservationDAO.getBookingCountForDate(new Date());
-
-                return List.of(totalRooms, availableRooms, todayBookings);
-            }
-
-            @Override
-            protected void done() {
-                try {
-                    List<Integer> stats = get();
-                    totalRoomsLabel.setText(String.valueOf(stats.get(0)));
-                    availableRoomsLabel.setText(String.valueOf(stats.get(1)));
-                    todayBookingsLabel.setText(String.valueOf(stats.get(2)));
-                } catch (InterruptedException | ExecutionException e) {
-                    e.printStackTrace();
-                    // 在UI上显示错误信息
-                    totalRoomsLabel.setText("N/A");
-                    availableRoomsLabel.setText("N/A");
-                    todayBookingsLabel.setText("N/A");
-                    JOptionPane.showMessageDialog(HomePanel.this, "加载主页数据失败: " + e.getMessage(), "错误",
-                            JOptionPane.ERROR_MESSAGE);
-                }
-            }
-        };
-        worker.execute();
+        // 一次查询获取全部统计数据（带短时共享缓存）
+        tasks.run(() -> new MeetingRoomDAO().getDashboardSnapshot(), stats -> {
+            totalRoomsLabel.setText(String.valueOf(stats.getTotalRooms()));
+            availableRoomsLabel.setText(String.valueOf(stats.getAvailableRooms()));
+            todayBookingsLabel.setText(String.valueOf(stats.getTodayBookings()));
+        }, e -> {
+            e.printStackTrace();
+            // 在UI上显示错误信息
+            totalRoomsLabel.setText("N/A");
+            availableRoomsLabel.setText("N/A");
+            todayBookingsLabel.setText("N/A");
+            JOptionPane.showMessageDialog(HomePanel.this, "加载主页数据失败: " + e.getMessage(), "错误",
+                    JOptionPane.ERROR_MESSAGE);
+        });
     }
 
     // 快速操作的方法
@@ -225,6 +225,11 @@ public class LoginForm extends JFrame {
     }
 
     public static void main(String[] args) {
+        // 后台执行数据库迁移和索引检查，不阻塞登录界面
+        Thread schemaCheck = new Thread(SchemaMigrator::runStartupCheck, "schema-migrator");
+        schemaCheck.setDaemon(true);
+        schemaCheck.start();
+
         // 使用UIStyleUtil初始化全局UI样式
         SwingUtilities.invokeLater(() -> {
             // 初始化全局UI样式（包括FlatLaf IntelliJ主题）
@@ -21,6 +21,7 @@ public class MainPage extends JFrame {
     // 添加缺失的成员变量声明
     private JButton btnHome;
     private JButton btnRoomStatus;
+    private JButton btnRoomSearch;
     private JButton btnMyBookings;
     private JButton btnProfile;
     private JButton btnAdminSettings;
@@ -31,12 +32,15 @@ public class MainPage extends JFrame {
     private static final String PANEL_HOME = "主页界面";
     private static final String PANEL_ROOM_STATUS = "会议室状态界面";
     private static final String PANEL_BOOK_ROOM = "预订会议室界面";
+    private static final String PANEL_ROOM_SEARCH = "查找空闲会议室界面";
     private static final String PANEL_MY_BOOKINGS = "我的预订界面";
     private static final String PANEL_PROFILE = "个人信息界面";
     private static final String PANEL_ADMIN_SETTINGS = "系统设置界面 (管理员)";
 
     // 按钮与面板key映射
     private final Map<JButton, String> buttonPanelMap = new HashMap<>();
+    // 已创建的内容面板缓存
+    private final PanelCache panelCache = new PanelCache(PanelCache.DEFAULT_COMPONENT_BUDGET);
 
     public MainPage(User user) {
         this.currentUser = user; // 保存用户
@@ -65,11 +69,33 @@ public class MainPage extends JFrame {
         btnLogout.addActionListener(e -> {
             int confirmation = JOptionPane.showConfirmDialog(this, "您确定要退出登录吗？", "退出确认", JOptionPane.YES_NO_OPTION);
             if (confirmation == JOptionPane.YES_OPTION) {
+                panelCache.clear();
+                DeltaSyncService.getShared().stop();
                 dispose();
                 SwingUtilities.invokeLater(() -> new LoginForm().setVisible(true));
             }
         });
         showContent(PANEL_HOME);
+        warmUpCaches();
+    }
+
+    /**
+     * 在后台预热本地缓存（预订时间索引等），不阻塞界面显示。
+     */
+    private void warmUpCaches() {
+        DaoExecutor.onEdt(DaoExecutor.getShared().submit(() -> {
+            // 先记录同步起点，加载缓存期间其他客户端的修改也会被同步
+            DeltaSyncService sync = DeltaSyncService.getShared();
+            sync.markStartingPoint();
+            ReservationIntervalIndex.getShared().warmUp();
+            // 缓存加载完成后开始同步其他客户端的修改
+            sync.start();
+            return null;
+        }), result -> {
+        }, e -> {
+            // 预热失败不影响使用，冲突检测会回退到数据库查询
+            System.err.println("预热预订索引失败: " + e.getMessage());
+        });
     }
 
     /**
@@ -78,6 +104,7 @@ public class MainPage extends JFrame {
     private void initButtons() {
         btnHome = createNavButton("主页");
         btnRoomStatus = createNavButton("会议室状态");
+        btnRoomSearch = createNavButton("查找空闲会议室");
         btnMyBookings = createNavButton("我的预订");
         btnProfile = createNavButton("个人信息");
         btnAdminSettings = createNavButton("系统设置");
@@ -103,6 +130,7 @@ public class MainPage extends JFrame {
     private void initButtonPanelMap() {
         buttonPanelMap.put(btnHome, PANEL_HOME);
         buttonPanelMap.put(btnRoomStatus, PANEL_ROOM_STATUS);
+        buttonPanelMap.put(btnRoomSearch, PANEL_ROOM_SEARCH);
         buttonPanelMap.put(btnMyBookings, PANEL_MY_BOOKINGS);
         buttonPanelMap.put(btnProfile, PANEL_PROFILE);
         if (currentUser.isAdmin()) {
@@ -121,52 +149,49 @@ public class MainPage extends JFrame {
 
     /**
      * 根据导航选择更新右侧内容面板的显示内容。
-     * 此方法作为各个功能模块UI的入口点。
+     * 此方法作为各个功能模块UI的入口点。已创建的面板会被缓存，再次进入时由面板自行判断是否刷新数据。
      * 
      * @param panelKey 一个用于识别要加载哪个面板的键或标识符。
      */
     private void showContent(String panelKey) {
-        contentPanel.removeAll(); // 移除当前所有组件
-        JPanel newPanelToShow = null;
-
-        // 根据 panelKey 创建并加载相应的 JPanel
         switch (panelKey) {
             case PANEL_HOME:
-                newPanelToShow = new HomePanel(this::showContent);
+                panelCache.show(PANEL_HOME, () -> new HomePanel(this::showContent), false);
                 break;
             case PANEL_ROOM_STATUS:
             case PANEL_BOOK_ROOM:
-                newPanelToShow = new RoomStatusPanel(currentUser);
+                panelCache.show(PANEL_ROOM_STATUS, () -> new RoomStatusPanel(currentUser), false);
+                break;
+            case PANEL_ROOM_SEARCH:
+                panelCache.show(PANEL_ROOM_SEARCH, () -> new RoomSearchPanel(currentUser), false);
                 break;
             case PANEL_MY_BOOKINGS:
-                newPanelToShow = new MyBookingsPanel(currentUser);
+                panelCache.show(PANEL_MY_BOOKINGS, () -> new MyBookingsPanel(currentUser), false);
                 break;
             case PANEL_PROFILE:
-                newPanelToShow = new UserProfilePanel(currentUser);
+                // 个人信息和系统设置不常用，超出预算时可以被淘汰
+                panelCache.show(PANEL_PROFILE, () -> new UserProfilePanel(currentUser), true);
                 break;
             case PANEL_ADMIN_SETTINGS:
-                if (currentUser.isAdmin()) {
-                    newPanelToShow = new AdminSettingsPanel(currentUser);
-                } else {
+                panelCache.show(PANEL_ADMIN_SETTINGS, () -> {
+                    if (currentUser.isAdmin()) {
+                        return new AdminSettingsPanel(currentUser);
+                    }
                     JPanel accessDeniedPanel = new JPanel(new GridBagLayout());
                     accessDeniedPanel.add(new JLabel("您没有权限访问此页面。"));
-                    newPanelToShow = accessDeniedPanel;
-                }
+                    return accessDeniedPanel;
+                }, true);
                 break;
             default:
-                JLabel defaultLabel = new JLabel("未找到对应界面: " + panelKey, SwingConstants.CENTER);
-                defaultLabel.setFont(new Font("微软雅黑", Font.BOLD, 18));
-                newPanelToShow = new JPanel(new BorderLayout());
-                newPanelToShow.add(defaultLabel, BorderLayout.CENTER);
+                panelCache.show(panelKey, () -> {
+                    JLabel defaultLabel = new JLabel("未找到对应界面: " + panelKey, SwingConstants.CENTER);
+                    defaultLabel.setFont(new Font("微软雅黑", Font.BOLD, 18));
+                    JPanel notFoundPanel = new JPanel(new BorderLayout());
+                    notFoundPanel.add(defaultLabel, BorderLayout.CENTER);
+                    return notFoundPanel;
+                }, true);
                 break;
         }
-
-        if (newPanelToShow != null) {
-            contentPanel.add(newPanelToShow, BorderLayout.CENTER);
-        }
-
-        contentPanel.revalidate(); // 使更改生效
-        contentPanel.repaint(); // 重绘面板
     }
 
     /**
@@ -180,6 +205,7 @@ public class MainPage extends JFrame {
         sidebar.add(lblNavigationTitle, "align center, gaptop 5, gapbottom 15");
         sidebar.add(btnHome, "growx, h 40!");
         sidebar.add(btnRoomStatus, "growx, h 40!, gaptop 5");
+        sidebar.add(btnRoomSearch, "growx, h 40!, gaptop 5");
         sidebar.add(btnMyBookings, "growx, h 40!, gaptop 5");
         sidebar.add(btnProfile, "growx, h 40!, gaptop 5");
         sidebar.add(new JLabel(), "pushy");
@@ -197,9 +223,7 @@ public class MainPage extends JFrame {
         JPanel panel = new JPanel();
         panel.setLayout(new BorderLayout());
         panel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
-        JLabel welcomeLabel = new JLabel("欢迎使用会议室预订系统", SwingConstants.CENTER);
-        welcomeLabel.setFont(new Font("微软雅黑", Font.PLAIN, 18));
-        panel.add(welcomeLabel, BorderLayout.CENTER);
+        panel.add(panelCache.getHost(), BorderLayout.CENTER);
         return panel;
     }
 }
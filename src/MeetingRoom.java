@@ -66,6 +66,12 @@ public class MeetingRoom {
         this.roomTypeId = roomTypeId;
     }
 
+    // 复制构造函数
+    public MeetingRoom(MeetingRoom other) {
+        this(other.roomId, other.name, other.capacity, other.location, other.description, other.status,
+                other.roomTypeId, other.roomTypeCode);
+    }
+
     // Getters
     public int getRoomId() {
         return roomId;
@@ -1,12 +1,36 @@
 import java.sql.*;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * MeetingRoomDAO 类用于处理与 MeetingRoom 表相关的数据库操作。
  */
 public class MeetingRoomDAO {
 
+    // 主页统计快照的有效期
+    private static final long DASHBOARD_TTL_MILLIS = 15 * 1000L;
+    private static volatile DashboardSnapshot cachedDashboard;
+    // 本客户端会议室或预订数据的变更序号
+    private static final AtomicLong LOCAL_DATA_VERSION = new AtomicLong();
+
+    // 会议室基本信息只在管理员修改时变化，缓存后由增删改方法精确失效；其他客户端的修改通过有效期感知
+    private static final long ROOM_CACHE_TTL_MILLIS = 5 * 60 * 1000L;
+    // 按ID缓存的会议室（含类型信息）
+    private static final ReadThroughCache<Integer, MeetingRoom> ROOM_CACHE = new ReadThroughCache<>(
+            "MeetingRoom", 500, ROOM_CACHE_TTL_MILLIS, MeetingRoom::new);
+    // 全部会议室列表，键表示是否包含类型信息
+    private static final ReadThroughCache<Boolean, List<MeetingRoom>> ROOM_LIST_CACHE = new ReadThroughCache<>(
+            "MeetingRoomList", 2, ROOM_CACHE_TTL_MILLIS, MeetingRoomDAO::copyRooms);
+
+    // 合并相同的并发读取（例如多张卡片同时查询同一个会议室），不做缓存
+    private static final SingleFlight<String, List<MeetingRoom>> ACCESSIBLE_ROOMS = new SingleFlight<>();
+    private static final SingleFlight<String, List<MeetingRoom>> BOOKABLE_ROOMS = new SingleFlight<>();
+    private static final SingleFlight<String, List<MeetingRoomStatusDTO>> ACCESSIBLE_ROOMS_WITH_STATUS = new SingleFlight<>();
+
     /**
      * 获取会议室总数。
      * 
@@ -52,30 +76,152 @@ public class MeetingRoomDAO {
     }
 
     /**
-     * 根据ID获取单个会议室的完整信息。
+     * 获取主页统计快照：会议室总数、当前可用会议室数、今日预订数，一次查询返回。
+     * 结果在所有面板间共享，有效期内不再访问数据库。
      * 
-     * @param roomId 要查找的会议室ID
-     * @return 如果找到，返回 MeetingRoom 对象；否则返回 null
+     * @return 统计快照
      * @throws SQLException 数据库访问异常
      */
-    public MeetingRoom getMeetingRoomById(int roomId) throws SQLException {
-        String sql = "SELECT roomId, name, capacity, location, description, status FROM MeetingRoom WHERE roomId = ?";
+    public DashboardSnapshot getDashboardSnapshot() throws SQLException {
+        DashboardSnapshot snapshot = cachedDashboard;
+        if (snapshot != null && System.currentTimeMillis() - snapshot.getSnapshotTime() < DASHBOARD_TTL_MILLIS) {
+            return snapshot;
+        }
+
+        LocalDate today = LocalDate.now();
+        long modificationCount = DailyBookingCounter.getShared().getModificationCount();
+        String sql = "SELECT " +
+                "(SELECT COUNT(*) FROM MeetingRoom) AS totalRooms, " +
+                "(SELECT COUNT(*) FROM MeetingRoom m WHERE m.status = ? AND NOT EXISTS (" +
+                "  SELECT 1 FROM Reservation r " +
+                "  WHERE r.roomId = m.roomId AND NOW() BETWEEN r.startTime AND r.endTime AND r.status = ?" +
+                ")) AS availableRooms, " +
+                "(SELECT COUNT(*) FROM Reservation WHERE startTime >= ? AND startTime < ? AND status != ?) AS todayBookings";
         try (Connection conn = UserDAO.getConnection();
                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, roomId);
+            pstmt.setInt(1, MeetingRoom.STATUS_AVAILABLE);
+            pstmt.setInt(2, Reservation.STATUS_CONFIRMED);
+            pstmt.setTimestamp(3, Timestamp.valueOf(today.atStartOfDay()));
+            pstmt.setTimestamp(4, Timestamp.valueOf(today.plusDays(1).atStartOfDay()));
+            pstmt.setInt(5, Reservation.STATUS_CANCELLED);
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    return new MeetingRoom(
-                            rs.getInt("roomId"),
-                            rs.getString("name"),
-                            rs.getInt("capacity"),
-                            rs.getString("location"),
-                            rs.getString("description"),
-                            rs.getInt("status"));
+                    snapshot = new DashboardSnapshot(rs.getInt("totalRooms"), rs.getInt("availableRooms"),
+                            rs.getInt("todayBookings"), System.currentTimeMillis());
+                } else {
+                    snapshot = new DashboardSnapshot(0, 0, 0, System.currentTimeMillis());
                 }
             }
         }
-        return null;
+        // 顺便填充每日计数缓存，供其他地方查询今日预订数
+        DailyBookingCounter.getShared().putIfUnchanged(today, snapshot.getTodayBookings(), modificationCount);
+        cachedDashboard = snapshot;
+        return snapshot;
+    }
+
+    /**
+     * 使主页统计快照失效，在会议室或预订发生变化后调用。
+     */
+    public static void invalidateDashboardSnapshot() {
+        cachedDashboard = null;
+        LOCAL_DATA_VERSION.incrementAndGet();
+        forgetInFlightReads();
+        RoomStatusSnapshot.getShared().requestRefresh();
+    }
+
+    /**
+     * 只丢弃主页统计快照，不递增本地数据版本。用于同步到其他客户端的修改：
+     * 会议室状态由 RoomStatusSnapshot 按会议室重新加载，已显示的面板按各自的有效期刷新。
+     */
+    public static void invalidateDashboardCounters() {
+        cachedDashboard = null;
+    }
+
+    /**
+     * 清空会议室缓存，在会议室类型发生变化后调用（缓存的会议室包含类型代码）。
+     */
+    public static void invalidateRoomCache() {
+        ROOM_CACHE.invalidateAll();
+        ROOM_LIST_CACHE.invalidateAll();
+        forgetInFlightReads();
+    }
+
+    /**
+     * 使单个会议室的缓存失效，在同步到其他客户端对该会议室的修改后调用。
+     */
+    public static void invalidateRoom(int roomId) {
+        ROOM_CACHE.invalidate(roomId);
+        ROOM_LIST_CACHE.invalidateAll();
+        forgetInFlightReads();
+    }
+
+    private static List<MeetingRoom> copyRooms(List<MeetingRoom> rooms) {
+        List<MeetingRoom> copy = new ArrayList<>(rooms.size());
+        for (MeetingRoom room : rooms) {
+            copy.add(new MeetingRoom(room));
+        }
+        return copy;
+    }
+
+    /**
+     * 之后的读取不再合并到此前开始的查询上，在会议室、会议室类型或预订发生变化后调用。
+     */
+    public static void forgetInFlightReads() {
+        ACCESSIBLE_ROOMS.forget();
+        BOOKABLE_ROOMS.forget();
+        ACCESSIBLE_ROOMS_WITH_STATUS.forget();
+    }
+
+    /**
+     * 获取本客户端会议室或预订数据的变更序号，每次 invalidateDashboardSnapshot() 时递增。
+     * 界面可以据此判断已加载的数据是否需要刷新。
+     */
+    public static long getLocalDataVersion() {
+        return LOCAL_DATA_VERSION.get();
+    }
+
+    /**
+     * 主页统计快照。
+     */
+    public static class DashboardSnapshot {
+        private final int totalRooms;
+        private final int availableRooms;
+        private final int todayBookings;
+        private final long snapshotTime;
+
+        public DashboardSnapshot(int totalRooms, int availableRooms, int todayBookings, long snapshotTime) {
+            this.totalRooms = totalRooms;
+            this.availableRooms = availableRooms;
+            this.todayBookings = todayBookings;
+            this.snapshotTime = snapshotTime;
+        }
+
+        public int getTotalRooms() {
+            return totalRooms;
+        }
+
+        public int getAvailableRooms() {
+            return availableRooms;
+        }
+
+        public int getTodayBookings() {
+            return todayBookings;
+        }
+
+        public long getSnapshotTime() {
+            return snapshotTime;
+        }
+    }
+
+    /**
+     * 根据ID获取单个会议室的完整信息（含类型信息，经过缓存）。
+     * 
+     * @param roomId 要查找的会议室ID
+     * @return 如果找到，返回 MeetingRoom 对象；否则返回 null
+     * @throws SQLException 数据库访问异常
+     */
+    public MeetingRoom getMeetingRoomById(int roomId) throws SQLException {
+        return getMeetingRoomByIdWithType(roomId);
     }
 
     /**
@@ -106,34 +252,8 @@ public class MeetingRoomDAO {
                 Timestamp currentBookingStartTime = rs.getTimestamp("currentBookingStartTime");
                 Timestamp currentBookingEndTime = rs.getTimestamp("currentBookingEndTime");
 
-                String displayStatus;
-                String bookingTime = "";
-
-                // 优先判断是否被预订（使用中）
-                if (currentBookingSubject != null) {
-                    displayStatus = "使用中";
-                    if (currentBookingStartTime != null && currentBookingEndTime != null) {
-                        bookingTime = String.format("%s - %s",
-                                new java.text.SimpleDateFormat("HH:mm").format(currentBookingStartTime),
-                                new java.text.SimpleDateFormat("HH:mm").format(currentBookingEndTime));
-                    }
-                } else {
-                    // 如果没有被预订，则根据会议室自身状态判断
-                    switch (roomDbStatus) {
-                        case MeetingRoom.STATUS_AVAILABLE:
-                            displayStatus = "空闲";
-                            break;
-                        case MeetingRoom.STATUS_MAINTENANCE:
-                            displayStatus = "维护中";
-                            break;
-                        case MeetingRoom.STATUS_DECOMMISSIONED:
-                            displayStatus = "已停用";
-                            break;
-                        default:
-                            displayStatus = "未知状态";
-                            break;
-                    }
-                }
+                String displayStatus = toDisplayStatus(roomDbStatus, currentBookingSubject);
+                String bookingTime = formatBookingTime(currentBookingStartTime, currentBookingEndTime);
 
                 roomStatuses.add(
                         new MeetingRoomStatusDTO(roomId, roomName, displayStatus, currentBookingSubject, bookingTime));
@@ -142,6 +262,96 @@ public class MeetingRoomDAO {
         return roomStatuses;
     }
 
+    /**
+     * 获取用户角色可访问的会议室及其当前状态、会议室详情和预订权限，一次查询返回。
+     * 结果按会议室ID去重（同一时刻存在多条进行中的预订时只保留第一条），保持按名称排序。
+     * 
+     * @param userRole 用户角色
+     * @return 可访问会议室的状态列表，每项都附带会议室详情（含类型）
+     * @throws SQLException 数据库访问异常
+     */
+    public List<MeetingRoomStatusDTO> getAccessibleMeetingRoomsWithStatus(String userRole) throws SQLException {
+        return new ArrayList<>(ACCESSIBLE_ROOMS_WITH_STATUS.execute(userRole, () -> queryGetAccessibleMeetingRoomsWithStatus(userRole)));
+    }
+
+    private List<MeetingRoomStatusDTO> queryGetAccessibleMeetingRoomsWithStatus(String userRole) throws SQLException {
+        Map<Integer, MeetingRoomStatusDTO> roomStatuses = new LinkedHashMap<>();
+        String sql = "SELECT m.roomId, m.name, m.capacity, m.location, m.description, m.status, " +
+                "m.roomTypeId, rt.typeCode, " +
+                "r.subject AS currentBookingSubject, r.startTime AS currentBookingStartTime, r.endTime AS currentBookingEndTime, "
+                +
+                "EXISTS (SELECT 1 FROM PermissionMapping pb " +
+                "  WHERE pb.userRole = ? AND pb.roomTypeCode = rt.typeCode AND pb.canBook = 1) AS canBook " +
+                "FROM MeetingRoom m " +
+                "LEFT JOIN RoomType rt ON m.roomTypeId = rt.roomTypeId " +
+                "LEFT JOIN Reservation r ON m.roomId = r.roomId AND NOW() BETWEEN r.startTime AND r.endTime AND r.status = ? "
+                +
+                "WHERE EXISTS (" +
+                "  SELECT 1 FROM PermissionMapping pm " +
+                "  WHERE pm.userRole = ? AND pm.roomTypeCode = rt.typeCode " +
+                "  AND (pm.canView = 1 OR pm.canBook = 1 OR pm.canManage = 1)" +
+                ") " +
+                "ORDER BY m.name";
+
+        try (Connection conn = UserDAO.getConnection();
+                PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, userRole);
+            pstmt.setInt(2, Reservation.STATUS_CONFIRMED);
+            pstmt.setString(3, userRole);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    int roomId = rs.getInt("roomId");
+                    if (roomStatuses.containsKey(roomId)) {
+                        continue;
+                    }
+                    MeetingRoom room = new MeetingRoom(
+                            roomId,
+                            rs.getString("name"),
+                            rs.getInt("capacity"),
+                            rs.getString("location"),
+                            rs.getString("description"),
+                            rs.getInt("status"),
+                            rs.getInt("roomTypeId"),
+                            rs.getString("typeCode"));
+                    String currentBookingSubject = rs.getString("currentBookingSubject");
+                    MeetingRoomStatusDTO dto = new MeetingRoomStatusDTO(roomId, room.getName(),
+                            toDisplayStatus(room.getStatus(), currentBookingSubject), currentBookingSubject,
+                            formatBookingTime(rs.getTimestamp("currentBookingStartTime"),
+                                    rs.getTimestamp("currentBookingEndTime")));
+                    dto.setRoom(room);
+                    dto.setBookable(rs.getBoolean("canBook"));
+                    roomStatuses.put(roomId, dto);
+                }
+            }
+        }
+        return new ArrayList<>(roomStatuses.values());
+    }
+
+    // 根据当前预订和会议室自身状态计算显示状态，被预订（使用中）优先
+    static String toDisplayStatus(int roomDbStatus, String currentBookingSubject) {
+        if (currentBookingSubject != null) {
+            return "使用中";
+        }
+        switch (roomDbStatus) {
+            case MeetingRoom.STATUS_AVAILABLE:
+                return "空闲";
+            case MeetingRoom.STATUS_MAINTENANCE:
+                return "维护中";
+            case MeetingRoom.STATUS_DECOMMISSIONED:
+                return "已停用";
+            default:
+                return "未知状态";
+        }
+    }
+
+    static String formatBookingTime(Timestamp startTime, Timestamp endTime) {
+        if (startTime == null || endTime == null) {
+            return "";
+        }
+        java.text.SimpleDateFormat format = new java.text.SimpleDateFormat("HH:mm");
+        return String.format("%s - %s", format.format(startTime), format.format(endTime));
+    }
+
     /**
      * DTO (Data Transfer Object) 用于封装会议室及其当前状态和预订信息。
      */
@@ -151,6 +361,8 @@ public class MeetingRoomDAO {
         private String status; // 显示状态: 空闲, 使用中, 维护中
         private String currentBookingSubject;
         private String currentBookingTime;
+        private MeetingRoom room; // 会议室详情（可选）
+        private boolean bookable; // 当前用户是否可预订
 
         public MeetingRoomStatusDTO(int roomId, String roomName, String status, String currentBookingSubject,
                 String currentBookingTime) {
@@ -180,6 +392,22 @@ public class MeetingRoomDAO {
         public String getCurrentBookingTime() {
             return currentBookingTime;
         }
+
+        public MeetingRoom getRoom() {
+            return room;
+        }
+
+        public void setRoom(MeetingRoom room) {
+            this.room = room;
+        }
+
+        public boolean isBookable() {
+            return bookable;
+        }
+
+        public void setBookable(boolean bookable) {
+            this.bookable = bookable;
+        }
     }
 
     // --- CRUD Operations for Admin ---
@@ -191,6 +419,10 @@ public class MeetingRoomDAO {
      * @throws SQLException 数据库访问异常
      */
     public List<MeetingRoom> getAllMeetingRooms() throws SQLException {
+        return ROOM_LIST_CACHE.get(Boolean.FALSE, () -> queryGetAllMeetingRooms());
+    }
+
+    private List<MeetingRoom> queryGetAllMeetingRooms() throws SQLException {
         List<MeetingRoom> rooms = new ArrayList<>();
         String sql = "SELECT roomId, name, capacity, location, description, status FROM MeetingRoom ORDER BY name";
         try (Connection conn = UserDAO.getConnection();
@@ -219,13 +451,28 @@ public class MeetingRoomDAO {
     public boolean addMeetingRoom(MeetingRoom room) throws SQLException {
         String sql = "INSERT INTO MeetingRoom (name, capacity, location, description, status) VALUES (?, ?, ?, ?, ?)";
         try (Connection conn = UserDAO.getConnection();
-                PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            conn.setAutoCommit(false);
             pstmt.setString(1, room.getName());
             pstmt.setInt(2, room.getCapacity());
             pstmt.setString(3, room.getLocation());
             pstmt.setString(4, room.getDescription());
             pstmt.setInt(5, room.getStatus());
             int affectedRows = pstmt.executeUpdate();
+            if (affectedRows > 0) {
+                try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                    if (keys.next()) {
+                        ChangeLogDAO.record(conn, ChangeLogDAO.ENTITY_MEETING_ROOM, keys.getInt(1),
+                                ChangeLogDAO.OP_INSERT, keys.getInt(1));
+                    }
+                }
+            }
+            conn.commit();
+            if (affectedRows > 0) {
+                ROOM_LIST_CACHE.invalidateAll();
+                invalidateDashboardSnapshot();
+                PermissionMatrix.getShared().invalidate();
+            }
             return affectedRows > 0;
         }
     }
@@ -241,6 +488,7 @@ public class MeetingRoomDAO {
         String sql = "UPDATE MeetingRoom SET name = ?, capacity = ?, location = ?, description = ?, status = ? WHERE roomId = ?";
         try (Connection conn = UserDAO.getConnection();
                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            conn.setAutoCommit(false);
             pstmt.setString(1, room.getName());
             pstmt.setInt(2, room.getCapacity());
             pstmt.setString(3, room.getLocation());
@@ -248,6 +496,17 @@ public class MeetingRoomDAO {
             pstmt.setInt(5, room.getStatus());
             pstmt.setInt(6, room.getRoomId());
             int affectedRows = pstmt.executeUpdate();
+            if (affectedRows > 0) {
+                ChangeLogDAO.record(conn, ChangeLogDAO.ENTITY_MEETING_ROOM, room.getRoomId(), ChangeLogDAO.OP_UPDATE,
+                        room.getRoomId());
+            }
+            conn.commit();
+            if (affectedRows > 0) {
+                ROOM_CACHE.invalidate(room.getRoomId());
+                ROOM_LIST_CACHE.invalidateAll();
+                invalidateDashboardSnapshot();
+                PermissionMatrix.getShared().invalidate();
+            }
             return affectedRows > 0;
         }
     }
@@ -264,8 +523,21 @@ public class MeetingRoomDAO {
         String sql = "DELETE FROM MeetingRoom WHERE roomId = ?";
         try (Connection conn = UserDAO.getConnection();
                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            conn.setAutoCommit(false);
             pstmt.setInt(1, roomId);
             int affectedRows = pstmt.executeUpdate();
+            if (affectedRows > 0) {
+                ChangeLogDAO.record(conn, ChangeLogDAO.ENTITY_MEETING_ROOM, roomId, ChangeLogDAO.OP_DELETE, roomId);
+            }
+            conn.commit();
+            if (affectedRows > 0) {
+                ROOM_CACHE.invalidate(roomId);
+                ROOM_LIST_CACHE.invalidateAll();
+                // 会议室的设备可能被级联删除或转移
+                EquipmentIndex.getShared().invalidate();
+                invalidateDashboardSnapshot();
+                PermissionMatrix.getShared().invalidate();
+            }
             return affectedRows > 0;
         }
     }
@@ -280,6 +552,10 @@ public class MeetingRoomDAO {
      * @throws SQLException 数据库访问异常
      */
     public List<MeetingRoom> getAccessibleMeetingRooms(String userRole) throws SQLException {
+        return new ArrayList<>(ACCESSIBLE_ROOMS.execute(userRole, () -> queryGetAccessibleMeetingRooms(userRole)));
+    }
+
+    private List<MeetingRoom> queryGetAccessibleMeetingRooms(String userRole) throws SQLException {
         List<MeetingRoom> rooms = new ArrayList<>();
         String sql = "SELECT m.roomId, m.name, m.capacity, m.location, m.description, m.status, " +
                 "m.roomTypeId, rt.typeCode " +
@@ -321,6 +597,10 @@ public class MeetingRoomDAO {
      * @throws SQLException 数据库访问异常
      */
     public List<MeetingRoom> getBookableMeetingRooms(String userRole) throws SQLException {
+        return new ArrayList<>(BOOKABLE_ROOMS.execute(userRole, () -> queryGetBookableMeetingRooms(userRole)));
+    }
+
+    private List<MeetingRoom> queryGetBookableMeetingRooms(String userRole) throws SQLException {
         List<MeetingRoom> rooms = new ArrayList<>();
         String sql = "SELECT m.roomId, m.name, m.capacity, m.location, m.description, m.status, " +
                 "m.roomTypeId, rt.typeCode " +
@@ -406,25 +686,7 @@ public class MeetingRoomDAO {
      * @throws SQLException 数据库访问异常
      */
     public boolean canUserBookRoom(String userRole, int roomId) throws SQLException {
-        String sql = "SELECT COUNT(*) FROM MeetingRoom m " +
-                "LEFT JOIN RoomType rt ON m.roomTypeId = rt.roomTypeId " +
-                "WHERE m.roomId = ? AND EXISTS (" +
-                "  SELECT 1 FROM PermissionMapping pm " +
-                "  WHERE pm.userRole = ? AND pm.roomTypeCode = rt.typeCode " +
-                "  AND pm.canBook = 1" +
-                ")";
-
-        try (Connection conn = UserDAO.getConnection();
-                PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, roomId);
-            pstmt.setString(2, userRole);
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getInt(1) > 0;
-                }
-            }
-        }
-        return false;
+        return PermissionMatrix.getShared().hasRoomPermission(userRole, roomId, PermissionMatrix.CAN_BOOK);
     }
 
     /**
@@ -436,31 +698,17 @@ public class MeetingRoomDAO {
      * @throws SQLException 数据库访问异常
      */
     public boolean canUserManageRoom(String userRole, int roomId) throws SQLException {
-        String sql = "SELECT COUNT(*) FROM MeetingRoom m " +
-                "LEFT JOIN RoomType rt ON m.roomTypeId = rt.roomTypeId " +
-                "WHERE m.roomId = ? AND EXISTS (" +
-                "  SELECT 1 FROM PermissionMapping pm " +
-                "  WHERE pm.userRole = ? AND pm.roomTypeCode = rt.typeCode " +
-                "  AND pm.canManage = 1" +
-                ")";
-
-        try (Connection conn = UserDAO.getConnection();
-                PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, roomId);
-            pstmt.setString(2, userRole);
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getInt(1) > 0;
-                }
-            }
-        }
-        return false;
+        return PermissionMatrix.getShared().hasRoomPermission(userRole, roomId, PermissionMatrix.CAN_MANAGE);
     }
 
     /**
-     * 更新获取会议室信息的方法，包含会议室类型信息
+     * 更新获取会议室信息的方法，包含会议室类型信息（经过缓存）
      */
     public MeetingRoom getMeetingRoomByIdWithType(int roomId) throws SQLException {
+        return ROOM_CACHE.get(roomId, () -> queryGetMeetingRoomByIdWithType(roomId));
+    }
+
+    private MeetingRoom queryGetMeetingRoomByIdWithType(int roomId) throws SQLException {
         String sql = "SELECT m.roomId, m.name, m.capacity, m.location, m.description, m.status, " +
                 "m.roomTypeId, rt.typeCode " +
                 "FROM MeetingRoom m " +
@@ -490,6 +738,10 @@ public class MeetingRoomDAO {
      * 更新获取所有会议室的方法，包含会议室类型信息
      */
     public List<MeetingRoom> getAllMeetingRoomsWithType() throws SQLException {
+        return ROOM_LIST_CACHE.get(Boolean.TRUE, () -> queryGetAllMeetingRoomsWithType());
+    }
+
+    private List<MeetingRoom> queryGetAllMeetingRoomsWithType() throws SQLException {
         List<MeetingRoom> rooms = new ArrayList<>();
         String sql = "SELECT m.roomId, m.name, m.capacity, m.location, m.description, m.status, " +
                 "m.roomTypeId, rt.typeCode " +
@@ -1,33 +1,56 @@
 import net.miginfocom.swing.MigLayout;
 
 import javax.swing.*;
-import javax.swing.border.EmptyBorder;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.DefaultTableCellRenderer;
+import javax.swing.table.TableRowSorter;
 import java.awt.*;
-import java.sql.SQLException;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.sql.Timestamp;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.Vector;
-import java.util.concurrent.ExecutionException;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
 
 /**
  * 用户的预订面板，用于显示和管理用户的会议室预订。
  * 此面板将展示用户的预订列表，并提供查看、更新、取消等操作。
  */
-public class MyBookingsPanel extends JPanel {
+public class MyBookingsPanel extends JPanel implements PanelLifecycle {
 
     private final User currentUser;
     private final ReservationDAO reservationDAO;
     private final MeetingRoomDAO meetingRoomDAO; // For fetching room details on edit
-    private List<Reservation> userReservations;
+    // 分页加载：每页条数、滚动到距底部多少像素内时加载下一页
+    private static final int PAGE_SIZE = 100;
+    private static final int LOAD_MORE_THRESHOLD_PX = 200;
+    private ReservationDAO.ReservationCursor nextCursor;
+    private boolean hasMorePages = false;
+    private boolean loadingPage = false;
+    private int loadGeneration = 0; // 重新加载时递增，丢弃旧的分页结果
 
     // Filter components
     private JPopupMenu statusFilterMenu;
     private String currentStatusFilter = "全部";
     private JButton filterButton;
 
-    private JPanel cardPanel; // 用于放置预订卡片的面板
-    private JScrollPane cardScrollPane; // 卡片面板的滚动容器
+    // 预订表格：表格只渲染可见行，筛选和排序由 RowSorter 在内存中完成
+    private JTable bookingTable;
+    private BookingTableModel bookingTableModel;
+    private TableRowSorter<BookingTableModel> bookingSorter;
+    private JButton detailsButton;
+    private JButton editButton;
+    private JButton cancelButton;
+    private JScrollPane tableScrollPane;
+    private JLabel loadedCountLabel;
+    // 本客户端修改过预订或超过 60 秒后，再次显示时重新加载
+    private final Freshness freshness = new Freshness(60 * 1000L);
+    // 本面板发起的数据库任务，面板销毁时一起取消
+    private final DaoExecutor.TaskGroup tasks = DaoExecutor.getShared().newTaskGroup();
+    // 分页加载任务，切换到后台时取消；取消预订等修改操作不在此组中，不会被中途取消
+    private final DaoExecutor.TaskGroup pageLoads = DaoExecutor.getShared().newTaskGroup();
 
     /**
      * 构造函数，初始化用户的预订面板。
@@ -41,6 +64,28 @@ public class MyBookingsPanel extends JPanel {
         loadBookings();
     }
 
+    @Override
+    public void onShow() {
+        if (freshness.isStale()) {
+            loadBookings();
+        }
+    }
+
+    @Override
+    public void onHide() {
+        if (pageLoads.cancelInFlight() > 0) {
+            loadGeneration++;
+            loadingPage = false;
+            freshness.invalidate();
+        }
+    }
+
+    @Override
+    public void onDispose() {
+        pageLoads.cancelAll();
+        tasks.cancelAll();
+    }
+
     private void initComponents() {
         setLayout(new MigLayout("fill, insets 20", "[][grow]", "[]20[grow]"));
 
@@ -66,242 +111,182 @@ public class MyBookingsPanel extends JPanel {
         filterButton.addActionListener(e -> statusFilterMenu.show(filterButton, 0, filterButton.getHeight()));
         add(filterButton, "align right, wrap");
 
-        // 卡片面板布局，固定三列，居中显示
-        cardPanel = new JPanel();
-        cardPanel.setLayout(new net.miginfocom.swing.MigLayout("wrap 3, gap 24 24, align center top",
-                "[grow,fill][grow,fill][grow,fill]", ""));
-        cardPanel.setOpaque(false);
-        cardScrollPane = new JScrollPane(cardPanel);
-        cardScrollPane.setBorder(null);
-        add(cardScrollPane, "grow, push, span 2");
+        // 预订表格
+        bookingTableModel = new BookingTableModel();
+        bookingTable = new JTable(bookingTableModel);
+        bookingTable.setRowHeight(28);
+        bookingTable.setFont(new Font("微软雅黑", Font.PLAIN, 14));
+        bookingTable.getTableHeader().setFont(new Font("微软雅黑", Font.BOLD, 14));
+        bookingTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        bookingTable.setDefaultRenderer(Timestamp.class, new DateTimeCellRenderer());
+        bookingTable.getColumnModel().getColumn(BookingTableModel.COLUMN_ID).setMaxWidth(80);
+
+        // 默认按开始时间倒序，点击表头可切换排序
+        bookingSorter = new TableRowSorter<>(bookingTableModel);
+        bookingSorter.setSortKeys(Collections.singletonList(
+                new RowSorter.SortKey(BookingTableModel.COLUMN_START, SortOrder.DESCENDING)));
+        bookingTable.setRowSorter(bookingSorter);
+
+        bookingTable.getSelectionModel().addListSelectionListener(e -> {
+            if (!e.getValueIsAdjusting()) {
+                updateButtonStates();
+            }
+        });
+        bookingTable.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (e.getClickCount() == 2 && bookingTable.rowAtPoint(e.getPoint()) >= 0) {
+                    Reservation selected = getSelectedReservation();
+                    if (selected != null) {
+                        showBookingDetails(selected);
+                    }
+                }
+            }
+        });
+        tableScrollPane = new JScrollPane(bookingTable);
+        // 滚动到接近底部时加载下一页
+        tableScrollPane.getVerticalScrollBar().getModel().addChangeListener(e -> maybeLoadNextPage());
+        add(tableScrollPane, "grow, push, span 2, wrap");
+
+        // 按钮区，操作当前选中的预订
+        JPanel btnPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 0));
+        btnPanel.setOpaque(false);
+        detailsButton = new JButton("查看详情");
+        editButton = new JButton("修改预订");
+        cancelButton = new JButton("取消预订");
+        for (JButton btn : new JButton[] { detailsButton, editButton, cancelButton }) {
+            btn.setFont(new Font("微软雅黑", Font.PLAIN, 14));
+            btn.setFocusPainted(false);
+            btnPanel.add(btn);
+        }
+        detailsButton.addActionListener(e -> {
+            Reservation selected = getSelectedReservation();
+            if (selected != null) {
+                showBookingDetails(selected);
+            }
+        });
+        editButton.addActionListener(e -> {
+            Reservation selected = getSelectedReservation();
+            if (selected != null) {
+                editBooking(selected);
+            }
+        });
+        cancelButton.addActionListener(e -> {
+            Reservation selected = getSelectedReservation();
+            if (selected != null) {
+                cancelBooking(selected);
+            }
+        });
+        loadedCountLabel = new JLabel(" ");
+        loadedCountLabel.setFont(new Font("微软雅黑", Font.PLAIN, 13));
+        loadedCountLabel.setForeground(UIManager.getColor("Label.disabledForeground"));
+        add(loadedCountLabel, "gaptop 10");
+        add(btnPanel, "growx, gaptop 10");
+        updateButtonStates();
     }
 
     private void applyFilters() {
-        if (userReservations == null) {
-            return;
-        }
+        // 只替换 RowFilter，表格模型和数据不变
         String selectedStatus = currentStatusFilter;
-        List<Reservation> filteredList;
         if (selectedStatus == null || selectedStatus.equals("全部")) {
-            filteredList = userReservations;
+            bookingSorter.setRowFilter(null);
         } else {
-            filteredList = userReservations.stream()
-                    .filter(reservation -> selectedStatus.equals(reservation.getStatusText()))
-                    .collect(Collectors.toList());
+            bookingSorter.setRowFilter(new RowFilter<BookingTableModel, Integer>() {
+                @Override
+                public boolean include(Entry<? extends BookingTableModel, ? extends Integer> entry) {
+                    Reservation reservation = entry.getModel().getReservation(entry.getIdentifier());
+                    return selectedStatus.equals(reservation.getStatusText());
+                }
+            });
         }
-        updateCardPanel(filteredList);
+        filterButton.setText("筛选: " + selectedStatus + " ▼");
     }
 
-    private void updateCardPanel(List<Reservation> reservations) {
-        cardPanel.removeAll();
-        if (reservations == null || reservations.isEmpty()) {
-            JLabel emptyLabel = new JLabel("暂无预订记录");
-            emptyLabel.setFont(new Font("微软雅黑", Font.PLAIN, 16));
-            cardPanel.add(emptyLabel, "span, center");
-        } else {
-            for (Reservation reservation : reservations) {
-                cardPanel.add(createBookingCard(reservation), "grow");
-            }
+    private Reservation getSelectedReservation() {
+        int viewRow = bookingTable.getSelectedRow();
+        if (viewRow < 0) {
+            return null;
         }
-        cardPanel.revalidate();
-        cardPanel.repaint();
+        return bookingTableModel.getReservation(bookingTable.convertRowIndexToModel(viewRow));
     }
 
-    private JPanel createBookingCard(Reservation reservation) {
-        JPanel card = new JPanel(new BorderLayout());
-        // 使用UIManager获取主题色
-        final Color borderColor = UIManager.getColor("Separator.foreground");
-        final Color bgColor = UIManager.getColor("Panel.background");
-        final Color titleColor = UIManager.getColor("Label.foreground");
-        final Color infoColor = UIManager.getColor("Label.foreground");
-        final Color subInfoColor = UIManager.getColor("Label.disabledForeground");
-        card.setBorder(BorderFactory.createCompoundBorder(
-                BorderFactory.createLineBorder(borderColor != null ? borderColor : Color.GRAY, 2, true),
-                new EmptyBorder(16, 20, 16, 20)));
-        card.setBackground(bgColor != null ? bgColor : Color.WHITE);
-
-        // 标题区
-        JLabel nameLabel = new JLabel(reservation.getSubject() + " (ID: " + reservation.getReservationId() + ")");
-        nameLabel.setFont(new Font("微软雅黑", Font.BOLD, 18));
-        nameLabel.setForeground(titleColor != null ? titleColor : Color.BLACK);
-        card.add(nameLabel, BorderLayout.NORTH);
-
-        // 信息区
-        JPanel infoPanel = new JPanel();
-        infoPanel.setLayout(new BoxLayout(infoPanel, BoxLayout.Y_AXIS));
-        infoPanel.setOpaque(false);
-
-        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm");
-
-        infoPanel.add(makeInfoLine("会议室:", reservation.getRoomName(), infoColor != null ? infoColor : Color.DARK_GRAY));
-        infoPanel
-                .add(makeInfoLine("状态:", reservation.getStatusText(), infoColor != null ? infoColor : Color.DARK_GRAY));
-        infoPanel.add(makeInfoLine("开始时间:", dateFormat.format(reservation.getStartTime()),
-                infoColor != null ? infoColor : Color.DARK_GRAY));
-        infoPanel.add(makeInfoLine("结束时间:", dateFormat.format(reservation.getEndTime()),
-                infoColor != null ? infoColor : Color.DARK_GRAY));
-        infoPanel.add(Box.createVerticalStrut(6));
-        infoPanel.add(new JSeparator());
-
-        // 异步加载会议室详细信息
-        new SwingWorker<MeetingRoom, Void>() {
-            @Override
-            protected MeetingRoom doInBackground() throws Exception {
-                return meetingRoomDAO.getMeetingRoomByIdWithType(reservation.getRoomId());
-            }
-
-            @Override
-            protected void done() {
-                try {
-                    MeetingRoom room = get();
-                    if (room != null) {
-                        infoPanel.add(makeInfoLine("容量:", room.getCapacity() + "人",
-                                subInfoColor != null ? subInfoColor : Color.GRAY));
-                        infoPanel.add(makeInfoLine("位置:", room.getLocation(),
-                                subInfoColor != null ? subInfoColor : Color.GRAY));
-                        infoPanel.add(makeInfoLine("类型:", room.getRoomTypeCode() != null ? room.getRoomTypeCode() : "—",
-                                subInfoColor != null ? subInfoColor : Color.GRAY));
-                        infoPanel.add(makeInfoLine("描述:",
-                                room.getDescription() != null && !room.getDescription().isEmpty()
-                                        ? room.getDescription()
-                                        : "—",
-                                subInfoColor != null ? subInfoColor : Color.GRAY));
-                    }
-                    infoPanel.revalidate();
-                    infoPanel.repaint();
-                } catch (Exception ignore) {
-                }
-            }
-        }.execute();
-
-        card.add(infoPanel, BorderLayout.CENTER);
-
-        // 按钮区
-        JPanel btnPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 0));
-        btnPanel.setOpaque(false);
-        JButton detailsBtn = new JButton("查看详情");
-        JButton editBtn = new JButton("修改预订");
-        JButton cancelBtn = new JButton("取消预订");
-
-        detailsBtn.setFont(new Font("微软雅黑", Font.PLAIN, 14));
-        editBtn.setFont(new Font("微软雅黑", Font.PLAIN, 14));
-        cancelBtn.setFont(new Font("微软雅黑", Font.PLAIN, 14));
-
-        detailsBtn.addActionListener(e -> showBookingDetails(reservation));
-        editBtn.addActionListener(e -> editBooking(reservation));
-        cancelBtn.addActionListener(e -> cancelBooking(reservation));
-
-        btnPanel.add(detailsBtn);
-        btnPanel.add(editBtn);
-        btnPanel.add(cancelBtn);
-        card.add(btnPanel, BorderLayout.SOUTH);
-
-        // 根据预订状态设置按钮状态
-        boolean isConfirmed = reservation.getStatus() == Reservation.STATUS_CONFIRMED;
-        editBtn.setEnabled(isConfirmed);
-        cancelBtn.setEnabled(isConfirmed);
-
-        return card;
+    // 根据选中预订的状态设置按钮状态
+    private void updateButtonStates() {
+        Reservation selected = getSelectedReservation();
+        boolean isConfirmed = selected != null && selected.getStatus() == Reservation.STATUS_CONFIRMED;
+        detailsButton.setEnabled(selected != null);
+        editButton.setEnabled(isConfirmed);
+        cancelButton.setEnabled(isConfirmed);
     }
 
-    private JPanel makeInfoLine(String label, String value, Color fg) {
-        JPanel p = new JPanel(new FlowLayout(FlowLayout.LEFT, 0, 0));
-        p.setOpaque(false);
-        JLabel l1 = new JLabel(label);
-        l1.setForeground(fg);
-        l1.setFont(new Font("微软雅黑", Font.PLAIN, 14));
-        JLabel l2 = new JLabel(value);
-        l2.setForeground(fg);
-        l2.setFont(new Font("微软雅黑", Font.PLAIN, 14));
-        p.add(l1);
-        p.add(Box.createHorizontalStrut(6));
-        p.add(l2);
-        return p;
+    // 会议室信息通常已随预订列表一起加载，缺失时才查询数据库
+    private void withRoom(Reservation reservation, Consumer<MeetingRoom> action, String errorPrefix) {
+        if (reservation.getRoom() != null) {
+            action.accept(reservation.getRoom());
+            return;
+        }
+        tasks.run(() -> meetingRoomDAO.getMeetingRoomById(reservation.getRoomId()), action,
+                e -> JOptionPane.showMessageDialog(MyBookingsPanel.this, errorPrefix + e.getMessage(), "错误",
+                        JOptionPane.ERROR_MESSAGE));
     }
 
     private void showBookingDetails(Reservation reservation) {
-        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-
-        new SwingWorker<MeetingRoom, Void>() {
-            @Override
-            protected MeetingRoom doInBackground() throws Exception {
-                return meetingRoomDAO.getMeetingRoomById(reservation.getRoomId());
-            }
+        withRoom(reservation, room -> showBookingDetails(reservation, room), "获取详情失败: ");
+    }
 
-            @Override
-            protected void done() {
-                try {
-                    MeetingRoom room = get();
-                    StringBuilder htmlBuilder = new StringBuilder(
-                            "<html><body style='width: 350px; padding: 5px;'>");
-                    htmlBuilder.append("<h2>预订详情</h2>");
-                    htmlBuilder.append("<p><b>预订ID:</b> ").append(reservation.getReservationId()).append("</p>");
-                    htmlBuilder.append("<p><b>会议主题:</b> ").append(reservation.getSubject()).append("</p>");
-                    htmlBuilder.append("<p><b>会议室:</b> ").append(reservation.getRoomName()).append("</p>");
-                    htmlBuilder.append("<p><b>状态:</b> ").append(reservation.getStatusText()).append("</p>");
-                    htmlBuilder.append("<p><b>开始时间:</b> ").append(dateFormat.format(reservation.getStartTime()))
-                            .append("</p>");
-                    htmlBuilder.append("<p><b>结束时间:</b> ").append(dateFormat.format(reservation.getEndTime()))
-                            .append("</p>");
-
-                    if (room != null) {
-                        htmlBuilder.append("<hr>");
-                        htmlBuilder.append("<h3>会议室信息</h3>");
-                        htmlBuilder.append("<p><b>位置:</b> ").append(room.getLocation()).append("</p>");
-                        htmlBuilder.append("<p><b>容量:</b> ").append(room.getCapacity()).append("人</p>");
-                        htmlBuilder.append("<p><b>状态:</b> ").append(room.getStatusText()).append("</p>");
-                        htmlBuilder.append("<p><b>描述:</b> ")
-                                .append(room.getDescription().isEmpty() ? "无" : room.getDescription())
-                                .append("</p>");
-                    }
+    private void showBookingDetails(Reservation reservation, MeetingRoom room) {
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+        StringBuilder htmlBuilder = new StringBuilder(
+                "<html><body style='width: 350px; padding: 5px;'>");
+        htmlBuilder.append("<h2>预订详情</h2>");
+        htmlBuilder.append("<p><b>预订ID:</b> ").append(reservation.getReservationId()).append("</p>");
+        htmlBuilder.append("<p><b>会议主题:</b> ").append(reservation.getSubject()).append("</p>");
+        htmlBuilder.append("<p><b>会议室:</b> ").append(reservation.getRoomName()).append("</p>");
+        htmlBuilder.append("<p><b>状态:</b> ").append(reservation.getStatusText()).append("</p>");
+        htmlBuilder.append("<p><b>开始时间:</b> ").append(dateFormat.format(reservation.getStartTime()))
+                .append("</p>");
+        htmlBuilder.append("<p><b>结束时间:</b> ").append(dateFormat.format(reservation.getEndTime()))
+                .append("</p>");
+
+        if (room != null) {
+            htmlBuilder.append("<hr>");
+            htmlBuilder.append("<h3>会议室信息</h3>");
+            htmlBuilder.append("<p><b>位置:</b> ").append(room.getLocation()).append("</p>");
+            htmlBuilder.append("<p><b>容量:</b> ").append(room.getCapacity()).append("人</p>");
+            htmlBuilder.append("<p><b>状态:</b> ").append(room.getStatusText()).append("</p>");
+            htmlBuilder.append("<p><b>描述:</b> ")
+                    .append(room.getDescription() == null || room.getDescription().isEmpty() ? "无"
+                            : room.getDescription())
+                    .append("</p>");
+        }
 
-                    htmlBuilder.append("</body></html>");
-                    JEditorPane editorPane = new JEditorPane("text/html", htmlBuilder.toString());
-                    editorPane.setEditable(false);
-                    editorPane.setBackground(UIManager.getColor("Panel.background"));
-                    JScrollPane scrollPane = new JScrollPane(editorPane);
-                    scrollPane.setPreferredSize(new Dimension(450, 300));
-                    JOptionPane.showMessageDialog(MyBookingsPanel.this, scrollPane, "预订详情",
-                            JOptionPane.INFORMATION_MESSAGE);
-                } catch (Exception e) {
-                    JOptionPane.showMessageDialog(MyBookingsPanel.this, "获取详情失败: " + e.getMessage(), "错误",
-                            JOptionPane.ERROR_MESSAGE);
-                }
-            }
-        }.execute();
+        htmlBuilder.append("</body></html>");
+        JEditorPane editorPane = new JEditorPane("text/html", htmlBuilder.toString());
+        editorPane.setEditable(false);
+        editorPane.setBackground(UIManager.getColor("Panel.background"));
+        JScrollPane scrollPane = new JScrollPane(editorPane);
+        scrollPane.setPreferredSize(new Dimension(450, 300));
+        JOptionPane.showMessageDialog(MyBookingsPanel.this, scrollPane, "预订详情",
+                JOptionPane.INFORMATION_MESSAGE);
     }
 
     private void editBooking(Reservation reservation) {
         // To open the dialog, we need the full MeetingRoom object.
-        new SwingWorker<MeetingRoom, Void>() {
-            @Override
-            protected MeetingRoom doInBackground() throws Exception {
-                return meetingRoomDAO.getMeetingRoomById(reservation.getRoomId());
-            }
-
-            @Override
-            protected void done() {
-                try {
-                    MeetingRoom room = get();
-                    if (room != null) {
-                        ReservationDialog dialog = new ReservationDialog(
-                                (Frame) SwingUtilities.getWindowAncestor(MyBookingsPanel.this),
-                                currentUser, room, reservation, (saved) -> {
-                                    if (saved) {
-                                        loadBookings(); // Refresh list on successful save
-                                    }
-                                });
-                        dialog.setVisible(true);
-                    } else {
-                        JOptionPane.showMessageDialog(MyBookingsPanel.this, "无法获取会议室信息，无法修改预订。", "错误",
-                                JOptionPane.ERROR_MESSAGE);
-                    }
-                } catch (Exception e) {
-                    JOptionPane.showMessageDialog(MyBookingsPanel.this, "打开修改窗口时出错: " + e.getMessage(), "错误",
-                            JOptionPane.ERROR_MESSAGE);
-                }
+        withRoom(reservation, room -> {
+            if (room != null) {
+                ReservationDialog dialog = new ReservationDialog(
+                        (Frame) SwingUtilities.getWindowAncestor(MyBookingsPanel.this),
+                        currentUser, room, reservation, (saved) -> {
+                            if (saved) {
+                                loadBookings(); // Refresh list on successful save
+                            }
+                        });
+                dialog.setVisible(true);
+            } else {
+                JOptionPane.showMessageDialog(MyBookingsPanel.this, "无法获取会议室信息，无法修改预订。", "错误",
+                        JOptionPane.ERROR_MESSAGE);
             }
-        }.execute();
+        }, "打开修改窗口时出错: ");
     }
 
     private void cancelBooking(Reservation reservation) {
@@ -310,52 +295,187 @@ public class MyBookingsPanel extends JPanel {
             return;
         }
 
-        new SwingWorker<Boolean, Void>() {
-            @Override
-            protected Boolean doInBackground() throws Exception {
-                return reservationDAO.updateReservationStatus(reservation.getReservationId(),
-                        Reservation.STATUS_CANCELLED);
-            }
-
-            @Override
-            protected void done() {
-                try {
-                    if (get()) {
+        tasks.run(() -> reservationDAO.updateReservationStatus(reservation.getReservationId(),
+                Reservation.STATUS_CANCELLED), success -> {
+                    if (success) {
                         JOptionPane.showMessageDialog(MyBookingsPanel.this, "预订已成功取消。", "成功",
                                 JOptionPane.INFORMATION_MESSAGE);
-                        loadBookings();
+                        // 只更新这一行，不重新加载整个列表
+                        Reservation cancelled = new Reservation(reservation.getReservationId(),
+                                reservation.getUserId(), reservation.getRoomId(), reservation.getRoomName(),
+                                reservation.getSubject(), reservation.getDescription(), reservation.getStartTime(),
+                                reservation.getEndTime(), Reservation.STATUS_CANCELLED);
+                        cancelled.setRoom(reservation.getRoom());
+                        bookingTableModel.replaceReservation(cancelled);
+                        updateButtonStates();
                     } else {
                         JOptionPane.showMessageDialog(MyBookingsPanel.this, "取消预订失败。", "错误", JOptionPane.ERROR_MESSAGE);
                     }
-                } catch (Exception e) {
-                    JOptionPane.showMessageDialog(MyBookingsPanel.this, "取消预订时发生错误: " + e.getMessage(), "错误",
-                            JOptionPane.ERROR_MESSAGE);
-                }
-            }
-        }.execute();
+                }, e -> JOptionPane.showMessageDialog(MyBookingsPanel.this, "取消预订时发生错误: " + e.getMessage(), "错误",
+                        JOptionPane.ERROR_MESSAGE));
     }
 
     /**
-     * 加载用户的预订数据并更新UI。
+     * 重新加载用户的预订数据：从第一页开始，之后随滚动继续加载。
      */
     private void loadBookings() {
-        new SwingWorker<List<Reservation>, Void>() {
-            @Override
-            protected List<Reservation> doInBackground() throws Exception {
-                return reservationDAO.getReservationsByUserId(currentUser.getUserId());
-            }
+        freshness.markLoading();
+        loadGeneration++;
+        nextCursor = null;
+        hasMorePages = false;
+        loadingPage = false;
+        loadPage(true);
+    }
 
-            @Override
-            protected void done() {
-                try {
-                    userReservations = get();
-                    applyFilters(); // Apply current filters to populate the cards
-                } catch (InterruptedException | ExecutionException e) {
+    // 表格接近底部（或内容不足一屏）时加载下一页
+    private void maybeLoadNextPage() {
+        if (!hasMorePages || loadingPage || !tableScrollPane.isShowing()) {
+            return;
+        }
+        BoundedRangeModel scroll = tableScrollPane.getVerticalScrollBar().getModel();
+        if (scroll.getValue() + scroll.getExtent() >= scroll.getMaximum() - LOAD_MORE_THRESHOLD_PX) {
+            loadPage(false);
+        }
+    }
+
+    private void loadPage(boolean firstPage) {
+        final int generation = loadGeneration;
+        final ReservationDAO.ReservationCursor cursor = nextCursor;
+        loadingPage = true;
+        pageLoads.run(() -> reservationDAO.getReservationsByUserId(currentUser.getUserId(), cursor, PAGE_SIZE,
+                ReservationDAO.SortDirection.DESCENDING), page -> {
+                    if (generation != loadGeneration) {
+                        return; // 已经重新加载，丢弃旧结果
+                    }
+                    loadingPage = false;
+                    if (firstPage) {
+                        bookingTableModel.setReservations(page.getReservations());
+                    } else {
+                        bookingTableModel.appendReservations(page.getReservations());
+                    }
+                    nextCursor = page.getNextCursor();
+                    hasMorePages = page.hasMore();
+                    updateLoadedCount();
+                    updateButtonStates();
+                    // 筛选后可能仍不足一屏，继续加载
+                    SwingUtilities.invokeLater(MyBookingsPanel.this::maybeLoadNextPage);
+                }, e -> {
+                    if (generation != loadGeneration) {
+                        return;
+                    }
+                    loadingPage = false;
                     e.printStackTrace();
                     JOptionPane.showMessageDialog(MyBookingsPanel.this, "加载预订记录失败: " + e.getMessage(), "错误",
                             JOptionPane.ERROR_MESSAGE);
+                });
+    }
+
+    private void updateLoadedCount() {
+        int count = bookingTableModel.getRowCount();
+        loadedCountLabel.setText(hasMorePages ? "已加载 " + count + " 条，滚动加载更多" : "共 " + count + " 条");
+    }
+
+    /**
+     * 预订表格模型，直接以预订列表为数据源。
+     */
+    private static class BookingTableModel extends AbstractTableModel {
+        static final int COLUMN_ID = 0;
+        static final int COLUMN_START = 5;
+        private static final String[] COLUMN_NAMES = { "ID", "会议主题", "会议室", "位置", "类型", "开始时间", "结束时间", "状态" };
+
+        private List<Reservation> reservations = new ArrayList<>();
+
+        void setReservations(List<Reservation> reservations) {
+            this.reservations = new ArrayList<>(reservations);
+            fireTableDataChanged();
+        }
+
+        void appendReservations(List<Reservation> page) {
+            if (page.isEmpty()) {
+                return;
+            }
+            int first = reservations.size();
+            reservations.addAll(page);
+            fireTableRowsInserted(first, reservations.size() - 1);
+        }
+
+        Reservation getReservation(int modelRow) {
+            return reservations.get(modelRow);
+        }
+
+        // 用新的状态替换同一ID的预订，只刷新这一行
+        void replaceReservation(Reservation reservation) {
+            for (int i = 0; i < reservations.size(); i++) {
+                if (reservations.get(i).getReservationId() == reservation.getReservationId()) {
+                    reservations.set(i, reservation);
+                    fireTableRowsUpdated(i, i);
+                    return;
                 }
             }
-        }.execute();
+        }
+
+        @Override
+        public int getRowCount() {
+            return reservations.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMN_NAMES.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return COLUMN_NAMES[column];
+        }
+
+        @Override
+        public Class<?> getColumnClass(int column) {
+            switch (column) {
+                case COLUMN_ID:
+                    return Integer.class;
+                case 5:
+                case 6:
+                    return Timestamp.class;
+                default:
+                    return String.class;
+            }
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            Reservation r = reservations.get(row);
+            MeetingRoom room = r.getRoom();
+            switch (column) {
+                case COLUMN_ID:
+                    return r.getReservationId();
+                case 1:
+                    return r.getSubject();
+                case 2:
+                    return r.getRoomName();
+                case 3:
+                    return room != null ? room.getLocation() : "";
+                case 4:
+                    return room != null && room.getRoomTypeCode() != null ? room.getRoomTypeCode() : "—";
+                case 5:
+                    return r.getStartTime();
+                case 6:
+                    return r.getEndTime();
+                case 7:
+                    return r.getStatusText();
+                default:
+                    return null;
+            }
+        }
+    }
+
+    // 时间列按时间排序，显示为 yyyy-MM-dd HH:mm
+    private static class DateTimeCellRenderer extends DefaultTableCellRenderer {
+        private final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm");
+
+        @Override
+        protected void setValue(Object value) {
+            setText(value instanceof java.util.Date ? dateFormat.format((java.util.Date) value) : "");
+        }
     }
-}
\ No newline at end of file
+}
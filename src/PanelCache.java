@@ -0,0 +1,147 @@
+import javax.swing.*;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * 主页面内容区的面板缓存。
+ * 已创建的面板保存在 CardLayout 中，切换导航时直接显示，不再重新创建和加载；
+ * 再次显示时通过 PanelLifecycle.onShow() 让面板自行判断是否需要刷新。
+ * <p>
+ * 不常用的面板（例如系统设置）标记为可淘汰，所有缓存面板的组件总数超过预算时，
+ * 按最近最少使用的顺序淘汰可淘汰的面板，下次访问时重新创建。
+ */
+public class PanelCache {
+
+    // 默认的组件数预算
+    public static final int DEFAULT_COMPONENT_BUDGET = 3000;
+
+    private final JPanel host;
+    private final CardLayout cardLayout;
+    private final int componentBudget;
+    // 按访问顺序排列，最久未访问的在前
+    private final Map<String, JComponent> panels = new LinkedHashMap<>(16, 0.75f, true);
+    private final Set<String> evictableKeys = new HashSet<>();
+    private String currentKey;
+
+    /**
+     * @param componentBudget 缓存面板的组件总数预算
+     */
+    public PanelCache(int componentBudget) {
+        this.componentBudget = componentBudget;
+        this.cardLayout = new CardLayout();
+        this.host = new JPanel(cardLayout);
+        this.host.setOpaque(false);
+    }
+
+    /**
+     * 获取放置所有面板的容器，由调用方加入界面。
+     */
+    public JPanel getHost() {
+        return host;
+    }
+
+    /**
+     * 显示指定的面板，未缓存时调用 factory 创建。
+     *
+     * @param key       面板标识
+     * @param factory   创建面板的方法
+     * @param evictable 超出预算时是否可以淘汰
+     */
+    public void show(String key, Supplier<? extends JComponent> factory, boolean evictable) {
+        if (key.equals(currentKey)) {
+            JComponent current = panels.get(key);
+            if (current instanceof PanelLifecycle) {
+                ((PanelLifecycle) current).onShow();
+            }
+            return;
+        }
+
+        if (currentKey != null) {
+            JComponent previous = panels.get(currentKey);
+            if (previous instanceof PanelLifecycle) {
+                ((PanelLifecycle) previous).onHide();
+            }
+        }
+
+        JComponent panel = panels.get(key);
+        if (panel == null) {
+            panel = factory.get();
+            panels.put(key, panel);
+            if (evictable) {
+                evictableKeys.add(key);
+            }
+            host.add(panel, key);
+        } else if (panel instanceof PanelLifecycle) {
+            ((PanelLifecycle) panel).onShow();
+        }
+        currentKey = key;
+        cardLayout.show(host, key);
+        evictOverBudget();
+        host.revalidate();
+        host.repaint();
+    }
+
+    /**
+     * 移除指定面板的缓存，下次显示时重新创建。
+     */
+    public void invalidate(String key) {
+        JComponent panel = panels.remove(key);
+        if (panel == null) {
+            return;
+        }
+        evictableKeys.remove(key);
+        host.remove(panel);
+        if (key.equals(currentKey)) {
+            currentKey = null;
+        }
+        if (panel instanceof PanelLifecycle) {
+            ((PanelLifecycle) panel).onDispose();
+        }
+    }
+
+    /**
+     * 释放所有缓存的面板，在主页面关闭时调用。
+     */
+    public void clear() {
+        for (String key : new ArrayList<>(panels.keySet())) {
+            invalidate(key);
+        }
+    }
+
+    // 超出预算时淘汰最久未使用的可淘汰面板，当前显示的面板不淘汰
+    private void evictOverBudget() {
+        int total = 0;
+        for (JComponent panel : panels.values()) {
+            total += countComponents(panel);
+        }
+        List<String> candidates = new ArrayList<>();
+        for (String key : panels.keySet()) {
+            if (evictableKeys.contains(key) && !key.equals(currentKey)) {
+                candidates.add(key);
+            }
+        }
+        for (String key : candidates) {
+            if (total <= componentBudget) {
+                break;
+            }
+            total -= countComponents(panels.get(key));
+            invalidate(key);
+        }
+    }
+
+    private static int countComponents(Component component) {
+        int count = 1;
+        if (component instanceof Container) {
+            for (Component child : ((Container) component).getComponents()) {
+                count += countComponents(child);
+            }
+        }
+        return count;
+    }
+}
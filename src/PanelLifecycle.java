@@ -0,0 +1,62 @@
+/**
+ * 主页面内容面板的生命周期回调。
+ * 面板由 PanelCache 缓存复用，再次显示时不会重新创建，实现本接口的面板可以在显示时按需刷新数据。
+ */
+public interface PanelLifecycle {
+
+    /**
+     * 缓存的面板再次显示时调用（首次创建时不调用）。通常在数据过期时重新加载。
+     */
+    void onShow();
+
+    /**
+     * 面板被切换到后台时调用。
+     */
+    default void onHide() {
+    }
+
+    /**
+     * 面板被移出缓存或主页面关闭时调用，之后不会再显示。
+     */
+    default void onDispose() {
+    }
+
+    /**
+     * 记录面板数据的加载时间和对应的本地数据版本，用于判断是否需要刷新。
+     */
+    class Freshness {
+        private final long maxAgeMillis;
+        private long loadedAt = 0;
+        private long loadedVersion = -1;
+
+        /**
+         * @param maxAgeMillis 数据的最长有效时间，超过后视为过期
+         */
+        public Freshness(long maxAgeMillis) {
+            this.maxAgeMillis = maxAgeMillis;
+        }
+
+        /**
+         * 在开始加载数据前调用。加载期间发生的变更会使数据再次过期。
+         */
+        public void markLoading() {
+            loadedAt = System.currentTimeMillis();
+            loadedVersion = MeetingRoomDAO.getLocalDataVersion();
+        }
+
+        /**
+         * 使数据立即过期，例如加载被中途取消时，下次显示需要重新加载。
+         */
+        public void invalidate() {
+            loadedAt = 0;
+        }
+
+        /**
+         * 数据是否已过期：超过有效时间，或者本客户端修改过会议室或预订。
+         */
+        public boolean isStale() {
+            return System.currentTimeMillis() - loadedAt > maxAgeMillis
+                    || loadedVersion != MeetingRoomDAO.getLocalDataVersion();
+        }
+    }
+}
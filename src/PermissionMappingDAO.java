@@ -1,5 +1,6 @@
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -7,13 +8,14 @@ import java.util.List;
  * 用于管理用户角色和会议室类型权限映射的数据库操作
  */
 public class PermissionMappingDAO {
-    private static final String URL = "jdbc:mysql://117.72.60.69:3306/conference_room_booking";
-    private static final String USER = "conference_room_booking";
-    private static final String PASSWORD = "rainknows";
+    // 合并相同的并发读取，不做缓存
+    private static final SingleFlight<Boolean, List<PermissionMapping>> ALL_MAPPINGS = new SingleFlight<>();
+    private static final SingleFlight<List<String>, PermissionMapping> MAPPING_BY_KEY = new SingleFlight<>();
+    private static final SingleFlight<String, List<String>> ACCESSIBLE_TYPE_CODES = new SingleFlight<>();
 
-    // 获取数据库连接
+    // 获取数据库连接（与其他 DAO 共用同一个连接池）
     public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(URL, USER, PASSWORD);
+        return UserDAO.getConnection();
     }
 
     // 关闭资源
@@ -30,10 +32,21 @@ public class PermissionMappingDAO {
         }
     }
 
+    // 权限映射修改后，之后的读取不再合并到此前开始的查询上
+    private static void forgetInFlightReads() {
+        ALL_MAPPINGS.forget();
+        MAPPING_BY_KEY.forget();
+        ACCESSIBLE_TYPE_CODES.forget();
+    }
+
     /**
      * 获取所有权限映射
      */
     public List<PermissionMapping> getAllPermissionMappings() throws SQLException {
+        return new ArrayList<>(ALL_MAPPINGS.execute(Boolean.TRUE, () -> queryGetAllPermissionMappings()));
+    }
+
+    private List<PermissionMapping> queryGetAllPermissionMappings() throws SQLException {
         List<PermissionMapping> mappings = new ArrayList<>();
         String sql = "SELECT * FROM PermissionMapping ORDER BY userRole, roomTypeCode";
 
@@ -62,6 +75,10 @@ public class PermissionMappingDAO {
      * 根据用户角色和会议室类型代码获取权限映射
      */
     public PermissionMapping getPermissionMapping(String userRole, String roomTypeCode) throws SQLException {
+        return MAPPING_BY_KEY.execute(Arrays.asList(userRole, roomTypeCode), () -> queryGetPermissionMapping(userRole, roomTypeCode));
+    }
+
+    private PermissionMapping queryGetPermissionMapping(String userRole, String roomTypeCode) throws SQLException {
         String sql = "SELECT * FROM PermissionMapping WHERE userRole = ? AND roomTypeCode = ?";
 
         try (Connection conn = getConnection();
@@ -107,6 +124,10 @@ public class PermissionMappingDAO {
             pstmt.setString(6, mapping.getDescription());
 
             int affectedRows = pstmt.executeUpdate();
+            if (affectedRows > 0) {
+                PermissionMatrix.getShared().invalidate();
+                forgetInFlightReads();
+            }
             return affectedRows > 0;
         }
     }
@@ -129,6 +150,10 @@ public class PermissionMappingDAO {
             pstmt.setInt(5, mapping.getMappingId());
 
             int affectedRows = pstmt.executeUpdate();
+            if (affectedRows > 0) {
+                PermissionMatrix.getShared().invalidate();
+                forgetInFlightReads();
+            }
             return affectedRows > 0;
         }
     }
@@ -145,38 +170,43 @@ public class PermissionMappingDAO {
             pstmt.setInt(1, mappingId);
 
             int affectedRows = pstmt.executeUpdate();
+            if (affectedRows > 0) {
+                PermissionMatrix.getShared().invalidate();
+                forgetInFlightReads();
+            }
             return affectedRows > 0;
         }
     }
 
     /**
-     * 检查用户是否有权限预订指定类型的会议室
+     * 检查用户是否有权限预订指定类型的会议室（由内存中的权限矩阵回答）
      */
     public boolean canUserBookRoomType(String userRole, String roomTypeCode) throws SQLException {
-        PermissionMapping mapping = getPermissionMapping(userRole, roomTypeCode);
-        return mapping != null && mapping.canBook();
+        return PermissionMatrix.getShared().hasPermission(userRole, roomTypeCode, PermissionMatrix.CAN_BOOK);
     }
 
     /**
      * 检查用户是否有权限查看指定类型的会议室
      */
     public boolean canUserViewRoomType(String userRole, String roomTypeCode) throws SQLException {
-        PermissionMapping mapping = getPermissionMapping(userRole, roomTypeCode);
-        return mapping != null && mapping.canView();
+        return PermissionMatrix.getShared().hasPermission(userRole, roomTypeCode, PermissionMatrix.CAN_VIEW);
     }
 
     /**
      * 检查用户是否有权限管理指定类型的会议室
      */
     public boolean canUserManageRoomType(String userRole, String roomTypeCode) throws SQLException {
-        PermissionMapping mapping = getPermissionMapping(userRole, roomTypeCode);
-        return mapping != null && mapping.canManage();
+        return PermissionMatrix.getShared().hasPermission(userRole, roomTypeCode, PermissionMatrix.CAN_MANAGE);
     }
 
     /**
      * 获取用户角色可访问的会议室类型代码列表
      */
     public List<String> getAccessibleRoomTypeCodes(String userRole) throws SQLException {
+        return new ArrayList<>(ACCESSIBLE_TYPE_CODES.execute(userRole, () -> queryGetAccessibleRoomTypeCodes(userRole)));
+    }
+
+    private List<String> queryGetAccessibleRoomTypeCodes(String userRole) throws SQLException {
         List<String> roomTypeCodes = new ArrayList<>();
         String sql = "SELECT roomTypeCode FROM PermissionMapping WHERE userRole = ? AND (canView = 1 OR canBook = 1 OR canManage = 1)";
 
@@ -0,0 +1,224 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 角色 × 会议室类型的权限矩阵缓存。
+ * 整张 PermissionMapping 表和会议室到类型的对应关系一次性加载到内存，
+ * 角色和类型代码分别映射为连续编号，权限保存在一个位图中，权限检查只需几次数组访问。
+ * <p>
+ * 本客户端修改权限映射、会议室或会议室类型后会调用 invalidate() 使矩阵失效，下次检查时重新加载；
+ * 其他客户端的修改通过较短的有效期感知。
+ */
+public class PermissionMatrix {
+
+    public static final int CAN_BOOK = 0;
+    public static final int CAN_VIEW = 1;
+    public static final int CAN_MANAGE = 2;
+    private static final int PERMISSION_COUNT = 3;
+
+    // 矩阵有效期
+    private static final long TTL_MILLIS = 60 * 1000L;
+
+    private static final PermissionMatrix SHARED = new PermissionMatrix();
+
+    private volatile Snapshot snapshot;
+    // 矩阵过期时多个线程同时检查权限，只加载一次
+    private final SingleFlight<Boolean, Snapshot> loads = new SingleFlight<>();
+    // 每次失效递增，用于丢弃加载期间已经过期的结果
+    private long generation = 0;
+
+    /**
+     * 获取全局共享的权限矩阵。
+     */
+    public static PermissionMatrix getShared() {
+        return SHARED;
+    }
+
+    /**
+     * 检查角色对某类型会议室是否拥有指定权限。
+     *
+     * @param userRole     用户角色
+     * @param roomTypeCode 会议室类型代码
+     * @param permission   CAN_BOOK、CAN_VIEW 或 CAN_MANAGE
+     * @throws SQLException 矩阵需要加载且访问数据库失败时抛出
+     */
+    public boolean hasPermission(String userRole, String roomTypeCode, int permission) throws SQLException {
+        return getSnapshot().hasPermission(userRole, roomTypeCode, permission);
+    }
+
+    /**
+     * 检查角色对某个会议室是否拥有指定权限（按会议室所属类型判断）。
+     * 矩阵中没有该会议室时（例如其他客户端刚刚添加）重新加载一次；每个矩阵最多因此重新加载一次，
+     * 重新加载后仍没有的会议室（已删除或无效的ID）直接返回 false，直到矩阵过期或失效，避免反复加载。
+     *
+     * @param userRole   用户角色
+     * @param roomId     会议室ID
+     * @param permission CAN_BOOK、CAN_VIEW 或 CAN_MANAGE
+     * @throws SQLException 矩阵需要加载且访问数据库失败时抛出
+     */
+    public boolean hasRoomPermission(String userRole, int roomId, int permission) throws SQLException {
+        Snapshot current = getSnapshot();
+        if (current.containsRoom(roomId)) {
+            return current.hasRoomPermission(userRole, roomId, permission);
+        }
+        synchronized (this) {
+            if (current.missReloaded) {
+                return false;
+            }
+            current.missReloaded = true;
+        }
+        invalidate();
+        current = getSnapshot();
+        synchronized (this) {
+            // 新矩阵已包含最新的会议室，之后的缺失不再触发加载
+            current.missReloaded = true;
+        }
+        return current.hasRoomPermission(userRole, roomId, permission);
+    }
+
+    /**
+     * 使矩阵失效，在权限映射、会议室或会议室类型发生变化后调用。
+     */
+    public void invalidate() {
+        synchronized (this) {
+            generation++;
+            snapshot = null;
+        }
+        loads.forget();
+    }
+
+    private Snapshot getSnapshot() throws SQLException {
+        Snapshot current = snapshot;
+        if (current != null && System.currentTimeMillis() - current.loadedAt <= TTL_MILLIS) {
+            return current;
+        }
+        long loadGeneration;
+        synchronized (this) {
+            loadGeneration = generation;
+        }
+        Snapshot loaded = loads.execute(Boolean.TRUE, PermissionMatrix::load);
+        synchronized (this) {
+            if (generation == loadGeneration) {
+                snapshot = loaded;
+            }
+        }
+        return loaded;
+    }
+
+    private static Snapshot load() throws SQLException {
+        Map<String, Integer> roleIds = new HashMap<>();
+        Map<String, Integer> typeIds = new HashMap<>();
+        BitSet bits = new BitSet();
+        int[] roomIds;
+        int[] roomTypeIds;
+
+        try (Connection conn = UserDAO.getConnection()) {
+            // 先收集全部条目再建矩阵，因为矩阵的行宽取决于类型数量
+            List<Object[]> rows = new ArrayList<>();
+            String mappingSql = "SELECT userRole, roomTypeCode, canBook, canView, canManage FROM PermissionMapping";
+            try (PreparedStatement pstmt = conn.prepareStatement(mappingSql);
+                    ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    int role = intern(roleIds, rs.getString("userRole"));
+                    int type = intern(typeIds, rs.getString("roomTypeCode"));
+                    rows.add(new Object[] { role, type, rs.getBoolean("canBook"), rs.getBoolean("canView"),
+                            rs.getBoolean("canManage") });
+                }
+            }
+
+            // 会议室按ID排序保存，便于二分查找；没有类型的会议室记为 -1
+            String roomSql = "SELECT m.roomId, rt.typeCode FROM MeetingRoom m " +
+                    "LEFT JOIN RoomType rt ON m.roomTypeId = rt.roomTypeId ORDER BY m.roomId";
+            List<int[]> rooms = new ArrayList<>();
+            try (PreparedStatement pstmt = conn.prepareStatement(roomSql);
+                    ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    String typeCode = rs.getString("typeCode");
+                    Integer type = typeCode == null ? null : typeIds.get(typeCode);
+                    rooms.add(new int[] { rs.getInt("roomId"), type == null ? -1 : type });
+                }
+            }
+            roomIds = new int[rooms.size()];
+            roomTypeIds = new int[rooms.size()];
+            for (int i = 0; i < rooms.size(); i++) {
+                roomIds[i] = rooms.get(i)[0];
+                roomTypeIds[i] = rooms.get(i)[1];
+            }
+
+            int typeCount = typeIds.size();
+            for (Object[] row : rows) {
+                int base = bitIndex((Integer) row[0], (Integer) row[1], typeCount, 0);
+                bits.set(base + CAN_BOOK, (Boolean) row[2]);
+                bits.set(base + CAN_VIEW, (Boolean) row[3]);
+                bits.set(base + CAN_MANAGE, (Boolean) row[4]);
+            }
+        }
+        return new Snapshot(roleIds, typeIds, bits, roomIds, roomTypeIds);
+    }
+
+    private static int intern(Map<String, Integer> ids, String key) {
+        Integer id = ids.get(key);
+        if (id == null) {
+            id = ids.size();
+            ids.put(key, id);
+        }
+        return id;
+    }
+
+    private static int bitIndex(int role, int type, int typeCount, int permission) {
+        return (role * typeCount + type) * PERMISSION_COUNT + permission;
+    }
+
+    /**
+     * 某一时刻加载的不可变矩阵。
+     */
+    private static class Snapshot {
+        final Map<String, Integer> roleIds;
+        final Map<String, Integer> typeIds;
+        final BitSet bits;
+        final int[] roomIds;
+        final int[] roomTypeIds;
+        final long loadedAt = System.currentTimeMillis();
+        // 是否已因缺少会议室重新加载过（或本身就是因此加载的），由 PermissionMatrix 的锁保护
+        boolean missReloaded = false;
+
+        Snapshot(Map<String, Integer> roleIds, Map<String, Integer> typeIds, BitSet bits, int[] roomIds,
+                int[] roomTypeIds) {
+            this.roleIds = roleIds;
+            this.typeIds = typeIds;
+            this.bits = bits;
+            this.roomIds = roomIds;
+            this.roomTypeIds = roomTypeIds;
+        }
+
+        boolean hasPermission(String userRole, String roomTypeCode, int permission) {
+            Integer type = roomTypeCode == null ? null : typeIds.get(roomTypeCode);
+            return type != null && hasPermission(userRole, type, permission);
+        }
+
+        boolean hasPermission(String userRole, int type, int permission) {
+            Integer role = userRole == null ? null : roleIds.get(userRole);
+            if (role == null || type < 0) {
+                return false;
+            }
+            return bits.get(bitIndex(role, type, typeIds.size(), permission));
+        }
+
+        boolean containsRoom(int roomId) {
+            return Arrays.binarySearch(roomIds, roomId) >= 0;
+        }
+
+        boolean hasRoomPermission(String userRole, int roomId, int permission) {
+            int pos = Arrays.binarySearch(roomIds, roomId);
+            return pos >= 0 && hasPermission(userRole, roomTypeIds[pos], permission);
+        }
+    }
+}
@@ -0,0 +1,235 @@
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+
+/**
+ * 有容量和有效期限制的读穿透缓存，用于很少变化的元数据（会议室、会议室类型）。
+ * 未命中时调用加载方法查询数据库（相同键的并发加载通过 SingleFlight 合并），结果放入缓存；
+ * 超出容量时淘汰最久未访问的项，超过有效期的项在下次访问时重新加载。
+ * <p>
+ * 缓存的对象是可变的实体类，因此存入和取出时都通过 copier 复制，调用方修改返回的对象不会影响缓存。
+ * 数据在本客户端修改后由 DAO 调用 invalidate() 精确失效；其他客户端的修改通过有效期感知。
+ * 加载期间发生失效时，加载结果只返回给调用方，不放入缓存。
+ *
+ * @param <K> 缓存键
+ * @param <V> 缓存值，不缓存 null
+ */
+public class ReadThroughCache<K, V> {
+
+    // 所有缓存实例，用于统一查看命中率
+    private static final List<ReadThroughCache<?, ?>> ALL_CACHES = new CopyOnWriteArrayList<>();
+
+    private final String name;
+    private final int maxSize;
+    private final long ttlMillis;
+    private final UnaryOperator<V> copier;
+    private final SingleFlight<K, V> loads = new SingleFlight<>();
+
+    // 按访问顺序排列，最久未访问的在前
+    private final Map<K, Entry<V>> entries;
+    // 每次失效递增，用于丢弃加载期间已经过期的结果
+    private long invalidationCount = 0;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong loadFailureCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+    private final AtomicLong expirationCount = new AtomicLong();
+
+    /**
+     * @param name      缓存名称，用于统计输出
+     * @param maxSize   最多缓存的项数
+     * @param ttlMillis 缓存项有效期
+     * @param copier    复制缓存值的方法
+     */
+    public ReadThroughCache(String name, int maxSize, long ttlMillis, UnaryOperator<V> copier) {
+        this.name = name;
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.copier = copier;
+        this.entries = new LinkedHashMap<K, Entry<V>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > ReadThroughCache.this.maxSize) {
+                    evictionCount.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+        ALL_CACHES.add(this);
+    }
+
+    /**
+     * 获取缓存的值，未缓存或已过期时调用 loader 加载。
+     *
+     * @param key    缓存键
+     * @param loader 从数据库加载的方法
+     * @return 值的副本；loader 返回 null 时返回 null
+     * @throws SQLException 加载失败
+     */
+    public V get(K key, SingleFlight.Loader<V> loader) throws SQLException {
+        long invalidationsAtLoad;
+        synchronized (this) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null) {
+                if (System.currentTimeMillis() - entry.loadedAt <= ttlMillis) {
+                    hitCount.incrementAndGet();
+                    return copier.apply(entry.value);
+                }
+                entries.remove(key);
+                expirationCount.incrementAndGet();
+            }
+            missCount.incrementAndGet();
+            invalidationsAtLoad = invalidationCount;
+        }
+
+        V loaded;
+        try {
+            loaded = loads.execute(key, loader);
+        } catch (SQLException | RuntimeException e) {
+            loadFailureCount.incrementAndGet();
+            throw e;
+        }
+        if (loaded == null) {
+            return null;
+        }
+        // 多个合并的调用方得到同一个对象，先复制一份再放入缓存
+        V stored = copier.apply(loaded);
+        synchronized (this) {
+            if (invalidationCount == invalidationsAtLoad) {
+                entries.put(key, new Entry<>(stored));
+            }
+        }
+        return copier.apply(loaded);
+    }
+
+    /**
+     * 使一个键失效。
+     */
+    public void invalidate(K key) {
+        synchronized (this) {
+            invalidationCount++;
+            entries.remove(key);
+        }
+        loads.forget();
+    }
+
+    /**
+     * 清空缓存。
+     */
+    public void invalidateAll() {
+        synchronized (this) {
+            invalidationCount++;
+            entries.clear();
+        }
+        loads.forget();
+    }
+
+    /**
+     * 获取当前的命中统计。
+     */
+    public synchronized Statistics getStatistics() {
+        return new Statistics(name, entries.size(), maxSize, hitCount.get(), missCount.get(),
+                loadFailureCount.get(), evictionCount.get(), expirationCount.get());
+    }
+
+    /**
+     * 获取所有缓存的命中统计。
+     */
+    public static List<Statistics> getAllStatistics() {
+        List<Statistics> result = new ArrayList<>();
+        for (ReadThroughCache<?, ?> cache : ALL_CACHES) {
+            result.add(cache.getStatistics());
+        }
+        return result;
+    }
+
+    private static class Entry<V> {
+        final V value;
+        final long loadedAt = System.currentTimeMillis();
+
+        Entry(V value) {
+            this.value = value;
+        }
+    }
+
+    /**
+     * 缓存统计快照。
+     */
+    public static class Statistics {
+        private final String name;
+        private final int size;
+        private final int maxSize;
+        private final long hitCount;
+        private final long missCount;
+        private final long loadFailureCount;
+        private final long evictionCount;
+        private final long expirationCount;
+
+        public Statistics(String name, int size, int maxSize, long hitCount, long missCount, long loadFailureCount,
+                long evictionCount, long expirationCount) {
+            this.name = name;
+            this.size = size;
+            this.maxSize = maxSize;
+            this.hitCount = hitCount;
+            this.missCount = missCount;
+            this.loadFailureCount = loadFailureCount;
+            this.evictionCount = evictionCount;
+            this.expirationCount = expirationCount;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public long getHitCount() {
+            return hitCount;
+        }
+
+        public long getMissCount() {
+            return missCount;
+        }
+
+        public long getLoadFailureCount() {
+            return loadFailureCount;
+        }
+
+        public long getEvictionCount() {
+            return evictionCount;
+        }
+
+        public long getExpirationCount() {
+            return expirationCount;
+        }
+
+        /**
+         * 命中率，尚无访问时为 0。
+         */
+        public double getHitRate() {
+            long total = hitCount + missCount;
+            return total == 0 ? 0 : (double) hitCount / total;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "Cache{name=%s, size=%d/%d, hits=%d, misses=%d, hitRate=%.1f%%, loadFailures=%d, evictions=%d, expirations=%d}",
+                    name, size, maxSize, hitCount, missCount, getHitRate() * 100, loadFailureCount, evictionCount,
+                    expirationCount);
+        }
+    }
+}
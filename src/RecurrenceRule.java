@@ -0,0 +1,214 @@
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * 预订的重复规则：按天、周或月重复，每隔 interval 个周期一次，直到某一天或共 count 次，可以排除个别日期。
+ * 展开时每次的开始时刻、时长与模板预订相同；按月重复时，没有对应日期的月份（例如 31 日）跳过。
+ * <p>
+ * 规则以类似 iCalendar RRULE 的文本保存在 ReservationSeries 表中，例如
+ * FREQ=WEEKLY;INTERVAL=1;COUNT=10;EXDATE=20261103,20261110。
+ */
+public class RecurrenceRule {
+
+    public static final int FREQUENCY_DAILY = 1;
+    public static final int FREQUENCY_WEEKLY = 2;
+    public static final int FREQUENCY_MONTHLY = 3;
+
+    // 一个系列最多展开的次数
+    public static final int MAX_OCCURRENCES = 366;
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private final int frequency;
+    private final int interval;
+    private final LocalDate until;
+    private final int count;
+    private final Set<LocalDate> exceptions;
+
+    /**
+     * @param frequency  FREQUENCY_ 常量之一
+     * @param interval   每隔几个周期重复一次，至少为 1
+     * @param until      最后一次的日期（包含），为 null 时以 count 为准
+     * @param count      最多的次数（包括被排除的日期），为 0 时以 until 为准
+     * @param exceptions 排除的日期，可以为 null
+     */
+    public RecurrenceRule(int frequency, int interval, LocalDate until, int count, Set<LocalDate> exceptions) {
+        if (frequency != FREQUENCY_DAILY && frequency != FREQUENCY_WEEKLY && frequency != FREQUENCY_MONTHLY) {
+            throw new IllegalArgumentException("未知的重复频率: " + frequency);
+        }
+        if (interval < 1) {
+            throw new IllegalArgumentException("重复间隔必须大于 0");
+        }
+        if (until == null && count <= 0) {
+            throw new IllegalArgumentException("必须指定结束日期或重复次数");
+        }
+        this.frequency = frequency;
+        this.interval = interval;
+        this.until = until;
+        this.count = count;
+        this.exceptions = exceptions == null ? Collections.emptySet()
+                : Collections.unmodifiableSet(new TreeSet<>(exceptions));
+    }
+
+    public int getFrequency() {
+        return frequency;
+    }
+
+    public int getInterval() {
+        return interval;
+    }
+
+    public LocalDate getUntil() {
+        return until;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public Set<LocalDate> getExceptions() {
+        return exceptions;
+    }
+
+    /**
+     * 以模板预订为第一次展开所有重复的预订，按开始时间排序。展开的预订ID为 0。
+     *
+     * @param template 第一次预订
+     * @return 展开的预订，不超过 MAX_OCCURRENCES 次
+     * @throws IllegalArgumentException 展开的次数超过 MAX_OCCURRENCES
+     */
+    public List<Reservation> expand(Reservation template) {
+        LocalDateTime firstStart = template.getStartTime().toLocalDateTime();
+        Duration duration = Duration.between(firstStart, template.getEndTime().toLocalDateTime());
+        List<Reservation> occurrences = new ArrayList<>();
+        int generated = 0;
+        for (int i = 0;; i++) {
+            if (count > 0 && generated >= count) {
+                break;
+            }
+            LocalDateTime start = nthStart(firstStart, i);
+            if (start == null) {
+                // 该月没有对应日期
+                continue;
+            }
+            if (until != null && start.toLocalDate().isAfter(until)) {
+                break;
+            }
+            generated++;
+            if (exceptions.contains(start.toLocalDate())) {
+                continue;
+            }
+            if (occurrences.size() >= MAX_OCCURRENCES) {
+                throw new IllegalArgumentException("重复次数过多，一个系列最多 " + MAX_OCCURRENCES + " 次");
+            }
+            occurrences.add(new Reservation(0, template.getUserId(), template.getRoomId(), template.getRoomName(),
+                    template.getSubject(), template.getDescription(), Timestamp.valueOf(start),
+                    Timestamp.valueOf(start.plus(duration)), template.getStatus()));
+        }
+        return occurrences;
+    }
+
+    private LocalDateTime nthStart(LocalDateTime first, int n) {
+        switch (frequency) {
+            case FREQUENCY_DAILY:
+                return first.plusDays((long) n * interval);
+            case FREQUENCY_WEEKLY:
+                return first.plusWeeks((long) n * interval);
+            default:
+                LocalDateTime start = first.plusMonths((long) n * interval);
+                return start.getDayOfMonth() == first.getDayOfMonth() ? start : null;
+        }
+    }
+
+    /**
+     * 转换为保存用的文本。
+     */
+    public String toRuleString() {
+        StringBuilder sb = new StringBuilder("FREQ=");
+        sb.append(frequency == FREQUENCY_DAILY ? "DAILY" : frequency == FREQUENCY_WEEKLY ? "WEEKLY" : "MONTHLY");
+        sb.append(";INTERVAL=").append(interval);
+        if (until != null) {
+            sb.append(";UNTIL=").append(until.format(DATE_FORMAT));
+        }
+        if (count > 0) {
+            sb.append(";COUNT=").append(count);
+        }
+        if (!exceptions.isEmpty()) {
+            sb.append(";EXDATE=");
+            boolean first = true;
+            for (LocalDate date : exceptions) {
+                if (!first) {
+                    sb.append(',');
+                }
+                sb.append(date.format(DATE_FORMAT));
+                first = false;
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 从 toRuleString() 生成的文本解析规则。
+     *
+     * @throws IllegalArgumentException 文本格式不正确
+     */
+    public static RecurrenceRule parse(String text) {
+        int frequency = 0;
+        int interval = 1;
+        LocalDate until = null;
+        int count = 0;
+        Set<LocalDate> exceptions = new TreeSet<>();
+        try {
+            for (String part : text.split(";")) {
+                int eq = part.indexOf('=');
+                if (eq < 0) {
+                    throw new IllegalArgumentException("无法解析重复规则: " + text);
+                }
+                String key = part.substring(0, eq).trim();
+                String value = part.substring(eq + 1).trim();
+                switch (key) {
+                    case "FREQ":
+                        frequency = "DAILY".equals(value) ? FREQUENCY_DAILY
+                                : "WEEKLY".equals(value) ? FREQUENCY_WEEKLY
+                                        : "MONTHLY".equals(value) ? FREQUENCY_MONTHLY : 0;
+                        break;
+                    case "INTERVAL":
+                        interval = Integer.parseInt(value);
+                        break;
+                    case "UNTIL":
+                        until = LocalDate.parse(value, DATE_FORMAT);
+                        break;
+                    case "COUNT":
+                        count = Integer.parseInt(value);
+                        break;
+                    case "EXDATE":
+                        for (String date : value.split(",")) {
+                            if (!date.isEmpty()) {
+                                exceptions.add(LocalDate.parse(date, DATE_FORMAT));
+                            }
+                        }
+                        break;
+                    default:
+                        throw new IllegalArgumentException("无法解析重复规则: " + text);
+                }
+            }
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new IllegalArgumentException("无法解析重复规则: " + text, e);
+        }
+        return new RecurrenceRule(frequency, interval, until, count, exceptions);
+    }
+
+    @Override
+    public String toString() {
+        return toRuleString();
+    }
+}
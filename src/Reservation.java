@@ -16,6 +16,7 @@ public class Reservation {
     private Timestamp startTime;
     private Timestamp endTime;
     private int status; // 状态：1=已确认, 2=已取消, 3=进行中, 4=已完成
+    private MeetingRoom room; // 查询预订列表时一并加载的会议室信息，可能为 null
 
     public Reservation(int reservationId, int userId, int roomId, String roomName, String subject, String description,
             Timestamp startTime, Timestamp endTime, int status) {
@@ -67,6 +68,14 @@ public class Reservation {
         return status;
     }
 
+    public MeetingRoom getRoom() {
+        return room;
+    }
+
+    public void setRoom(MeetingRoom room) {
+        this.room = room;
+    }
+
     /**
      * 根据状态码返回可读的文本。
      * 
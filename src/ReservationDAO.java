@@ -1,32 +1,81 @@
 import java.sql.*;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * ReservationDAO 类用于处理与 Reservation 表相关的数据库操作。
  * 包括获取预订信息等。
  */
 public class ReservationDAO {
+    private static final String MSG_CONFLICT = "预订时间冲突！该时间段已被占用。";
+
+    // 添加 Reservation.groupKey 列的迁移版本，之前的数据库中联合预订不记录分组
+    public static final int GROUP_SCHEMA_VERSION = 4;
+    // 按会议室ID列表查询时，每条语句最多包含的会议室数
+    private static final int ROOM_ID_BATCH_SIZE = 1000;
+
+    // 预订事务遇到死锁/锁等待超时时的重试策略
+    private static final int MAX_BOOKING_RETRIES = 3;
+    private static final long BACKOFF_BASE_MILLIS = 50;
+    private static final long BACKOFF_MAX_MILLIS = 1000;
+    // MySQL 错误码：死锁、锁等待超时
+    private static final int MYSQL_ER_LOCK_DEADLOCK = 1213;
+    private static final int MYSQL_ER_LOCK_WAIT_TIMEOUT = 1205;
+
+    // 预订事务统计
+    private static final AtomicLong BOOKING_ATTEMPTS = new AtomicLong();
+    private static final AtomicLong BOOKING_COMMITS = new AtomicLong();
+    private static final AtomicLong BOOKING_CONFLICTS = new AtomicLong();
+    private static final AtomicLong BOOKING_RETRIES = new AtomicLong();
+    private static final AtomicLong BOOKING_NANOS = new AtomicLong();
+
     /**
      * 获取指定日期的预订总数（不包括已取消的）。
+     * 使用 [当天 00:00, 次日 00:00) 的范围条件以便利用 startTime 上的索引，结果按天缓存并增量维护。
      * 
      * @param date 日期
      * @return 当日的预订数量
      * @throws SQLException 数据库访问异常
      */
     public int getBookingCountForDate(java.util.Date date) throws SQLException {
-        String sql = "SELECT COUNT(*) FROM Reservation WHERE DATE(startTime) = ? AND status != ?";
+        LocalDate day = toLocalDate(date.getTime());
+        DailyBookingCounter counter = DailyBookingCounter.getShared();
+        Integer cached = counter.get(day);
+        if (cached != null) {
+            return cached;
+        }
+        long modificationCount = counter.getModificationCount();
+        int count = 0;
+        String sql = "SELECT COUNT(*) FROM Reservation WHERE startTime >= ? AND startTime < ? AND status != ?";
         try (Connection conn = UserDAO.getConnection();
                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setDate(1, new java.sql.Date(date.getTime()));
-            pstmt.setInt(2, Reservation.STATUS_CANCELLED);
+            pstmt.setTimestamp(1, Timestamp.valueOf(day.atStartOfDay()));
+            pstmt.setTimestamp(2, Timestamp.valueOf(day.plusDays(1).atStartOfDay()));
+            pstmt.setInt(3, Reservation.STATUS_CANCELLED);
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    return rs.getInt(1);
+                    count = rs.getInt(1);
                 }
             }
         }
-        return 0;
+        counter.putIfUnchanged(day, count, modificationCount);
+        return count;
+    }
+
+    private static LocalDate toLocalDate(long millis) {
+        return Instant.ofEpochMilli(millis).atZone(ZoneId.systemDefault()).toLocalDate();
     }
 
     /**
@@ -41,11 +90,44 @@ public class ReservationDAO {
      */
     public boolean hasConflict(int roomId, java.sql.Timestamp startTime, java.sql.Timestamp endTime,
             int excludeReservationId) throws SQLException {
+        // 索引能覆盖该时间段时直接用索引回答，无需访问数据库。这里的结果只用于提示，
+        // 保存时事务中的检查以数据库为准，并在与索引不一致时刷新该会议室的索引
+        ReservationIntervalIndex index = ReservationIntervalIndex.getShared();
+        if (index.covers(startTime.getTime())) {
+            return index.hasConflict(roomId, startTime.getTime(), endTime.getTime(), excludeReservationId);
+        }
+        return hasConflictInDatabase(roomId, startTime, endTime, excludeReservationId);
+    }
+
+    /**
+     * 仅使用内存索引检查冲突，不访问数据库。结果只能作为界面提示：
+     * 索引可能残留已被删除或取消的预订，保存时仍以事务中的检查为准。
+     * 
+     * @return 如果索引中存在冲突，返回 true；索引未预热或无法覆盖该时间段时返回 false
+     */
+    public boolean hasConflictCached(int roomId, java.sql.Timestamp startTime, java.sql.Timestamp endTime,
+            int excludeReservationId) {
+        ReservationIntervalIndex index = ReservationIntervalIndex.getShared();
+        return index.covers(startTime.getTime())
+                && index.hasConflict(roomId, startTime.getTime(), endTime.getTime(), excludeReservationId);
+    }
+
+    /**
+     * 在数据库中检查冲突，作为最终的权威判断。
+     */
+    private boolean hasConflictInDatabase(int roomId, java.sql.Timestamp startTime, java.sql.Timestamp endTime,
+            int excludeReservationId) throws SQLException {
+        try (Connection conn = UserDAO.getConnection()) {
+            return hasConflictInDatabase(conn, roomId, startTime, endTime, excludeReservationId);
+        }
+    }
+
+    private boolean hasConflictInDatabase(Connection conn, int roomId, java.sql.Timestamp startTime,
+            java.sql.Timestamp endTime, int excludeReservationId) throws SQLException {
         String sql = "SELECT COUNT(*) FROM Reservation " +
                 "WHERE roomId = ? AND status != ? AND reservationId != ? AND " +
                 "(? < endTime AND ? > startTime)";
-        try (Connection conn = UserDAO.getConnection();
-                PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, roomId);
             pstmt.setInt(2, Reservation.STATUS_CANCELLED);
             pstmt.setInt(3, excludeReservationId);
@@ -62,18 +144,439 @@ public class ReservationDAO {
 
     /**
      * 创建一个新的预订。
+     * 在同一个事务中锁定会议室行、检查冲突并插入，避免并发预订同一时间段时出现重复预订。
      * 
      * @param reservation 预订对象
      * @return 如果创建成功，返回 true
-     * @throws SQLException 数据库访问异常
+     * @throws SQLException 数据库访问异常，或时间冲突
      */
     public boolean createReservation(Reservation reservation) throws SQLException {
-        if (hasConflict(reservation.getRoomId(), reservation.getStartTime(), reservation.getEndTime(), 0)) {
-            throw new SQLException("预订时间冲突！该时间段已被占用。");
+        // 索引中的冲突可能是残留的旧数据，不据此拒绝预订；事务中的检查确认没有冲突时再刷新索引
+        boolean suspected = hasConflictCached(reservation.getRoomId(), reservation.getStartTime(),
+                reservation.getEndTime(), 0);
+        int reservationId = executeBookingTransaction(reservation.getRoomId(), conn -> {
+            lockRoom(conn, reservation.getRoomId());
+            checkConflictInTransaction(conn, reservation.getRoomId(), reservation.getStartTime(),
+                    reservation.getEndTime(), 0);
+            int id = insertReservation(conn, reservation);
+            ChangeLogDAO.record(conn, ChangeLogDAO.ENTITY_RESERVATION, id, ChangeLogDAO.OP_INSERT,
+                    reservation.getRoomId());
+            return id;
+        });
+        if (suspected) {
+            refreshRoomIndex(reservation.getRoomId());
+        } else {
+            ReservationIntervalIndex.getShared().put(withId(reservation, reservationId));
+        }
+        if (reservation.getStatus() != Reservation.STATUS_CANCELLED) {
+            DailyBookingCounter.getShared().adjust(toLocalDate(reservation.getStartTime().getTime()), 1);
+        }
+        MeetingRoomDAO.invalidateDashboardSnapshot();
+        return true;
+    }
+
+    // 复制一个带有数据库生成ID的预订对象
+    private static Reservation withId(Reservation r, int reservationId) {
+        return new Reservation(reservationId, r.getUserId(), r.getRoomId(), r.getRoomName(), r.getSubject(),
+                r.getDescription(), r.getStartTime(), r.getEndTime(), r.getStatus());
+    }
+
+    /**
+     * 更新一个已有的预订。
+     * 与创建预订相同，锁定会议室行后在同一事务中检查冲突并更新。
+     * 
+     * @param reservation 包含更新信息的预订对象
+     * @return 如果更新成功，返回 true
+     * @throws SQLException 数据库访问异常，或时间冲突
+     */
+    public boolean updateReservation(Reservation reservation) throws SQLException {
+        boolean suspected = hasConflictCached(reservation.getRoomId(), reservation.getStartTime(),
+                reservation.getEndTime(), reservation.getReservationId());
+        String sql = "UPDATE Reservation SET subject = ?, description = ?, startTime = ?, endTime = ?, status = ? WHERE reservationId = ?";
+        int affectedRows = executeBookingTransaction(reservation.getRoomId(), conn -> {
+            lockRoom(conn, reservation.getRoomId());
+            checkConflictInTransaction(conn, reservation.getRoomId(), reservation.getStartTime(),
+                    reservation.getEndTime(), reservation.getReservationId());
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setString(1, reservation.getSubject());
+                pstmt.setString(2, reservation.getDescription());
+                pstmt.setTimestamp(3, reservation.getStartTime());
+                pstmt.setTimestamp(4, reservation.getEndTime());
+                pstmt.setInt(5, reservation.getStatus());
+                pstmt.setInt(6, reservation.getReservationId());
+                int updated = pstmt.executeUpdate();
+                if (updated > 0) {
+                    ChangeLogDAO.record(conn, ChangeLogDAO.ENTITY_RESERVATION, reservation.getReservationId(),
+                            ChangeLogDAO.OP_UPDATE, reservation.getRoomId());
+                }
+                return updated;
+            }
+        });
+        if (affectedRows > 0) {
+            ReservationIntervalIndex index = ReservationIntervalIndex.getShared();
+            ReservationIntervalIndex.Interval previous = index.getInterval(reservation.getReservationId());
+            if (suspected) {
+                refreshRoomIndex(reservation.getRoomId());
+            } else {
+                index.put(reservation);
+            }
+            DailyBookingCounter counter = DailyBookingCounter.getShared();
+            if (previous != null && reservation.getStatus() != Reservation.STATUS_CANCELLED) {
+                counter.adjust(toLocalDate(previous.getStart()), -1);
+                counter.adjust(toLocalDate(reservation.getStartTime().getTime()), 1);
+            } else {
+                // 无法确定原预订所在日期
+                counter.invalidateAll();
+            }
+            MeetingRoomDAO.invalidateDashboardSnapshot();
+        }
+        return affectedRows > 0;
+    }
+
+    /**
+     * 按重复规则创建一组预订。
+     * 在一个事务中锁定会议室，用一次查询取出系列时间范围内的已有预订，在内存中逐次检查冲突，
+     * 然后把所有预订作为一个 JDBC 批处理插入。系列表可用时同时保存重复规则。
+     * 
+     * @param template      第一次预订
+     * @param rule          重复规则
+     * @param skipConflicts 有冲突时是否跳过冲突的几次、预订其余的；为 false 时只要有冲突就不预订任何一次
+     * @return 每一次的检查结果，以及是否已经预订
+     * @throws SQLException 数据库访问异常
+     */
+    public SeriesBooking createRecurringReservation(Reservation template, RecurrenceRule rule, boolean skipConflicts)
+            throws SQLException {
+        List<Reservation> occurrences = rule.expand(template);
+        if (occurrences.isEmpty()) {
+            return new SeriesBooking(0, new ArrayList<>(), false);
         }
+        int roomId = template.getRoomId();
+        Timestamp from = occurrences.get(0).getStartTime();
+        Timestamp to = occurrences.get(occurrences.size() - 1).getEndTime();
+        // 记下索引对每一次的判断，与事务中的检查不一致时刷新该会议室的索引
+        boolean[] cached = new boolean[occurrences.size()];
+        for (int i = 0; i < cached.length; i++) {
+            Reservation occurrence = occurrences.get(i);
+            cached[i] = hasConflictCached(roomId, occurrence.getStartTime(), occurrence.getEndTime(), 0);
+        }
+        SeriesBooking booking = executeBookingTransaction(roomId, conn -> {
+            lockRoom(conn, roomId);
+            List<OccurrenceResult> results = checkOccurrences(occurrences,
+                    getActiveReservationsOverlapping(conn, Collections.singletonList(roomId), from, to));
+            List<Reservation> free = new ArrayList<>();
+            for (OccurrenceResult result : results) {
+                if (!result.isConflict()) {
+                    free.add(result.getOccurrence());
+                }
+            }
+            if (free.isEmpty() || (free.size() < results.size() && !skipConflicts)) {
+                return new SeriesBooking(0, results, false);
+            }
+            int seriesId = ReservationSeriesDAO.isAvailable() ? ReservationSeriesDAO.insertSeries(conn, template, rule)
+                    : 0;
+            int[] ids = insertReservations(conn, free, seriesId, null);
+            ChangeLogDAO.recordBatch(conn, ChangeLogDAO.ENTITY_RESERVATION, ids, ChangeLogDAO.OP_INSERT, roomId);
+            List<OccurrenceResult> booked = new ArrayList<>(results.size());
+            int next = 0;
+            for (OccurrenceResult result : results) {
+                booked.add(result.isConflict() ? result
+                        : new OccurrenceResult(withId(result.getOccurrence(), ids[next++]), null));
+            }
+            return new SeriesBooking(seriesId, booked, true);
+        });
+        boolean indexStale = false;
+        for (int i = 0; i < cached.length; i++) {
+            indexStale |= cached[i] != booking.getOccurrences().get(i).isConflict();
+        }
+        if (indexStale) {
+            refreshRoomIndex(roomId);
+        }
+        if (booking.isBooked()) {
+            ReservationIntervalIndex index = ReservationIntervalIndex.getShared();
+            DailyBookingCounter counter = DailyBookingCounter.getShared();
+            for (OccurrenceResult result : booking.getOccurrences()) {
+                if (!result.isConflict()) {
+                    Reservation r = result.getOccurrence();
+                    if (!indexStale) {
+                        index.put(r);
+                    }
+                    if (r.getStatus() != Reservation.STATUS_CANCELLED) {
+                        counter.adjust(toLocalDate(r.getStartTime().getTime()), 1);
+                    }
+                }
+            }
+            MeetingRoomDAO.invalidateDashboardSnapshot();
+        }
+        return booking;
+    }
+
+    /**
+     * 原子地创建一组关联的预订（例如分会场同时使用的多个会议室）：要么全部预订成功，要么一个也不预订。
+     * 在一个事务中按会议室ID从小到大依次锁定涉及的会议室，使并发的联合预订以相同顺序加锁而不会互相死锁；
+     * 用一次查询取出这些会议室在时间范围内的已有预订，在内存中检查每一项（包括组内互相重叠的项），
+     * 然后把整组作为一个 JDBC 批处理插入并一起提交。数据库已迁移到 GROUP_SCHEMA_VERSION 时，
+     * 同一组的预订写入相同的 groupKey。
+     * 
+     * @param reservations 要预订的各项，可以是不同会议室和不同时间段
+     * @return 已预订的各项，顺序与参数相同，带有数据库生成的ID
+     * @throws GroupBookingConflictException 任何一项有冲突，此时整组都没有预订
+     * @throws SQLException                  数据库访问异常
+     */
+    public List<Reservation> createGroupReservation(List<Reservation> reservations) throws SQLException {
+        if (reservations.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Set<Integer> suspectedRooms = getSuspectedRooms(reservations);
+        List<Integer> roomIds = new ArrayList<>(new TreeSet<>(getRoomIds(reservations)));
+        long fromMillis = Long.MAX_VALUE;
+        long toMillis = Long.MIN_VALUE;
+        for (Reservation r : reservations) {
+            fromMillis = Math.min(fromMillis, r.getStartTime().getTime());
+            toMillis = Math.max(toMillis, r.getEndTime().getTime());
+        }
+        Timestamp from = new Timestamp(fromMillis);
+        Timestamp to = new Timestamp(toMillis);
+        String groupKey = isGroupKeyAvailable() ? UUID.randomUUID().toString() : null;
+        int[] ids = executeBookingTransaction(roomIds, conn -> {
+            for (int roomId : roomIds) {
+                lockRoom(conn, roomId);
+            }
+            List<OccurrenceResult> results = checkOccurrences(reservations,
+                    getActiveReservationsOverlapping(conn, roomIds, from, to));
+            for (OccurrenceResult result : results) {
+                if (result.isConflict()) {
+                    throw new GroupBookingConflictException(results);
+                }
+            }
+            int[] inserted = insertReservations(conn, reservations, 0, groupKey);
+            int[] insertedRoomIds = new int[inserted.length];
+            for (int i = 0; i < inserted.length; i++) {
+                insertedRoomIds[i] = reservations.get(i).getRoomId();
+            }
+            ChangeLogDAO.recordBatch(conn, ChangeLogDAO.ENTITY_RESERVATION, inserted, ChangeLogDAO.OP_INSERT,
+                    insertedRoomIds);
+            return inserted;
+        });
+        List<Reservation> booked = new ArrayList<>(ids.length);
+        ReservationIntervalIndex index = ReservationIntervalIndex.getShared();
+        DailyBookingCounter counter = DailyBookingCounter.getShared();
+        for (int i = 0; i < ids.length; i++) {
+            Reservation r = withId(reservations.get(i), ids[i]);
+            booked.add(r);
+            if (!suspectedRooms.contains(r.getRoomId())) {
+                index.put(r);
+            }
+            if (r.getStatus() != Reservation.STATUS_CANCELLED) {
+                counter.adjust(toLocalDate(r.getStartTime().getTime()), 1);
+            }
+        }
+        for (int roomId : suspectedRooms) {
+            refreshRoomIndex(roomId);
+        }
+        MeetingRoomDAO.invalidateDashboardSnapshot();
+        return booked;
+    }
+
+    /**
+     * 数据库中是否已有 Reservation.groupKey 列。
+     */
+    public static boolean isGroupKeyAvailable() {
+        return SchemaMigrator.getCurrentVersion() >= GROUP_SCHEMA_VERSION;
+    }
+
+    private static Set<Integer> getRoomIds(List<Reservation> reservations) {
+        Set<Integer> roomIds = new HashSet<>();
+        for (Reservation r : reservations) {
+            roomIds.add(r.getRoomId());
+        }
+        return roomIds;
+    }
+
+    /**
+     * 共享的区间索引中与一组预订冲突的会议室。索引可能残留旧数据，事务确认没有冲突并提交后，
+     * 这些会议室的索引整体刷新。
+     */
+    private Set<Integer> getSuspectedRooms(List<Reservation> reservations) {
+        Set<Integer> roomIds = new HashSet<>();
+        for (Reservation r : reservations) {
+            if (hasConflictCached(r.getRoomId(), r.getStartTime(), r.getEndTime(), 0)) {
+                roomIds.add(r.getRoomId());
+            }
+        }
+        return roomIds;
+    }
+
+    /**
+     * 逐次检查冲突。已有预订先建成临时区间索引；没有冲突的一次也加入索引，使同一系列内部重叠的几次也被发现。
+     */
+    private static List<OccurrenceResult> checkOccurrences(List<Reservation> occurrences, List<Reservation> existing) {
+        ReservationIntervalIndex intervals = new ReservationIntervalIndex();
+        intervals.load(existing, Long.MIN_VALUE);
+        List<OccurrenceResult> results = new ArrayList<>(occurrences.size());
+        int placeholderId = -1;
+        for (Reservation occurrence : occurrences) {
+            long start = occurrence.getStartTime().getTime();
+            long end = occurrence.getEndTime().getTime();
+            ReservationIntervalIndex.Interval conflict = intervals.findConflict(occurrence.getRoomId(), start, end, 0);
+            results.add(new OccurrenceResult(occurrence, conflict));
+            if (conflict == null) {
+                intervals.put(withId(occurrence, placeholderId--));
+            }
+        }
+        return results;
+    }
+
+    private List<Reservation> getActiveReservationsOverlapping(Connection conn, List<Integer> roomIds, Timestamp from,
+            Timestamp to) throws SQLException {
+        String placeholders = String.join(", ", Collections.nCopies(roomIds.size(), "?"));
+        String sql = "SELECT reservationId, userId, roomId, subject, description, startTime, endTime, status " +
+                "FROM Reservation WHERE roomId IN (" + placeholders + ") AND status != ? AND startTime < ? AND endTime > ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            int i = 1;
+            for (int roomId : roomIds) {
+                pstmt.setInt(i++, roomId);
+            }
+            pstmt.setInt(i++, Reservation.STATUS_CANCELLED);
+            pstmt.setTimestamp(i++, to);
+            pstmt.setTimestamp(i, from);
+            return readReservationsWithoutRoomName(pstmt);
+        }
+    }
+
+    // 以一个批处理插入多个预订，返回按顺序对应的预订ID；seriesId 为 0 时不写入系列，groupKey 为 null 时不写入分组
+    private int[] insertReservations(Connection conn, List<Reservation> reservations, int seriesId, String groupKey)
+            throws SQLException {
+        String columns = "userId, roomId, subject, description, startTime, endTime, status";
+        String values = "?, ?, ?, ?, ?, ?, ?";
+        if (seriesId > 0) {
+            columns += ", seriesId";
+            values += ", ?";
+        }
+        if (groupKey != null) {
+            columns += ", groupKey";
+            values += ", ?";
+        }
+        String sql = "INSERT INTO Reservation (" + columns + ") VALUES (" + values + ")";
+        int[] ids = new int[reservations.size()];
+        try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            for (Reservation reservation : reservations) {
+                pstmt.setInt(1, reservation.getUserId());
+                pstmt.setInt(2, reservation.getRoomId());
+                pstmt.setString(3, reservation.getSubject());
+                pstmt.setString(4, reservation.getDescription());
+                pstmt.setTimestamp(5, reservation.getStartTime());
+                pstmt.setTimestamp(6, reservation.getEndTime());
+                pstmt.setInt(7, reservation.getStatus());
+                int next = 8;
+                if (seriesId > 0) {
+                    pstmt.setInt(next++, seriesId);
+                }
+                if (groupKey != null) {
+                    pstmt.setString(next, groupKey);
+                }
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+            int count = 0;
+            try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                while (keys.next() && count < ids.length) {
+                    ids[count++] = keys.getInt(1);
+                }
+            }
+            if (count < ids.length) {
+                throw new SQLException("批量创建预订失败：未返回全部预订ID");
+            }
+        }
+        return ids;
+    }
+
+    // --- 预订事务 ---
+
+    /**
+     * 在事务中执行的预订操作。
+     */
+    private interface BookingTransaction<T> {
+        T execute(Connection conn) throws SQLException;
+    }
+
+    /**
+     * 以事务方式执行预订操作，遇到死锁或锁等待超时时按有限次数退避重试。
+     * 
+     * @param roomId 涉及的会议室ID（冲突时用于刷新本地索引）
+     * @param body   事务内容
+     * @return 事务内容的返回值
+     * @throws SQLException 数据库访问异常，或时间冲突
+     */
+    private <T> T executeBookingTransaction(int roomId, BookingTransaction<T> body) throws SQLException {
+        return executeBookingTransaction(Collections.singletonList(roomId), body);
+    }
+
+    /**
+     * 涉及多个会议室的预订事务，冲突时刷新所有涉及的会议室的本地索引。
+     */
+    private <T> T executeBookingTransaction(List<Integer> roomIds, BookingTransaction<T> body) throws SQLException {
+        long started = System.nanoTime();
+        BOOKING_ATTEMPTS.incrementAndGet();
+        for (int attempt = 0;; attempt++) {
+            try (Connection conn = UserDAO.getConnection()) {
+                conn.setAutoCommit(false);
+                try {
+                    T result = body.execute(conn);
+                    conn.commit();
+                    BOOKING_COMMITS.incrementAndGet();
+                    BOOKING_NANOS.addAndGet(System.nanoTime() - started);
+                    return result;
+                } catch (SQLException e) {
+                    conn.rollback();
+                    if (e instanceof BookingConflictException) {
+                        BOOKING_CONFLICTS.incrementAndGet();
+                        for (int roomId : roomIds) {
+                            refreshRoomIndex(roomId);
+                        }
+                        throw e;
+                    }
+                    if (!isRetryable(e) || attempt >= MAX_BOOKING_RETRIES) {
+                        throw e;
+                    }
+                    BOOKING_RETRIES.incrementAndGet();
+                } catch (RuntimeException e) {
+                    conn.rollback();
+                    throw e;
+                }
+                // 连接归还到连接池时会恢复自动提交
+            }
+            backoff(attempt);
+        }
+    }
+
+    /**
+     * 锁定会议室行（SELECT ... FOR UPDATE），使同一会议室的预订事务串行执行。
+     */
+    private void lockRoom(Connection conn, int roomId) throws SQLException {
+        String sql = "SELECT roomId FROM MeetingRoom WHERE roomId = ? FOR UPDATE";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, roomId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) {
+                    throw new SQLException("会议室不存在: " + roomId);
+                }
+            }
+        }
+    }
+
+    /**
+     * 在已锁定会议室的事务中检查时间冲突，有冲突时抛出 BookingConflictException。
+     */
+    private void checkConflictInTransaction(Connection conn, int roomId, Timestamp startTime, Timestamp endTime,
+            int excludeReservationId) throws SQLException {
+        if (hasConflictInDatabase(conn, roomId, startTime, endTime, excludeReservationId)) {
+            throw new BookingConflictException(MSG_CONFLICT);
+        }
+    }
+
+    private int insertReservation(Connection conn, Reservation reservation) throws SQLException {
         String sql = "INSERT INTO Reservation (userId, roomId, subject, description, startTime, endTime, status) VALUES (?, ?, ?, ?, ?, ?, ?)";
-        try (Connection conn = UserDAO.getConnection();
-                PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             pstmt.setInt(1, reservation.getUserId());
             pstmt.setInt(2, reservation.getRoomId());
             pstmt.setString(3, reservation.getSubject());
@@ -81,51 +584,320 @@ public class ReservationDAO {
             pstmt.setTimestamp(5, reservation.getStartTime());
             pstmt.setTimestamp(6, reservation.getEndTime());
             pstmt.setInt(7, reservation.getStatus());
-            int affectedRows = pstmt.executeUpdate();
-            return affectedRows > 0;
+            pstmt.executeUpdate();
+            try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                if (keys.next()) {
+                    return keys.getInt(1);
+                }
+            }
+        }
+        throw new SQLException("创建预订失败：未返回预订ID");
+    }
+
+    // 数据库发现了本地索引中没有的冲突（例如其他客户端新建的预订），或同步到其他客户端的变更时，刷新该会议室的索引
+    void refreshRoomIndex(int roomId) {
+        ReservationIntervalIndex index = ReservationIntervalIndex.getShared();
+        if (!index.isWarm()) {
+            return;
+        }
+        try {
+            index.replaceRoom(roomId, getActiveReservationsEndingAfter(roomId, new Timestamp(System.currentTimeMillis())));
+        } catch (SQLException e) {
+            System.err.println("刷新会议室预订索引失败: " + e.getMessage());
+        }
+    }
+
+    // 一次查询刷新多个会议室的索引，用于同步一批其他客户端的变更
+    void refreshRoomIndexes(Collection<Integer> roomIds) {
+        ReservationIntervalIndex index = ReservationIntervalIndex.getShared();
+        if (!index.isWarm() || roomIds.isEmpty()) {
+            return;
+        }
+        try {
+            Map<Integer, List<Reservation>> byRoom = new HashMap<>();
+            for (int roomId : roomIds) {
+                byRoom.put(roomId, new ArrayList<>());
+            }
+            for (Reservation r : getActiveReservationsEndingAfter(new ArrayList<>(roomIds),
+                    new Timestamp(System.currentTimeMillis()))) {
+                byRoom.get(r.getRoomId()).add(r);
+            }
+            for (Map.Entry<Integer, List<Reservation>> entry : byRoom.entrySet()) {
+                index.replaceRoom(entry.getKey(), entry.getValue());
+            }
+        } catch (SQLException e) {
+            System.err.println("刷新会议室预订索引失败: " + e.getMessage());
         }
     }
 
     /**
-     * 更新一个已有的预订。
-     * 
-     * @param reservation 包含更新信息的预订对象
-     * @return 如果更新成功，返回 true
-     * @throws SQLException 数据库访问异常
+     * 判断异常是否为可重试的事务冲突（死锁、锁等待超时、序列化失败）。
      */
-    public boolean updateReservation(Reservation reservation) throws SQLException {
-        if (hasConflict(reservation.getRoomId(), reservation.getStartTime(), reservation.getEndTime(),
-                reservation.getReservationId())) {
-            throw new SQLException("预订时间冲突！该时间段已被占用。");
+    private static boolean isRetryable(SQLException e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SQLTransactionRollbackException) {
+                return true;
+            }
+            if (t instanceof SQLException) {
+                SQLException sqlEx = (SQLException) t;
+                if ("40001".equals(sqlEx.getSQLState())
+                        || sqlEx.getErrorCode() == MYSQL_ER_LOCK_DEADLOCK
+                        || sqlEx.getErrorCode() == MYSQL_ER_LOCK_WAIT_TIMEOUT) {
+                    return true;
+                }
+            }
         }
-        String sql = "UPDATE Reservation SET subject = ?, description = ?, startTime = ?, endTime = ?, status = ? WHERE reservationId = ?";
-        try (Connection conn = UserDAO.getConnection();
-                PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, reservation.getSubject());
-            pstmt.setString(2, reservation.getDescription());
-            pstmt.setTimestamp(3, reservation.getStartTime());
-            pstmt.setTimestamp(4, reservation.getEndTime());
-            pstmt.setInt(5, reservation.getStatus());
-            pstmt.setInt(6, reservation.getReservationId());
-            int affectedRows = pstmt.executeUpdate();
-            return affectedRows > 0;
+        return false;
+    }
+
+    // 指数退避并加入随机抖动，避免重试的事务再次同时撞车
+    private static void backoff(int attempt) throws SQLException {
+        long delay = Math.min(BACKOFF_MAX_MILLIS, BACKOFF_BASE_MILLIS << attempt);
+        delay += java.util.concurrent.ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("预订重试时线程被中断", e);
         }
     }
 
     /**
-     * 根据用户ID获取该用户的所有预订记录
+     * 获取预订事务的运行统计，用于观察高并发时的吞吐量和重试情况。
+     */
+    public static BookingStatistics getBookingStatistics() {
+        return new BookingStatistics(BOOKING_ATTEMPTS.get(), BOOKING_COMMITS.get(), BOOKING_CONFLICTS.get(),
+                BOOKING_RETRIES.get(), BOOKING_NANOS.get());
+    }
+
+    /**
+     * 预订事务统计快照。
+     */
+    public static class BookingStatistics {
+        private final long attempts;
+        private final long commits;
+        private final long conflicts;
+        private final long retries;
+        private final long totalCommitNanos;
+
+        public BookingStatistics(long attempts, long commits, long conflicts, long retries, long totalCommitNanos) {
+            this.attempts = attempts;
+            this.commits = commits;
+            this.conflicts = conflicts;
+            this.retries = retries;
+            this.totalCommitNanos = totalCommitNanos;
+        }
+
+        public long getAttempts() {
+            return attempts;
+        }
+
+        public long getCommits() {
+            return commits;
+        }
+
+        public long getConflicts() {
+            return conflicts;
+        }
+
+        public long getRetries() {
+            return retries;
+        }
+
+        // 成功提交的事务平均耗时（毫秒），包含重试等待时间
+        public double getAverageCommitMillis() {
+            return commits == 0 ? 0 : totalCommitNanos / 1_000_000.0 / commits;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Booking{attempts=%d, commits=%d, conflicts=%d, retries=%d, avgCommit=%.2fms}",
+                    attempts, commits, conflicts, retries, getAverageCommitMillis());
+        }
+    }
+
+    /**
+     * 分页查询的排序方向。
+     */
+    public enum SortDirection {
+        ASCENDING, DESCENDING
+    }
+
+    /**
+     * 分页游标：上一页最后一条记录的 (startTime, reservationId)。
+     */
+    public static class ReservationCursor {
+        private final Timestamp startTime;
+        private final int reservationId;
+
+        public ReservationCursor(Timestamp startTime, int reservationId) {
+            this.startTime = startTime;
+            this.reservationId = reservationId;
+        }
+
+        public Timestamp getStartTime() {
+            return startTime;
+        }
+
+        public int getReservationId() {
+            return reservationId;
+        }
+    }
+
+    /**
+     * 一页预订记录。
+     */
+    public static class ReservationPage {
+        private final List<Reservation> reservations;
+        private final ReservationCursor nextCursor;
+        private final boolean hasMore;
+
+        public ReservationPage(List<Reservation> reservations, ReservationCursor nextCursor, boolean hasMore) {
+            this.reservations = reservations;
+            this.nextCursor = nextCursor;
+            this.hasMore = hasMore;
+        }
+
+        public List<Reservation> getReservations() {
+            return reservations;
+        }
+
+        /**
+         * 查询下一页时传入的游标；本页为空时为 null。
+         */
+        public ReservationCursor getNextCursor() {
+            return nextCursor;
+        }
+
+        public boolean hasMore() {
+            return hasMore;
+        }
+    }
+
+    /**
+     * 预订时间冲突。与死锁等可重试异常区分，冲突不会被重试。
+     */
+    public static class BookingConflictException extends SQLException {
+        public BookingConflictException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * 联合预订中有一项或多项冲突，整组都没有预订。
+     */
+    public static class GroupBookingConflictException extends BookingConflictException {
+        private final List<OccurrenceResult> results;
+
+        public GroupBookingConflictException(List<OccurrenceResult> results) {
+            super(MSG_CONFLICT);
+            this.results = results;
+        }
+
+        /**
+         * 每一项的检查结果，顺序与预订时传入的相同。
+         */
+        public List<OccurrenceResult> getResults() {
+            return results;
+        }
+    }
+
+    /**
+     * 重复预订的结果。
+     */
+    public static class SeriesBooking {
+        private final int seriesId;
+        private final List<OccurrenceResult> occurrences;
+        private final boolean booked;
+
+        public SeriesBooking(int seriesId, List<OccurrenceResult> occurrences, boolean booked) {
+            this.seriesId = seriesId;
+            this.occurrences = occurrences;
+            this.booked = booked;
+        }
+
+        /**
+         * 系列ID，系列表不可用或未预订时为 0。
+         */
+        public int getSeriesId() {
+            return seriesId;
+        }
+
+        /**
+         * 每一次的检查结果，按开始时间排序。
+         */
+        public List<OccurrenceResult> getOccurrences() {
+            return occurrences;
+        }
+
+        /**
+         * 是否已经预订（没有冲突的几次）。
+         */
+        public boolean isBooked() {
+            return booked;
+        }
+
+        public int getConflictCount() {
+            int conflicts = 0;
+            for (OccurrenceResult result : occurrences) {
+                if (result.isConflict()) {
+                    conflicts++;
+                }
+            }
+            return conflicts;
+        }
+    }
+
+    /**
+     * 重复预订中一次（或联合预订中一项）的检查结果。
+     */
+    public static class OccurrenceResult {
+        private final Reservation occurrence;
+        private final ReservationIntervalIndex.Interval conflict;
+
+        public OccurrenceResult(Reservation occurrence, ReservationIntervalIndex.Interval conflict) {
+            this.occurrence = occurrence;
+            this.conflict = conflict;
+        }
+
+        /**
+         * 这一次的预订；已预订时带有数据库生成的ID。
+         */
+        public Reservation getOccurrence() {
+            return occurrence;
+        }
+
+        /**
+         * 与之冲突的已有预订（或同一系列、同一组中较早的一项），没有冲突时为 null。
+         */
+        public ReservationIntervalIndex.Interval getConflict() {
+            return conflict;
+        }
+
+        public boolean isConflict() {
+            return conflict != null;
+        }
+    }
+
+    // 预订列表查询的公共部分：连接 MeetingRoom 和 RoomType 表，一次取回会议室信息
+    private static final String RESERVATION_WITH_ROOM_SELECT = "SELECT r.reservationId, r.userId, r.roomId, m.name AS roomName, r.subject, r.description, r.startTime, r.endTime, r.status, "
+            +
+            "m.capacity, m.location, m.description AS roomDescription, m.status AS roomStatus, m.roomTypeId, rt.typeCode "
+            +
+            "FROM Reservation r " +
+            "JOIN MeetingRoom m ON r.roomId = m.roomId " +
+            "LEFT JOIN RoomType rt ON m.roomTypeId = rt.roomTypeId ";
+
+    /**
+     * 根据用户ID获取该用户的所有预订记录。记录较多时应使用分页版本。
      * 
      * @param userId 用户ID
-     * @return 预订记录列表
+     * @return 预订记录列表（包含会议室信息），按开始时间倒序
      * @throws SQLException 数据库访问异常
      */
     public List<Reservation> getReservationsByUserId(int userId) throws SQLException {
         List<Reservation> reservations = new ArrayList<>();
-        // SQL 查询通过连接 Reservation 和 MeetingRoom 表来获取会议室名称
-        String sql = "SELECT r.reservationId, r.userId, r.roomId, m.name AS roomName, r.subject, r.description, r.startTime, r.endTime, r.status "
-                +
-                "FROM Reservation r " +
-                "JOIN MeetingRoom m ON r.roomId = m.roomId " +
+        String sql = RESERVATION_WITH_ROOM_SELECT +
                 "WHERE r.userId = ? " +
                 "ORDER BY r.startTime DESC";
 
@@ -135,24 +907,117 @@ public class ReservationDAO {
             pstmt.setInt(1, userId);
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
-                    int reservationId = rs.getInt("reservationId");
-                    int roomId = rs.getInt("roomId");
-                    String roomName = rs.getString("roomName");
-                    String subject = rs.getString("subject");
-                    String description = rs.getString("description");
-                    Timestamp startTime = rs.getTimestamp("startTime");
-                    Timestamp endTime = rs.getTimestamp("endTime");
-                    int status = rs.getInt("status");
-
-                    reservations.add(
-                            new Reservation(reservationId, userId, roomId, roomName, subject, description, startTime,
-                                    endTime, status));
+                    reservations.add(readReservationWithRoom(rs));
                 }
             }
         }
         return reservations;
     }
 
+    /**
+     * 分页获取用户的预订记录。按 (startTime, reservationId) 做键集分页，翻页代价与已翻过的页数无关。
+     * 
+     * @param userId    用户ID
+     * @param after     上一页返回的游标，查询第一页时为 null
+     * @param pageSize  每页条数
+     * @param direction 排序方向
+     * @return 一页预订记录（包含会议室信息）
+     * @throws SQLException 数据库访问异常
+     */
+    public ReservationPage getReservationsByUserId(int userId, ReservationCursor after, int pageSize,
+            SortDirection direction) throws SQLException {
+        return queryReservationPage("r.userId = ?", userId, after, pageSize, direction);
+    }
+
+    /**
+     * 分页获取会议室的预订记录，用法同 getReservationsByUserId(int, ReservationCursor, int, SortDirection)。
+     * 
+     * @param roomId    会议室ID
+     * @param after     上一页返回的游标，查询第一页时为 null
+     * @param pageSize  每页条数
+     * @param direction 排序方向
+     * @return 一页预订记录（包含会议室信息）
+     * @throws SQLException 数据库访问异常
+     */
+    public ReservationPage getReservationsByRoomId(int roomId, ReservationCursor after, int pageSize,
+            SortDirection direction) throws SQLException {
+        return queryReservationPage("r.roomId = ?", roomId, after, pageSize, direction);
+    }
+
+    private ReservationPage queryReservationPage(String ownerCondition, int ownerId, ReservationCursor after,
+            int pageSize, SortDirection direction) throws SQLException {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("pageSize must be positive");
+        }
+        boolean descending = direction == SortDirection.DESCENDING;
+        String cmp = descending ? "<" : ">";
+        String order = descending ? "DESC" : "ASC";
+        StringBuilder sql = new StringBuilder(RESERVATION_WITH_ROOM_SELECT).append("WHERE ").append(ownerCondition);
+        if (after != null) {
+            // 展开的行值比较，MySQL 可以用 (ownerId, startTime) 索引做范围扫描
+            sql.append(" AND (r.startTime ").append(cmp).append(" ? OR (r.startTime = ? AND r.reservationId ")
+                    .append(cmp).append(" ?))");
+        }
+        sql.append(" ORDER BY r.startTime ").append(order).append(", r.reservationId ").append(order)
+                .append(" LIMIT ?");
+
+        List<Reservation> reservations = new ArrayList<>();
+        try (Connection conn = UserDAO.getConnection();
+                PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+            int index = 1;
+            pstmt.setInt(index++, ownerId);
+            if (after != null) {
+                pstmt.setTimestamp(index++, after.getStartTime());
+                pstmt.setTimestamp(index++, after.getStartTime());
+                pstmt.setInt(index++, after.getReservationId());
+            }
+            // 多取一条用于判断是否还有下一页
+            pstmt.setInt(index, pageSize + 1);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    reservations.add(readReservationWithRoom(rs));
+                }
+            }
+        }
+
+        boolean hasMore = reservations.size() > pageSize;
+        if (hasMore) {
+            reservations.remove(reservations.size() - 1);
+        }
+        ReservationCursor next = null;
+        if (!reservations.isEmpty()) {
+            Reservation last = reservations.get(reservations.size() - 1);
+            next = new ReservationCursor(last.getStartTime(), last.getReservationId());
+        }
+        return new ReservationPage(reservations, next, hasMore);
+    }
+
+    // 读取带会议室信息的预订记录，结果集需包含 RESERVATION_WITH_ROOM_SELECT 中的全部列
+    private static Reservation readReservationWithRoom(ResultSet rs) throws SQLException {
+        int roomId = rs.getInt("roomId");
+        String roomName = rs.getString("roomName");
+        Reservation reservation = new Reservation(
+                rs.getInt("reservationId"),
+                rs.getInt("userId"),
+                roomId,
+                roomName,
+                rs.getString("subject"),
+                rs.getString("description"),
+                rs.getTimestamp("startTime"),
+                rs.getTimestamp("endTime"),
+                rs.getInt("status"));
+        reservation.setRoom(new MeetingRoom(
+                roomId,
+                roomName,
+                rs.getInt("capacity"),
+                rs.getString("location"),
+                rs.getString("roomDescription"),
+                rs.getInt("roomStatus"),
+                rs.getInt("roomTypeId"),
+                rs.getString("typeCode")));
+        return reservation;
+    }
+
     /**
      * 更新预订状态（例如，取消预订）
      * 
@@ -163,28 +1028,65 @@ public class ReservationDAO {
      */
     public boolean updateReservationStatus(int reservationId, int newStatus) throws SQLException {
         String sql = "UPDATE Reservation SET status = ? WHERE reservationId = ?";
-        try (Connection conn = UserDAO.getConnection();
-                PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, newStatus);
-            pstmt.setInt(2, reservationId);
-            int affectedRows = pstmt.executeUpdate();
-            return affectedRows > 0;
+        int affectedRows;
+        try (Connection conn = UserDAO.getConnection()) {
+            // 状态更新和变更日志在同一事务中提交
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setInt(1, newStatus);
+                pstmt.setInt(2, reservationId);
+                affectedRows = pstmt.executeUpdate();
+            }
+            if (affectedRows > 0 && ChangeLogDAO.isAvailable()) {
+                ChangeLogDAO.record(conn, ChangeLogDAO.ENTITY_RESERVATION, reservationId, ChangeLogDAO.OP_UPDATE,
+                        getRoomIdOfReservation(conn, reservationId));
+            }
+            conn.commit();
+        }
+        if (affectedRows > 0) {
+            onStatusChanged(reservationId, newStatus);
+        }
+        return affectedRows > 0;
+    }
+
+    private static Integer getRoomIdOfReservation(Connection conn, int reservationId) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT roomId FROM Reservation WHERE reservationId = ?")) {
+            pstmt.setInt(1, reservationId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : null;
+            }
+        }
+    }
+
+    // 预订状态变化后同步本地索引和每日计数
+    private void onStatusChanged(int reservationId, int newStatus) {
+        MeetingRoomDAO.invalidateDashboardSnapshot();
+        DailyBookingCounter counter = DailyBookingCounter.getShared();
+        if (newStatus != Reservation.STATUS_CANCELLED) {
+            // 其他状态之间的变化不影响计数，但可能是恢复已取消的预订，保守起见清空计数
+            counter.invalidateAll();
+            return;
+        }
+        ReservationIntervalIndex index = ReservationIntervalIndex.getShared();
+        ReservationIntervalIndex.Interval previous = index.getInterval(reservationId);
+        index.remove(reservationId);
+        if (previous != null) {
+            counter.adjust(toLocalDate(previous.getStart()), -1);
+        } else {
+            counter.invalidateAll();
         }
     }
 
     /**
-     * 根据会议室ID获取该会议室的所有预订记录
+     * 根据会议室ID获取该会议室的所有预订记录。记录较多时应使用分页版本。
      * 
      * @param roomId 会议室ID
-     * @return 预订记录列表
+     * @return 预订记录列表（包含会议室信息），按开始时间升序
      * @throws SQLException 数据库访问异常
      */
     public List<Reservation> getReservationsByRoomId(int roomId) throws SQLException {
         List<Reservation> reservations = new ArrayList<>();
-        String sql = "SELECT r.reservationId, r.userId, r.roomId, m.name AS roomName, r.subject, r.description, r.startTime, r.endTime, r.status "
-                +
-                "FROM Reservation r " +
-                "JOIN MeetingRoom m ON r.roomId = m.roomId " +
+        String sql = RESERVATION_WITH_ROOM_SELECT +
                 "WHERE r.roomId = ? " +
                 "ORDER BY r.startTime ASC";
         try (Connection conn = UserDAO.getConnection();
@@ -192,20 +1094,224 @@ public class ReservationDAO {
             pstmt.setInt(1, roomId);
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
-                    int reservationId = rs.getInt("reservationId");
-                    int userId = rs.getInt("userId");
-                    String roomName = rs.getString("roomName");
-                    String subject = rs.getString("subject");
-                    String description = rs.getString("description");
-                    Timestamp startTime = rs.getTimestamp("startTime");
-                    Timestamp endTime = rs.getTimestamp("endTime");
-                    int status = rs.getInt("status");
-                    reservations.add(new Reservation(reservationId, userId, roomId, roomName, subject, description,
-                            startTime, endTime, status));
+                    reservations.add(readReservationWithRoom(rs));
                 }
             }
         }
         return reservations;
     }
 
-}
\ No newline at end of file
+    /**
+     * 获取所有在指定时间之后才结束的有效（未取消）预订，用于预热内存索引。
+     * 
+     * @param after 时间点
+     * @return 预订记录列表（不含会议室名称）
+     * @throws SQLException 数据库访问异常
+     */
+    public List<Reservation> getActiveReservationsEndingAfter(Timestamp after) throws SQLException {
+        String sql = "SELECT reservationId, userId, roomId, subject, description, startTime, endTime, status " +
+                "FROM Reservation WHERE status != ? AND endTime > ?";
+        try (Connection conn = UserDAO.getConnection();
+                PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, Reservation.STATUS_CANCELLED);
+            pstmt.setTimestamp(2, after);
+            return readReservationsWithoutRoomName(pstmt);
+        }
+    }
+
+    /**
+     * 获取所有会议室中与 [from, to] 重叠的已确认预订，按会议室和开始时间排序。
+     * 与会议室状态查询使用同样的判断条件（status 为已确认，时间包含两端）。
+     * 
+     * @param from 开始时间
+     * @param to   结束时间
+     * @return 预订记录列表（不含会议室名称）
+     * @throws SQLException 数据库访问异常
+     */
+    public List<Reservation> getConfirmedReservationsOverlapping(Timestamp from, Timestamp to) throws SQLException {
+        String sql = "SELECT reservationId, userId, roomId, subject, description, startTime, endTime, status " +
+                "FROM Reservation WHERE status = ? AND startTime <= ? AND endTime >= ? " +
+                "ORDER BY roomId, startTime, reservationId";
+        try (Connection conn = UserDAO.getConnection();
+                PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, Reservation.STATUS_CONFIRMED);
+            pstmt.setTimestamp(2, to);
+            pstmt.setTimestamp(3, from);
+            return readReservationsWithoutRoomName(pstmt);
+        }
+    }
+
+    /**
+     * 获取指定会议室中与 [from, to] 重叠的已确认预订，按会议室和开始时间排序，判断条件与上一个方法相同。
+     * 
+     * @param roomIds 会议室ID
+     * @param from    开始时间
+     * @param to      结束时间
+     * @return 预订记录列表（不含会议室名称）
+     * @throws SQLException 数据库访问异常
+     */
+    public List<Reservation> getConfirmedReservationsOverlapping(List<Integer> roomIds, Timestamp from, Timestamp to)
+            throws SQLException {
+        String placeholders = String.join(", ", Collections.nCopies(roomIds.size(), "?"));
+        String sql = "SELECT reservationId, userId, roomId, subject, description, startTime, endTime, status " +
+                "FROM Reservation WHERE roomId IN (" + placeholders + ") AND status = ? AND startTime <= ? AND endTime >= ? " +
+                "ORDER BY roomId, startTime, reservationId";
+        try (Connection conn = UserDAO.getConnection();
+                PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            int i = 1;
+            for (int roomId : roomIds) {
+                pstmt.setInt(i++, roomId);
+            }
+            pstmt.setInt(i++, Reservation.STATUS_CONFIRMED);
+            pstmt.setTimestamp(i++, to);
+            pstmt.setTimestamp(i, from);
+            return readReservationsWithoutRoomName(pstmt);
+        }
+    }
+
+    /**
+     * 获取指定会议室中与 [from, to) 重叠的未取消预订，判断条件与冲突检查一致。
+     * 会议室较多时分批查询，每批最多 ROOM_ID_BATCH_SIZE 个会议室。
+     * 
+     * @param roomIds 会议室ID
+     * @param from    开始时间（包含）
+     * @param to      结束时间（不包含）
+     * @return 预订记录列表（不含会议室名称）
+     * @throws SQLException 数据库访问异常
+     */
+    public List<Reservation> getActiveReservationsOverlapping(List<Integer> roomIds, Timestamp from, Timestamp to)
+            throws SQLException {
+        List<Reservation> reservations = new ArrayList<>();
+        try (Connection conn = UserDAO.getConnection()) {
+            for (int i = 0; i < roomIds.size(); i += ROOM_ID_BATCH_SIZE) {
+                reservations.addAll(getActiveReservationsOverlapping(conn,
+                        roomIds.subList(i, Math.min(roomIds.size(), i + ROOM_ID_BATCH_SIZE)), from, to));
+            }
+        }
+        return reservations;
+    }
+
+    /**
+     * 获取在 [from, to) 内有未取消预订的会议室ID，判断条件与冲突检查一致。
+     * 
+     * @param from 开始时间（包含）
+     * @param to   结束时间（不包含）
+     * @return 被占用的会议室ID
+     * @throws SQLException 数据库访问异常
+     */
+    public Set<Integer> getBusyRoomIds(Timestamp from, Timestamp to) throws SQLException {
+        Set<Integer> roomIds = new HashSet<>();
+        String sql = "SELECT DISTINCT roomId FROM Reservation WHERE status != ? AND startTime < ? AND endTime > ?";
+        try (Connection conn = UserDAO.getConnection();
+                PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, Reservation.STATUS_CANCELLED);
+            pstmt.setTimestamp(2, to);
+            pstmt.setTimestamp(3, from);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    roomIds.add(rs.getInt("roomId"));
+                }
+            }
+        }
+        return roomIds;
+    }
+
+    /**
+     * 获取指定会议室在指定时间之后才结束的有效（未取消）预订。
+     * 
+     * @param roomId 会议室ID
+     * @param after  时间点
+     * @return 预订记录列表（不含会议室名称）
+     * @throws SQLException 数据库访问异常
+     */
+    public List<Reservation> getActiveReservationsEndingAfter(int roomId, Timestamp after) throws SQLException {
+        String sql = "SELECT reservationId, userId, roomId, subject, description, startTime, endTime, status " +
+                "FROM Reservation WHERE roomId = ? AND status != ? AND endTime > ?";
+        try (Connection conn = UserDAO.getConnection();
+                PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, roomId);
+            pstmt.setInt(2, Reservation.STATUS_CANCELLED);
+            pstmt.setTimestamp(3, after);
+            return readReservationsWithoutRoomName(pstmt);
+        }
+    }
+
+    /**
+     * 获取多个会议室在指定时间之后才结束的有效（未取消）预订。
+     * 
+     * @param roomIds 会议室ID
+     * @param after   时间点
+     * @return 预订记录列表（不含会议室名称）
+     * @throws SQLException 数据库访问异常
+     */
+    public List<Reservation> getActiveReservationsEndingAfter(List<Integer> roomIds, Timestamp after)
+            throws SQLException {
+        String placeholders = String.join(", ", Collections.nCopies(roomIds.size(), "?"));
+        String sql = "SELECT reservationId, userId, roomId, subject, description, startTime, endTime, status " +
+                "FROM Reservation WHERE roomId IN (" + placeholders + ") AND status != ? AND endTime > ?";
+        try (Connection conn = UserDAO.getConnection();
+                PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            int i = 1;
+            for (int roomId : roomIds) {
+                pstmt.setInt(i++, roomId);
+            }
+            pstmt.setInt(i++, Reservation.STATUS_CANCELLED);
+            pstmt.setTimestamp(i, after);
+            return readReservationsWithoutRoomName(pstmt);
+        }
+    }
+
+    /**
+     * 获取指定会议室在 [from, to) 时间窗口内被占用的时间段，即与窗口重叠的未取消预订，按开始时间排序。
+     * 结果条数受 limit 限制；返回条数等于 limit 时，以最后一条的 (startTime, reservationId) 作为 after 继续查询下一页。
+     * 
+     * @param roomId 会议室ID
+     * @param from   窗口开始时间（包含）
+     * @param to     窗口结束时间（不包含）
+     * @param after  上一页最后一条记录的游标，查询第一页时为 null
+     * @param limit  最多返回的条数
+     * @return 预订记录列表（不含会议室名称）
+     * @throws SQLException 数据库访问异常
+     */
+    public List<Reservation> getOccupiedReservations(int roomId, Timestamp from, Timestamp to,
+            ReservationCursor after, int limit) throws SQLException {
+        String sql = "SELECT reservationId, userId, roomId, subject, description, startTime, endTime, status " +
+                "FROM Reservation WHERE roomId = ? AND status != ? AND startTime < ? AND endTime > ? " +
+                (after != null ? "AND (startTime > ? OR (startTime = ? AND reservationId > ?)) " : "") +
+                "ORDER BY startTime ASC, reservationId ASC LIMIT ?";
+        try (Connection conn = UserDAO.getConnection();
+                PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            int i = 1;
+            pstmt.setInt(i++, roomId);
+            pstmt.setInt(i++, Reservation.STATUS_CANCELLED);
+            pstmt.setTimestamp(i++, to);
+            pstmt.setTimestamp(i++, from);
+            if (after != null) {
+                pstmt.setTimestamp(i++, after.getStartTime());
+                pstmt.setTimestamp(i++, after.getStartTime());
+                pstmt.setInt(i++, after.getReservationId());
+            }
+            pstmt.setInt(i, limit);
+            return readReservationsWithoutRoomName(pstmt);
+        }
+    }
+
+    private List<Reservation> readReservationsWithoutRoomName(PreparedStatement pstmt) throws SQLException {
+        List<Reservation> reservations = new ArrayList<>();
+        try (ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                reservations.add(new Reservation(
+                        rs.getInt("reservationId"),
+                        rs.getInt("userId"),
+                        rs.getInt("roomId"),
+                        null,
+                        rs.getString("subject"),
+                        rs.getString("description"),
+                        rs.getTimestamp("startTime"),
+                        rs.getTimestamp("endTime"),
+                        rs.getInt("status")));
+            }
+        }
+        return reservations;
+    }
+}
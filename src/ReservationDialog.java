@@ -5,6 +5,8 @@ import java.awt.*;
 import java.sql.Timestamp;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.function.Consumer;
 import java.util.List;
 import java.util.ArrayList;
@@ -22,6 +24,8 @@ public class ReservationDialog extends JDialog {
     private final User currentUser;
     private final MeetingRoom room;
     private Reservation currentReservation; // null for new reservation
+    private final Timestamp initialStart; // 新建预订时预先填入的时间，可以为 null
+    private final Timestamp initialEnd;
 
     private JTextField subjectField;
     private JTextArea descriptionArea;
@@ -29,16 +33,56 @@ public class ReservationDialog extends JDialog {
     private JSpinner startTimeSpinner;
     private JSpinner endDateSpinner;
     private JSpinner endTimeSpinner;
+    private JComboBox<String> repeatComboBox; // 仅新建预订时显示
+    private JSpinner repeatCountSpinner;
+    private JButton saveButton;
+    private JButton cancelButton;
     private boolean saved = false;
 
+    // 本对话框的数据库任务，关闭对话框时一起取消
+    private final DaoExecutor.TaskGroup tasks = DaoExecutor.getShared().newTaskGroup();
+
+    // 重复选项，与 RecurrenceRule 的频率一一对应
+    private static final String[] REPEAT_OPTIONS = { "不重复", "每天", "每周", "每月" };
+    private static final int[] REPEAT_FREQUENCIES = { 0, RecurrenceRule.FREQUENCY_DAILY,
+            RecurrenceRule.FREQUENCY_WEEKLY, RecurrenceRule.FREQUENCY_MONTHLY };
+
+    // 已被占用时间段的默认查询窗口（天）和每页条数
+    private static final int OCCUPIED_WINDOW_DAYS = 14;
+    private static final int OCCUPIED_PAGE_SIZE = 50;
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+
     private List<Reservation> occupiedReservations = new ArrayList<>(); // 新增：存储已被占用的时间段
+    private final Set<Integer> shownReservationIds = new HashSet<>();
+    private JLabel occupiedLabel;
+    private JTextArea occupiedArea;
+    private JButton loadMoreButton;
+    private Timestamp occupiedFrom; // 当前查询窗口的开始时间
+    private Timestamp occupiedWindowEnd; // 当前查询窗口的结束时间
+    private ReservationDAO.ReservationCursor occupiedCursor; // 当前窗口内上一页的最后一条，第一页时为 null
+    private boolean occupiedWindowExhausted = false; // 当前窗口是否已全部加载
 
     public ReservationDialog(Frame owner, User currentUser, MeetingRoom room, Reservation reservation,
             Consumer<Boolean> onSaveCallback) {
+        this(owner, currentUser, room, reservation, null, null, onSaveCallback);
+    }
+
+    /**
+     * 新建预订，并预先填入开始和结束时间（例如从空闲会议室查找结果打开）。
+     */
+    public ReservationDialog(Frame owner, User currentUser, MeetingRoom room, Timestamp initialStart,
+            Timestamp initialEnd, Consumer<Boolean> onSaveCallback) {
+        this(owner, currentUser, room, null, initialStart, initialEnd, onSaveCallback);
+    }
+
+    private ReservationDialog(Frame owner, User currentUser, MeetingRoom room, Reservation reservation,
+            Timestamp initialStart, Timestamp initialEnd, Consumer<Boolean> onSaveCallback) {
         super(owner, true);
         this.currentUser = currentUser;
         this.room = room;
         this.currentReservation = reservation;
+        this.initialStart = initialStart;
+        this.initialEnd = initialEnd;
         this.reservationDAO = new ReservationDAO();
         this.onSaveCallback = onSaveCallback;
 
@@ -60,11 +104,17 @@ public class ReservationDialog extends JDialog {
         roomInfoLabel.setFont(new Font("微软雅黑", Font.PLAIN, 14));
         add(roomInfoLabel, "span 4, center, wrap, gapbottom 15");
 
-        // 新增：显示已被占用的时间段
-        JLabel occupiedLabel = new JLabel("已被占用的时间段：");
+        // 新增：显示已被占用的时间段（默认只加载未来若干天，可继续加载）
+        occupiedLabel = new JLabel();
         occupiedLabel.setFont(new Font("微软雅黑", Font.BOLD, 14));
-        add(occupiedLabel, "span 4, left, wrap, gapbottom 5");
-        JTextArea occupiedArea = new JTextArea();
+        add(occupiedLabel, "span 3, left, gapbottom 5");
+        loadMoreButton = new JButton("加载更多");
+        loadMoreButton.setFont(new Font("微软雅黑", Font.PLAIN, 12));
+        loadMoreButton.setFocusPainted(false);
+        loadMoreButton.setEnabled(false);
+        loadMoreButton.addActionListener(e -> loadOccupiedReservations());
+        add(loadMoreButton, "right, wrap, gapbottom 5");
+        occupiedArea = new JTextArea();
         occupiedArea.setEditable(false);
         occupiedArea.setFont(new Font("微软雅黑", Font.PLAIN, 13));
         occupiedArea.setBackground(getBackground());
@@ -127,19 +177,36 @@ public class ReservationDialog extends JDialog {
         add(endDateSpinner, "growx");
         add(endTimeSpinner, "span 2, growx, wrap, gaptop 5, gapbottom 15");
 
+        if (currentReservation == null) {
+            repeatComboBox = new JComboBox<>(REPEAT_OPTIONS);
+            repeatComboBox.setFont(new Font("微软雅黑", Font.PLAIN, 14));
+            repeatCountSpinner = new JSpinner(new SpinnerNumberModel(4, 2, 52, 1));
+            repeatCountSpinner.setFont(new Font("微软雅黑", Font.PLAIN, 14));
+            repeatCountSpinner.setEnabled(false);
+            repeatComboBox.addActionListener(e -> repeatCountSpinner.setEnabled(repeatComboBox.getSelectedIndex() > 0));
+            JLabel repeatLabel = new JLabel("重复:");
+            repeatLabel.setFont(new Font("微软雅黑", Font.PLAIN, 14));
+            JLabel countLabel = new JLabel("共（次）:");
+            countLabel.setFont(new Font("微软雅黑", Font.PLAIN, 14));
+            add(repeatLabel);
+            add(repeatComboBox, "growx");
+            add(countLabel, "right");
+            add(repeatCountSpinner, "growx, wrap, gaptop 5, gapbottom 15");
+        }
+
         JLabel descLabel = new JLabel("会议描述:");
         descLabel.setFont(new Font("微软雅黑", Font.PLAIN, 14));
         add(descLabel, "top, gaptop 5");
         add(new JScrollPane(descriptionArea), "span 3, grow, gaptop 5, gapbottom 20");
 
         // Buttons with better styling
-        JButton saveButton = new JButton("保存预订");
+        saveButton = new JButton("保存预订");
         saveButton.setFont(new Font("微软雅黑", Font.BOLD, 14));
         saveButton.setPreferredSize(new Dimension(100, 35));
         saveButton.setFocusPainted(false);
         saveButton.addActionListener(e -> saveReservation());
 
-        JButton cancelButton = new JButton("取消");
+        cancelButton = new JButton("取消");
         cancelButton.setFont(new Font("微软雅黑", Font.BOLD, 14));
         cancelButton.setPreferredSize(new Dimension(100, 35));
         cancelButton.setFocusPainted(false);
@@ -151,35 +218,56 @@ public class ReservationDialog extends JDialog {
         buttonPanel.add(cancelButton);
         add(buttonPanel, "span 4, center, gaptop 10");
 
+        // 关闭窗口时释放对话框，以便取消未完成的查询
+        setDefaultCloseOperation(DISPOSE_ON_CLOSE);
         pack();
         setMinimumSize(new Dimension(600, 450));
         setResizable(true);
         setLocationRelativeTo(getOwner());
 
         // 异步加载已被占用的时间段
-        new SwingWorker<List<Reservation>, Void>() {
-            @Override
-            protected List<Reservation> doInBackground() throws Exception {
-                // 只查找当前会议室，且是未来的、未取消的预约
-                List<Reservation> all = reservationDAO.getReservationsByRoomId(room.getRoomId());
-                List<Reservation> filtered = new ArrayList<>();
-                long now = System.currentTimeMillis();
-                for (Reservation r : all) {
-                    if (r.getStatus() != Reservation.STATUS_CANCELLED && r.getEndTime().getTime() > now) {
-                        // 排除当前正在编辑的预约
-                        if (currentReservation == null
-                                || r.getReservationId() != currentReservation.getReservationId()) {
-                            filtered.add(r);
+        long now = System.currentTimeMillis();
+        occupiedFrom = new Timestamp(now);
+        occupiedWindowEnd = new Timestamp(now + OCCUPIED_WINDOW_DAYS * DAY_MILLIS);
+        updateOccupiedLabel();
+        loadOccupiedReservations();
+    }
+
+    /**
+     * 加载下一页已被占用的时间段。当前窗口内已全部加载时，先把窗口向后延长 OCCUPIED_WINDOW_DAYS 天。
+     */
+    private void loadOccupiedReservations() {
+        if (occupiedWindowExhausted) {
+            occupiedFrom = occupiedWindowEnd;
+            occupiedWindowEnd = new Timestamp(occupiedWindowEnd.getTime() + OCCUPIED_WINDOW_DAYS * DAY_MILLIS);
+            occupiedCursor = null;
+            occupiedWindowExhausted = false;
+            updateOccupiedLabel();
+        }
+        Timestamp from = occupiedFrom;
+        Timestamp to = occupiedWindowEnd;
+        ReservationDAO.ReservationCursor cursor = occupiedCursor;
+        loadMoreButton.setEnabled(false);
+        // 只查询当前会议室在窗口内未取消的预约，由数据库完成过滤
+        tasks.run(() -> reservationDAO.getOccupiedReservations(room.getRoomId(), from, to, cursor,
+                OCCUPIED_PAGE_SIZE), page -> {
+                    if (page.size() < OCCUPIED_PAGE_SIZE) {
+                        occupiedWindowExhausted = true;
+                    } else {
+                        Reservation last = page.get(page.size() - 1);
+                        occupiedCursor = new ReservationDAO.ReservationCursor(last.getStartTime(),
+                                last.getReservationId());
+                    }
+                    for (Reservation r : page) {
+                        // 排除当前正在编辑的预约，以及跨越窗口边界、已经显示过的预约
+                        if (currentReservation != null
+                                && r.getReservationId() == currentReservation.getReservationId()) {
+                            continue;
+                        }
+                        if (shownReservationIds.add(r.getReservationId())) {
+                            occupiedReservations.add(r);
                         }
                     }
-                }
-                return filtered;
-            }
-
-            @Override
-            protected void done() {
-                try {
-                    occupiedReservations = get();
                     if (occupiedReservations.isEmpty()) {
                         occupiedArea.setText("无");
                     } else {
@@ -192,11 +280,16 @@ public class ReservationDialog extends JDialog {
                         }
                         occupiedArea.setText(sb.toString());
                     }
-                } catch (Exception e) {
+                    loadMoreButton.setEnabled(true);
+                }, e -> {
                     occupiedArea.setText("加载失败");
-                }
-            }
-        }.execute();
+                    loadMoreButton.setEnabled(true);
+                });
+    }
+
+    private void updateOccupiedLabel() {
+        java.text.SimpleDateFormat sdf = new java.text.SimpleDateFormat("yyyy-MM-dd");
+        occupiedLabel.setText("已被占用的时间段（截至 " + sdf.format(occupiedWindowEnd) + "）：");
     }
 
     private void populateData() {
@@ -209,6 +302,13 @@ public class ReservationDialog extends JDialog {
             startTimeSpinner.setValue(start);
             endDateSpinner.setValue(end);
             endTimeSpinner.setValue(end);
+        } else if (initialStart != null && initialEnd != null) {
+            Date start = new Date(initialStart.getTime());
+            Date end = new Date(initialEnd.getTime());
+            startDateSpinner.setValue(start);
+            startTimeSpinner.setValue(start);
+            endDateSpinner.setValue(end);
+            endTimeSpinner.setValue(end);
         } else {
             // Default for new reservation: start from next hour, duration 1 hour
             Calendar cal = Calendar.getInstance();
@@ -270,38 +370,114 @@ public class ReservationDialog extends JDialog {
                     currentReservation.getStatus());
         }
 
-        // Use SwingWorker for database operation
-        new SwingWorker<Boolean, Void>() {
-            @Override
-            protected Boolean doInBackground() throws Exception {
-                if (reservationToSave.getReservationId() == 0) { // New
-                    return reservationDAO.createReservation(reservationToSave);
-                } else { // Update
-                    return reservationDAO.updateReservation(reservationToSave);
-                }
+        if (repeatComboBox != null && repeatComboBox.getSelectedIndex() > 0) {
+            RecurrenceRule rule = new RecurrenceRule(REPEAT_FREQUENCIES[repeatComboBox.getSelectedIndex()], 1, null,
+                    (Integer) repeatCountSpinner.getValue(), null);
+            saveRecurringReservation(reservationToSave, rule, false);
+            return;
+        }
+
+        setSaving(true);
+        tasks.run(() -> {
+            if (reservationToSave.getReservationId() == 0) { // New
+                return reservationDAO.createReservation(reservationToSave);
+            } else { // Update
+                return reservationDAO.updateReservation(reservationToSave);
             }
+        }, success -> {
+            setSaving(false);
+            if (success) {
+                saved = true;
+                JOptionPane.showMessageDialog(ReservationDialog.this, "预订保存成功！", "成功",
+                        JOptionPane.INFORMATION_MESSAGE);
+                dispose();
+            }
+            if (onSaveCallback != null) {
+                onSaveCallback.accept(saved);
+            }
+        }, e -> {
+            setSaving(false);
+            JOptionPane.showMessageDialog(ReservationDialog.this, "保存失败: " + e.getMessage(), "数据库错误",
+                    JOptionPane.ERROR_MESSAGE);
+            if (onSaveCallback != null) {
+                onSaveCallback.accept(saved);
+            }
+        });
+    }
 
-            @Override
-            protected void done() {
-                try {
-                    boolean success = get();
-                    if (success) {
-                        saved = true;
-                        JOptionPane.showMessageDialog(ReservationDialog.this, "预订保存成功！", "成功",
-                                JOptionPane.INFORMATION_MESSAGE);
-                        dispose();
-                    }
-                } catch (Exception e) {
-                    Throwable cause = e.getCause();
-                    String errorMessage = cause != null ? cause.getMessage() : e.getMessage();
-                    JOptionPane.showMessageDialog(ReservationDialog.this, "保存失败: " + errorMessage, "数据库错误",
-                            JOptionPane.ERROR_MESSAGE);
-                } finally {
-                    if (onSaveCallback != null) {
-                        onSaveCallback.accept(saved);
-                    }
+    /**
+     * 保存重复预订。有冲突时列出冲突的几次，由用户决定是否跳过它们、预订其余的。
+     */
+    private void saveRecurringReservation(Reservation template, RecurrenceRule rule, boolean skipConflicts) {
+        setSaving(true);
+        tasks.run(() -> reservationDAO.createRecurringReservation(template, rule, skipConflicts), booking -> {
+            setSaving(false);
+            int total = booking.getOccurrences().size();
+            int conflicts = booking.getConflictCount();
+            if (booking.isBooked()) {
+                saved = true;
+                String message = conflicts == 0 ? "已预订全部 " + total + " 次。"
+                        : "已预订 " + (total - conflicts) + " 次，跳过冲突的 " + conflicts + " 次。";
+                JOptionPane.showMessageDialog(ReservationDialog.this, message, "成功",
+                        JOptionPane.INFORMATION_MESSAGE);
+                if (onSaveCallback != null) {
+                    onSaveCallback.accept(true);
                 }
+                dispose();
+                return;
             }
-        }.execute();
+            if (conflicts == total) {
+                JOptionPane.showMessageDialog(ReservationDialog.this, "所有 " + total + " 次都与已有预订冲突。",
+                        "输入错误", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            int choice = JOptionPane.showConfirmDialog(ReservationDialog.this,
+                    describeConflicts(booking) + "\n是否跳过这 " + conflicts + " 次，预订其余 " + (total - conflicts)
+                            + " 次？",
+                    "部分时间冲突", JOptionPane.YES_NO_OPTION, JOptionPane.WARNING_MESSAGE);
+            if (choice == JOptionPane.YES_OPTION) {
+                saveRecurringReservation(template, rule, true);
+            }
+        }, e -> {
+            setSaving(false);
+            JOptionPane.showMessageDialog(ReservationDialog.this, "保存失败: " + e.getMessage(), "数据库错误",
+                    JOptionPane.ERROR_MESSAGE);
+        });
+    }
+
+    /**
+     * 保存期间禁用按钮和关闭窗口，避免关闭对话框时取消已经提交到一半的保存。
+     */
+    private void setSaving(boolean saving) {
+        saveButton.setEnabled(!saving);
+        cancelButton.setEnabled(!saving);
+        setDefaultCloseOperation(saving ? DO_NOTHING_ON_CLOSE : DISPOSE_ON_CLOSE);
+    }
+
+    @Override
+    public void dispose() {
+        tasks.cancelAll();
+        super.dispose();
+    }
+
+    // 列出冲突的几次（最多 10 条）
+    private static String describeConflicts(ReservationDAO.SeriesBooking booking) {
+        java.text.SimpleDateFormat sdf = new java.text.SimpleDateFormat("yyyy-MM-dd HH:mm");
+        StringBuilder sb = new StringBuilder("以下时间已被占用：\n");
+        int listed = 0;
+        for (ReservationDAO.OccurrenceResult result : booking.getOccurrences()) {
+            if (!result.isConflict()) {
+                continue;
+            }
+            if (listed == 10) {
+                sb.append("……\n");
+                break;
+            }
+            ReservationIntervalIndex.Interval conflict = result.getConflict();
+            sb.append(sdf.format(result.getOccurrence().getStartTime())).append("  与「")
+                    .append(conflict.getSubject() != null ? conflict.getSubject() : "已有预订").append("」冲突\n");
+            listed++;
+        }
+        return sb.toString();
     }
 }
\ No newline at end of file
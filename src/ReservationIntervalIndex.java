@@ -0,0 +1,436 @@
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 按会议室组织的预订时间区间索引（内存）。
+ * 每个会议室保存一个按开始时间排序的有效预订集合，冲突检测只需 O(log n) 的查找，不需要访问数据库。
+ * <p>
+ * 索引只包含未取消、且在预热时尚未结束的预订；早于预热时间点的查询无法由索引回答，
+ * 需要回退到数据库查询。数据库中的冲突检查仍然是最终的权威判断。
+ */
+public class ReservationIntervalIndex {
+
+    private static final ReservationIntervalIndex SHARED = new ReservationIntervalIndex();
+
+    // 按开始时间排序，开始时间相同时按预订ID区分
+    private static final Comparator<Interval> ORDER = Comparator.comparingLong((Interval i) -> i.start)
+            .thenComparingInt(i -> i.reservationId);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<Integer, RoomIntervals> rooms = new HashMap<>();
+    private Map<Integer, Interval> byReservationId = new HashMap<>();
+    // 预热时间点，索引不保证覆盖在此之前结束的预订
+    private long horizon = Long.MAX_VALUE;
+    private volatile boolean warm = false;
+    // 预热期间发生的变更，在新数据装载后重放，避免丢失
+    private List<Runnable> pendingDuringWarmUp;
+
+    /**
+     * 获取全局共享的索引实例。
+     */
+    public static ReservationIntervalIndex getShared() {
+        return SHARED;
+    }
+
+    /**
+     * 从数据库加载所有尚未结束的有效预订，重建索引。
+     *
+     * @throws SQLException 数据库访问异常
+     */
+    public void warmUp() throws SQLException {
+        lock.writeLock().lock();
+        try {
+            pendingDuringWarmUp = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        long loadStart = System.currentTimeMillis();
+        List<Reservation> reservations;
+        try {
+            reservations = new ReservationDAO().getActiveReservationsEndingAfter(new Timestamp(loadStart));
+        } catch (SQLException e) {
+            lock.writeLock().lock();
+            try {
+                pendingDuringWarmUp = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+        load(reservations, loadStart);
+    }
+
+    /**
+     * 用给定的预订列表重建索引。
+     *
+     * @param reservations 有效预订
+     * @param horizon      索引覆盖的起始时间点（毫秒）
+     */
+    public void load(List<Reservation> reservations, long horizon) {
+        Map<Integer, RoomIntervals> newRooms = new HashMap<>();
+        Map<Integer, Interval> newById = new HashMap<>();
+        for (Reservation r : reservations) {
+            if (r.getStatus() == Reservation.STATUS_CANCELLED) {
+                continue;
+            }
+            Interval interval = new Interval(r);
+            newRooms.computeIfAbsent(r.getRoomId(), id -> new RoomIntervals()).add(interval);
+            newById.put(interval.reservationId, interval);
+        }
+
+        lock.writeLock().lock();
+        try {
+            rooms = newRooms;
+            byReservationId = newById;
+            this.horizon = horizon;
+            warm = true;
+            if (pendingDuringWarmUp != null) {
+                List<Runnable> pending = pendingDuringWarmUp;
+                pendingDuringWarmUp = null;
+                for (Runnable change : pending) {
+                    change.run();
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 索引是否已经预热完成。
+     */
+    public boolean isWarm() {
+        return warm;
+    }
+
+    /**
+     * 索引能否回答从指定时间开始的区间查询。
+     *
+     * @param startMillis 查询区间的开始时间
+     */
+    public boolean covers(long startMillis) {
+        if (!warm) {
+            return false;
+        }
+        lock.readLock().lock();
+        try {
+            return startMillis >= horizon;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 检查指定会议室在 [start, end) 内是否与已有预订重叠。调用前应先用 covers() 判断索引是否可用。
+     *
+     * @param roomId               会议室ID
+     * @param start                开始时间（毫秒）
+     * @param end                  结束时间（毫秒）
+     * @param excludeReservationId 要排除的预订ID（修改自身预订时）
+     * @return 如果有重叠，返回 true
+     */
+    public boolean hasConflict(int roomId, long start, long end, int excludeReservationId) {
+        return findConflict(roomId, start, end, excludeReservationId) != null;
+    }
+
+    /**
+     * 查找指定会议室在 [start, end) 内与之重叠的一个预订区间。
+     *
+     * @return 重叠的区间；没有重叠时返回 null
+     */
+    public Interval findConflict(int roomId, long start, long end, int excludeReservationId) {
+        lock.readLock().lock();
+        try {
+            RoomIntervals roomIntervals = rooms.get(roomId);
+            return roomIntervals == null ? null : roomIntervals.findOverlap(start, end, excludeReservationId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 获取指定会议室在 [from, to) 内的所有预订区间，按开始时间排序。
+     */
+    public List<Interval> getIntervals(int roomId, long from, long to) {
+        lock.readLock().lock();
+        try {
+            RoomIntervals roomIntervals = rooms.get(roomId);
+            return roomIntervals == null ? new ArrayList<>() : roomIntervals.overlapping(from, to);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 查找指定会议室从 from 开始第一个长度为 duration 的空闲时间段。
+     * 按开始时间顺序扫描该会议室的区间，不复制区间列表。
+     *
+     * @param roomId      会议室ID
+     * @param from        最早的开始时间（毫秒）
+     * @param duration    时长（毫秒）
+     * @param latestStart 最晚的开始时间（毫秒），超过后停止扫描
+     * @return 空闲时间段的开始时间；在 latestStart 之前没有时返回 -1
+     */
+    public long findEarliestGap(int roomId, long from, long duration, long latestStart) {
+        lock.readLock().lock();
+        try {
+            RoomIntervals roomIntervals = rooms.get(roomId);
+            if (roomIntervals == null) {
+                return from <= latestStart ? from : -1;
+            }
+            return roomIntervals.earliestGap(from, duration, latestStart);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 根据预订ID查找索引中的区间。
+     */
+    public Interval getInterval(int reservationId) {
+        lock.readLock().lock();
+        try {
+            return byReservationId.get(reservationId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 新增或替换一个预订。已取消的预订会从索引中移除。
+     */
+    public void put(Reservation reservation) {
+        applyChange(() -> {
+            removeInternal(reservation.getReservationId());
+            if (reservation.getStatus() != Reservation.STATUS_CANCELLED) {
+                Interval interval = new Interval(reservation);
+                rooms.computeIfAbsent(interval.roomId, id -> new RoomIntervals()).add(interval);
+                byReservationId.put(interval.reservationId, interval);
+            }
+        });
+    }
+
+    /**
+     * 从索引中移除一个预订。
+     */
+    public void remove(int reservationId) {
+        applyChange(() -> removeInternal(reservationId));
+    }
+
+    /**
+     * 用数据库中的最新数据替换某个会议室的全部区间。
+     *
+     * @param roomId       会议室ID
+     * @param reservations 该会议室当前的有效预订
+     */
+    public void replaceRoom(int roomId, List<Reservation> reservations) {
+        applyChange(() -> {
+            RoomIntervals old = rooms.remove(roomId);
+            if (old != null) {
+                for (Interval interval : old.intervals) {
+                    byReservationId.remove(interval.reservationId);
+                }
+                for (Interval interval : old.longIntervals) {
+                    byReservationId.remove(interval.reservationId);
+                }
+            }
+            RoomIntervals fresh = new RoomIntervals();
+            for (Reservation r : reservations) {
+                if (r.getStatus() != Reservation.STATUS_CANCELLED) {
+                    Interval interval = new Interval(r);
+                    fresh.add(interval);
+                    byReservationId.put(interval.reservationId, interval);
+                }
+            }
+            rooms.put(roomId, fresh);
+        });
+    }
+
+    private void applyChange(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            change.run();
+            if (pendingDuringWarmUp != null) {
+                pendingDuringWarmUp.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeInternal(int reservationId) {
+        Interval old = byReservationId.remove(reservationId);
+        if (old != null) {
+            RoomIntervals roomIntervals = rooms.get(old.roomId);
+            if (roomIntervals != null) {
+                roomIntervals.remove(old);
+            }
+        }
+    }
+
+    /**
+     * 单个会议室的区间集合。
+     * 正常情况下同一会议室的有效预订互不重叠；为了兼容历史数据中的重叠记录，
+     * 按区间长度计数得到当前最长区间长度，用于限定向前回溯的范围，删除区间时随之缩小。
+     * 超过 LONG_INTERVAL_MILLIS 的区间（例如跨越多天的占用）单独保存，不计入回溯范围，
+     * 查询时逐个检查，避免一个长区间使该会议室的所有查询都退化为线性扫描。
+     */
+    private static class RoomIntervals {
+        static final long LONG_INTERVAL_MILLIS = 24 * 60 * 60 * 1000L;
+
+        final NavigableSet<Interval> intervals = new TreeSet<>(ORDER);
+        final NavigableSet<Interval> longIntervals = new TreeSet<>(ORDER);
+        // 区间长度 → 个数，只统计 intervals 中的区间
+        private final TreeMap<Long, Integer> durations = new TreeMap<>();
+
+        void add(Interval interval) {
+            long duration = interval.end - interval.start;
+            if (duration > LONG_INTERVAL_MILLIS) {
+                longIntervals.add(interval);
+            } else if (intervals.add(interval)) {
+                durations.merge(duration, 1, Integer::sum);
+            }
+        }
+
+        void remove(Interval interval) {
+            if (longIntervals.remove(interval)) {
+                return;
+            }
+            if (intervals.remove(interval)) {
+                durations.computeIfPresent(interval.end - interval.start, (d, count) -> count > 1 ? count - 1 : null);
+            }
+        }
+
+        private long maxDuration() {
+            return durations.isEmpty() ? 0 : durations.lastKey();
+        }
+
+        Interval findOverlap(long start, long end, int excludeReservationId) {
+            // 从开始时间早于 end 的最后一个区间向前检查，超出最长区间长度后不可能再重叠
+            long maxDuration = maxDuration();
+            Iterator<Interval> it = intervals.headSet(Interval.probe(end), false).descendingIterator();
+            while (it.hasNext()) {
+                Interval candidate = it.next();
+                if (candidate.start + maxDuration <= start) {
+                    break;
+                }
+                if (candidate.end > start && candidate.reservationId != excludeReservationId) {
+                    return candidate;
+                }
+            }
+            for (Interval candidate : longIntervals.headSet(Interval.probe(end), false)) {
+                if (candidate.end > start && candidate.reservationId != excludeReservationId) {
+                    return candidate;
+                }
+            }
+            return null;
+        }
+
+        long earliestGap(long from, long duration, long latestStart) {
+            long candidate = from;
+            // 按开始时间顺序合并两个集合
+            Iterator<Interval> shortIt = intervals.tailSet(Interval.probe(from - maxDuration()), true).iterator();
+            Iterator<Interval> longIt = longIntervals.iterator();
+            Interval nextShort = shortIt.hasNext() ? shortIt.next() : null;
+            Interval nextLong = longIt.hasNext() ? longIt.next() : null;
+            while (nextShort != null || nextLong != null) {
+                Interval interval;
+                if (nextLong == null || (nextShort != null && ORDER.compare(nextShort, nextLong) < 0)) {
+                    interval = nextShort;
+                    nextShort = shortIt.hasNext() ? shortIt.next() : null;
+                } else {
+                    interval = nextLong;
+                    nextLong = longIt.hasNext() ? longIt.next() : null;
+                }
+                if (candidate > latestStart) {
+                    return -1;
+                }
+                if (interval.start >= candidate + duration) {
+                    // 区间按开始时间排序，之后的区间不会再占用 [candidate, candidate + duration)
+                    return candidate;
+                }
+                candidate = Math.max(candidate, interval.end);
+            }
+            return candidate <= latestStart ? candidate : -1;
+        }
+
+        List<Interval> overlapping(long from, long to) {
+            List<Interval> result = new ArrayList<>();
+            for (Interval candidate : intervals.subSet(Interval.probe(from - maxDuration()), true,
+                    Interval.probe(to), false)) {
+                if (candidate.end > from) {
+                    result.add(candidate);
+                }
+            }
+            if (!longIntervals.isEmpty()) {
+                for (Interval candidate : longIntervals.headSet(Interval.probe(to), false)) {
+                    if (candidate.end > from) {
+                        result.add(candidate);
+                    }
+                }
+                result.sort(ORDER);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * 一个预订占用的时间区间 [start, end)。
+     */
+    public static class Interval {
+        private final int reservationId;
+        private final int roomId;
+        private final long start;
+        private final long end;
+        private final String subject;
+
+        public Interval(int reservationId, int roomId, long start, long end, String subject) {
+            this.reservationId = reservationId;
+            this.roomId = roomId;
+            this.start = start;
+            this.end = end;
+            this.subject = subject;
+        }
+
+        Interval(Reservation r) {
+            this(r.getReservationId(), r.getRoomId(), r.getStartTime().getTime(), r.getEndTime().getTime(),
+                    r.getSubject());
+        }
+
+        // 用于有序集合范围查找的探针，预订ID取最小值使其排在同一时间点的所有区间之前
+        static Interval probe(long time) {
+            return new Interval(Integer.MIN_VALUE, 0, time, time, null);
+        }
+
+        public int getReservationId() {
+            return reservationId;
+        }
+
+        public int getRoomId() {
+            return roomId;
+        }
+
+        public long getStart() {
+            return start;
+        }
+
+        public long getEnd() {
+            return end;
+        }
+
+        public String getSubject() {
+            return subject;
+        }
+    }
+}
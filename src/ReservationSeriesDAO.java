@@ -0,0 +1,69 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * 重复预订系列表 ReservationSeries 的数据库操作。
+ * 一个系列保存重复规则，展开的每次预订是 Reservation 表中的普通记录，通过 seriesId 关联到系列。
+ * <p>
+ * 系列表和 Reservation.seriesId 列由迁移 V3 创建；数据库尚未迁移到该版本时，
+ * 重复预订仍可创建，但不保存系列，展开的预订之间没有关联。
+ */
+public class ReservationSeriesDAO {
+
+    // 创建系列表的迁移版本
+    public static final int SCHEMA_VERSION = 3;
+
+    /**
+     * 数据库中是否已有系列表。
+     */
+    public static boolean isAvailable() {
+        return SchemaMigrator.getCurrentVersion() >= SCHEMA_VERSION;
+    }
+
+    /**
+     * 在调用方的连接（事务）中保存一个系列。
+     *
+     * @param conn     执行预订的连接
+     * @param template 系列的第一次预订
+     * @param rule     重复规则
+     * @return 系列ID
+     * @throws SQLException 数据库访问异常
+     */
+    static int insertSeries(Connection conn, Reservation template, RecurrenceRule rule) throws SQLException {
+        String sql = "INSERT INTO ReservationSeries (userId, roomId, subject, recurrenceRule) VALUES (?, ?, ?, ?)";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            pstmt.setInt(1, template.getUserId());
+            pstmt.setInt(2, template.getRoomId());
+            pstmt.setString(3, template.getSubject());
+            pstmt.setString(4, rule.toRuleString());
+            pstmt.executeUpdate();
+            try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                if (keys.next()) {
+                    return keys.getInt(1);
+                }
+            }
+        }
+        throw new SQLException("创建预订系列失败：未返回系列ID");
+    }
+
+    /**
+     * 获取系列的重复规则。
+     *
+     * @param seriesId 系列ID
+     * @return 重复规则，系列不存在时返回 null
+     * @throws SQLException 数据库访问异常
+     */
+    public RecurrenceRule getRule(int seriesId) throws SQLException {
+        String sql = "SELECT recurrenceRule FROM ReservationSeries WHERE seriesId = ?";
+        try (Connection conn = UserDAO.getConnection();
+                PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, seriesId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? RecurrenceRule.parse(rs.getString("recurrenceRule")) : null;
+            }
+        }
+    }
+}
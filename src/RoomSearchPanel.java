@@ -0,0 +1,386 @@
+import net.miginfocom.swing.MigLayout;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.sql.Timestamp;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 空闲会议室查找面板：输入时间段和条件，一次列出所有空闲且可以预订的会议室，选中后直接预订；
+ * 同时选中多个会议室时作为一次联合预订，要么全部预订成功，要么都不预订。
+ * 也可以查找从开始时间起第一个时长相同的空闲时段。
+ */
+public class RoomSearchPanel extends JPanel implements PanelLifecycle {
+
+    private static final String ANY_TYPE = "全部类型";
+
+    private final User currentUser;
+    private final FreeRoomFinder finder = new FreeRoomFinder();
+    private final SlotFinder slotFinder = new SlotFinder();
+    private final ReservationDAO reservationDAO = new ReservationDAO();
+
+    private JSpinner dateSpinner;
+    private JSpinner startTimeSpinner;
+    private JSpinner endTimeSpinner;
+    private JSpinner capacitySpinner;
+    private JComboBox<Object> typeComboBox;
+    private JTextField locationField;
+    private JTextField equipmentField;
+    private JButton searchButton;
+    private JButton earliestButton;
+    private JButton bookButton;
+    private JLabel resultLabel;
+    private JTable resultTable;
+    private RoomTableModel resultTableModel;
+
+    // 当前结果对应的时间段，预订时预先填入
+    private Timestamp resultStart;
+    private Timestamp resultEnd;
+    // 已有结果时，再次显示超过 1 分钟或本地数据变化后重新查找
+    private final Freshness freshness = new Freshness(60 * 1000L);
+    // 本面板发起的数据库任务
+    private final DaoExecutor.TaskGroup tasks = DaoExecutor.getShared().newTaskGroup();
+
+    public RoomSearchPanel(User user) {
+        this.currentUser = user;
+        initComponents();
+        loadRoomTypes();
+    }
+
+    @Override
+    public void onShow() {
+        if (resultStart != null && freshness.isStale()) {
+            search();
+        }
+    }
+
+    @Override
+    public void onHide() {
+        if (tasks.cancelInFlight() > 0) {
+            freshness.invalidate();
+            searchButton.setEnabled(true);
+            earliestButton.setEnabled(true);
+        }
+    }
+
+    @Override
+    public void onDispose() {
+        tasks.cancelAll();
+    }
+
+    private void initComponents() {
+        setLayout(new MigLayout("fill, insets 20", "[grow]", "[]15[]10[]10[grow][]"));
+
+        JLabel titleLabel = new JLabel("查找空闲会议室");
+        titleLabel.setFont(new Font("微软雅黑", Font.BOLD, 20));
+        add(titleLabel, "wrap");
+
+        // 默认查找下一个整点开始的一小时
+        Calendar cal = Calendar.getInstance();
+        cal.add(Calendar.HOUR_OF_DAY, 1);
+        cal.set(Calendar.MINUTE, 0);
+        cal.set(Calendar.SECOND, 0);
+        cal.set(Calendar.MILLISECOND, 0);
+        Date defaultStart = cal.getTime();
+        cal.add(Calendar.HOUR_OF_DAY, 1);
+        Date defaultEnd = cal.getTime();
+
+        dateSpinner = new JSpinner(new SpinnerDateModel(defaultStart, null, null, Calendar.DAY_OF_MONTH));
+        dateSpinner.setEditor(new JSpinner.DateEditor(dateSpinner, "yyyy-MM-dd"));
+        startTimeSpinner = new JSpinner(new SpinnerDateModel(defaultStart, null, null, Calendar.MINUTE));
+        startTimeSpinner.setEditor(new JSpinner.DateEditor(startTimeSpinner, "HH:mm"));
+        endTimeSpinner = new JSpinner(new SpinnerDateModel(defaultEnd, null, null, Calendar.MINUTE));
+        endTimeSpinner.setEditor(new JSpinner.DateEditor(endTimeSpinner, "HH:mm"));
+        capacitySpinner = new JSpinner(new SpinnerNumberModel(1, 1, 10000, 1));
+        typeComboBox = new JComboBox<>(new Object[] { ANY_TYPE });
+        typeComboBox.setRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(JList<?> list, Object value, int index,
+                    boolean isSelected, boolean cellHasFocus) {
+                Object text = value instanceof RoomType ? ((RoomType) value).getTypeName() : value;
+                return super.getListCellRendererComponent(list, text, index, isSelected, cellHasFocus);
+            }
+        });
+        locationField = new JTextField(12);
+        equipmentField = new JTextField(8);
+        searchButton = new JButton("查找");
+        searchButton.addActionListener(e -> search());
+        earliestButton = new JButton("最早可用时段");
+        earliestButton.setToolTipText("从所选开始时间起，查找第一个时长相同的空闲时段");
+        earliestButton.addActionListener(e -> findEarliestSlot());
+
+        JPanel criteriaPanel = new JPanel(new MigLayout("insets 0", "[][]15[][]15[][]15[][]15[][]15[][]15[][]15[][]"));
+        criteriaPanel.add(new JLabel("日期:"));
+        criteriaPanel.add(dateSpinner, "w 110!");
+        criteriaPanel.add(new JLabel("开始:"));
+        criteriaPanel.add(startTimeSpinner, "w 70!");
+        criteriaPanel.add(new JLabel("结束:"));
+        criteriaPanel.add(endTimeSpinner, "w 70!");
+        criteriaPanel.add(new JLabel("人数至少:"));
+        criteriaPanel.add(capacitySpinner, "w 70!");
+        criteriaPanel.add(new JLabel("类型:"));
+        criteriaPanel.add(typeComboBox, "w 120!");
+        criteriaPanel.add(new JLabel("位置:"));
+        criteriaPanel.add(locationField);
+        criteriaPanel.add(new JLabel("设备:"));
+        criteriaPanel.add(equipmentField);
+        criteriaPanel.add(searchButton);
+        criteriaPanel.add(earliestButton);
+        add(criteriaPanel, "growx, wrap");
+
+        resultLabel = new JLabel("请选择时间段后点击查找。");
+        resultLabel.setFont(new Font("微软雅黑", Font.PLAIN, 14));
+        add(resultLabel, "wrap");
+
+        resultTableModel = new RoomTableModel();
+        resultTable = new JTable(resultTableModel);
+        resultTable.setRowHeight(28);
+        resultTable.setFont(new Font("微软雅黑", Font.PLAIN, 14));
+        resultTable.getTableHeader().setFont(new Font("微软雅黑", Font.BOLD, 14));
+        resultTable.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
+        resultTable.setAutoCreateRowSorter(true);
+        resultTable.getSelectionModel().addListSelectionListener(e -> {
+            if (!e.getValueIsAdjusting()) {
+                bookButton.setEnabled(resultTable.getSelectedRow() >= 0);
+            }
+        });
+        resultTable.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (e.getClickCount() == 2 && resultTable.rowAtPoint(e.getPoint()) >= 0) {
+                    bookSelectedRoom();
+                }
+            }
+        });
+        add(new JScrollPane(resultTable), "grow, push, wrap");
+
+        bookButton = new JButton("预订所选会议室");
+        bookButton.setEnabled(false);
+        bookButton.addActionListener(e -> bookSelectedRoom());
+        add(bookButton, "align right");
+    }
+
+    private void loadRoomTypes() {
+        tasks.run(() -> new RoomTypeDAO().getAllRoomTypes(), types -> {
+            for (RoomType type : types) {
+                typeComboBox.addItem(type);
+            }
+        }, e -> System.err.println("加载会议室类型失败: " + e.getMessage()));
+    }
+
+    private void search() {
+        Timestamp start = combine((Date) dateSpinner.getValue(), (Date) startTimeSpinner.getValue());
+        Timestamp end = combine((Date) dateSpinner.getValue(), (Date) endTimeSpinner.getValue());
+        if (!end.after(start)) {
+            JOptionPane.showMessageDialog(this, "结束时间必须晚于开始时间。", "输入错误", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        FreeRoomFinder.Criteria criteria = buildCriteria();
+
+        freshness.markLoading();
+        searchButton.setEnabled(false);
+        long startedAt = System.nanoTime();
+        tasks.run(() -> finder.findFreeRooms(currentUser.getRole(), start, end, criteria), rooms -> {
+            long elapsedMillis = (System.nanoTime() - startedAt) / 1_000_000;
+            resultStart = start;
+            resultEnd = end;
+            resultTableModel.setRooms(rooms);
+            resultLabel.setText(rooms.isEmpty() ? "该时间段没有符合条件的空闲会议室。"
+                    : "找到 " + rooms.size() + " 个空闲会议室（用时 " + elapsedMillis + " 毫秒），双击即可预订，按住 Ctrl 可选择多个一起预订。");
+            searchButton.setEnabled(true);
+        }, e -> {
+            searchButton.setEnabled(true);
+            JOptionPane.showMessageDialog(this, "查找空闲会议室失败: " + e.getMessage(), "错误",
+                    JOptionPane.ERROR_MESSAGE);
+        });
+    }
+
+    private void findEarliestSlot() {
+        Timestamp start = combine((Date) dateSpinner.getValue(), (Date) startTimeSpinner.getValue());
+        Timestamp end = combine((Date) dateSpinner.getValue(), (Date) endTimeSpinner.getValue());
+        if (!end.after(start)) {
+            JOptionPane.showMessageDialog(this, "结束时间必须晚于开始时间。", "输入错误", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        long duration = end.getTime() - start.getTime();
+        FreeRoomFinder.Criteria criteria = buildCriteria();
+
+        earliestButton.setEnabled(false);
+        tasks.run(() -> slotFinder.findEarliestSlot(currentUser.getRole(), start, duration, criteria), slot -> {
+            earliestButton.setEnabled(true);
+            if (slot == null) {
+                JOptionPane.showMessageDialog(this, "未来 " + SlotFinder.DEFAULT_SEARCH_DAYS + " 天内没有符合条件的空闲时段。",
+                        "最早可用时段", JOptionPane.INFORMATION_MESSAGE);
+                return;
+            }
+            SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm");
+            int choice = JOptionPane.showConfirmDialog(this,
+                    "最早可用：" + slot.getRoom().getName() + "，" + sdf.format(slot.getStartTime()) + " ~ "
+                            + sdf.format(slot.getEndTime()) + "\n是否立即预订？",
+                    "最早可用时段", JOptionPane.YES_NO_OPTION);
+            if (choice == JOptionPane.YES_OPTION) {
+                openReservationDialog(slot.getRoom(), slot.getStartTime(), slot.getEndTime());
+            }
+        }, e -> {
+            earliestButton.setEnabled(true);
+            JOptionPane.showMessageDialog(this, "查找最早可用时段失败: " + e.getMessage(), "错误",
+                    JOptionPane.ERROR_MESSAGE);
+        });
+    }
+
+    private FreeRoomFinder.Criteria buildCriteria() {
+        Object selectedType = typeComboBox.getSelectedItem();
+        return new FreeRoomFinder.Criteria((Integer) capacitySpinner.getValue(),
+                selectedType instanceof RoomType ? ((RoomType) selectedType).getTypeCode() : null,
+                locationField.getText(), equipmentField.getText());
+    }
+
+    private void bookSelectedRoom() {
+        int[] viewRows = resultTable.getSelectedRows();
+        if (viewRows.length == 0) {
+            return;
+        }
+        if (viewRows.length > 1) {
+            bookSelectedRooms(viewRows);
+            return;
+        }
+        MeetingRoom room = resultTableModel.getRoom(resultTable.convertRowIndexToModel(viewRows[0]));
+        openReservationDialog(room, resultStart, resultEnd);
+    }
+
+    // 所选的多个会议室以同一主题、同一时间段作为一组预订
+    private void bookSelectedRooms(int[] viewRows) {
+        String subject = JOptionPane.showInputDialog(this,
+                "为所选的 " + viewRows.length + " 个会议室填写会议主题：", "联合预订", JOptionPane.QUESTION_MESSAGE);
+        if (subject == null) {
+            return;
+        }
+        if (subject.trim().isEmpty()) {
+            JOptionPane.showMessageDialog(this, "会议主题不能为空。", "输入错误", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        List<Reservation> group = new ArrayList<>(viewRows.length);
+        for (int viewRow : viewRows) {
+            MeetingRoom room = resultTableModel.getRoom(resultTable.convertRowIndexToModel(viewRow));
+            group.add(new Reservation(0, currentUser.getUserId(), room.getRoomId(), room.getName(), subject.trim(),
+                    null, resultStart, resultEnd, Reservation.STATUS_CONFIRMED));
+        }
+
+        bookButton.setEnabled(false);
+        tasks.run(() -> reservationDAO.createGroupReservation(group), booked -> {
+            JOptionPane.showMessageDialog(this, "已预订 " + booked.size() + " 个会议室。", "联合预订",
+                    JOptionPane.INFORMATION_MESSAGE);
+            search();
+        }, e -> {
+            bookButton.setEnabled(resultTable.getSelectedRow() >= 0);
+            if (e instanceof ReservationDAO.GroupBookingConflictException) {
+                JOptionPane.showMessageDialog(this,
+                        describeConflicts((ReservationDAO.GroupBookingConflictException) e) + "所有会议室均未预订。",
+                        "时间冲突", JOptionPane.WARNING_MESSAGE);
+                search();
+            } else {
+                JOptionPane.showMessageDialog(this, "联合预订失败: " + e.getMessage(), "错误",
+                        JOptionPane.ERROR_MESSAGE);
+            }
+        });
+    }
+
+    // 列出冲突的会议室
+    private static String describeConflicts(ReservationDAO.GroupBookingConflictException e) {
+        StringBuilder sb = new StringBuilder("以下会议室在该时间段已被占用：\n");
+        for (ReservationDAO.OccurrenceResult result : e.getResults()) {
+            if (result.isConflict()) {
+                ReservationIntervalIndex.Interval conflict = result.getConflict();
+                sb.append(result.getOccurrence().getRoomName()).append("  与「")
+                        .append(conflict.getSubject() != null ? conflict.getSubject() : "已有预订").append("」冲突\n");
+            }
+        }
+        return sb.toString();
+    }
+
+    private void openReservationDialog(MeetingRoom room, Timestamp start, Timestamp end) {
+        ReservationDialog dialog = new ReservationDialog(
+                (Frame) SwingUtilities.getWindowAncestor(this),
+                currentUser, room, start, end, (saved) -> {
+                    if (saved && resultStart != null) {
+                        search();
+                    }
+                });
+        dialog.setVisible(true);
+    }
+
+    // 日期取自 date，时分取自 time
+    private static Timestamp combine(Date date, Date time) {
+        Calendar dateCal = Calendar.getInstance();
+        dateCal.setTime(date);
+        Calendar timeCal = Calendar.getInstance();
+        timeCal.setTime(time);
+        dateCal.set(Calendar.HOUR_OF_DAY, timeCal.get(Calendar.HOUR_OF_DAY));
+        dateCal.set(Calendar.MINUTE, timeCal.get(Calendar.MINUTE));
+        dateCal.set(Calendar.SECOND, 0);
+        dateCal.set(Calendar.MILLISECOND, 0);
+        return new Timestamp(dateCal.getTimeInMillis());
+    }
+
+    /**
+     * 查找结果表格模型。
+     */
+    private static class RoomTableModel extends AbstractTableModel {
+        private static final String[] COLUMN_NAMES = { "会议室", "容量", "位置", "类型" };
+
+        private List<MeetingRoom> rooms = new ArrayList<>();
+
+        void setRooms(List<MeetingRoom> rooms) {
+            this.rooms = new ArrayList<>(rooms);
+            fireTableDataChanged();
+        }
+
+        MeetingRoom getRoom(int modelRow) {
+            return rooms.get(modelRow);
+        }
+
+        @Override
+        public int getRowCount() {
+            return rooms.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMN_NAMES.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return COLUMN_NAMES[column];
+        }
+
+        @Override
+        public Class<?> getColumnClass(int column) {
+            return column == 1 ? Integer.class : String.class;
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            MeetingRoom room = rooms.get(row);
+            switch (column) {
+                case 0:
+                    return room.getName();
+                case 1:
+                    return room.getCapacity();
+                case 2:
+                    return room.getLocation();
+                case 3:
+                    return room.getRoomTypeCode() != null ? room.getRoomTypeCode() : "—";
+                default:
+                    return null;
+            }
+        }
+    }
+}
@@ -2,7 +2,6 @@ import javax.swing.*;
 import java.awt.*;
 import java.sql.SQLException;
 import java.util.List;
-import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
 
 /**
@@ -14,7 +13,16 @@ import net.miginfocom.swing.MigLayout;
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import java.awt.*;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import javax.swing.table.TableCellRenderer;
 import java.util.Vector;
 import java.text.SimpleDateFormat;
@@ -25,20 +33,41 @@ import javax.swing.event.PopupMenuListener;
 /**
  * 会议室状态面板，用于显示会议室的当前状态。
  */
-public class RoomStatusPanel extends JPanel {
+public class RoomStatusPanel extends JPanel implements PanelLifecycle {
 
     private final User currentUser;
     private final MeetingRoomDAO meetingRoomDAO;
     private final EquipmentDAO equipmentDAO;
     private List<MeetingRoomDAO.MeetingRoomStatusDTO> roomStatusList; // Full list from DB
+    // 批量加载的卡片数据：会议室详情、按会议室分组的设备、可预订的会议室ID
+    private Map<Integer, MeetingRoom> roomsById = new HashMap<>();
+    private Map<Integer, List<Equipment>> equipmentByRoomId = new HashMap<>();
+    private Set<Integer> bookableRoomIds = new HashSet<>();
 
     // Filter components
     private JPopupMenu statusFilterMenu;
     private String currentStatusFilter = "全部";
     private JButton filterButton;
 
-    private JPanel cardPanel; // 新增：用于放置会议室卡片的面板
+    // 卡片列表的列数和最小宽度
+    private static final int CARD_COLUMNS = 3;
+    private static final int CARD_MIN_WIDTH = 320;
+
+    private JList<MeetingRoomDAO.MeetingRoomStatusDTO> cardList; // 会议室卡片列表（只绘制可见的卡片）
+    private RoomCardListModel cardListModel;
+    private RoomCardRenderer cardRenderer;
     private JScrollPane cardScrollPane; // 新增：卡片面板的滚动容器
+    // 鼠标悬停的卡片和按钮
+    private int hoveredIndex = -1;
+    private JButton hoveredButton;
+    // 会议室状态随时间变化，缓存的面板再次显示时超过 30 秒即刷新
+    private final Freshness freshness = new Freshness(30 * 1000L);
+    // 本面板发起的数据库任务，切换到后台时取消未完成的任务，面板销毁时全部取消
+    private final DaoExecutor.TaskGroup tasks = DaoExecutor.getShared().newTaskGroup();
+    // 面板显示期间订阅实时状态，预订开始或结束时卡片状态自动更新
+    private Runnable liveStatusSubscription;
+    // 最近一次完整加载的开始时间，早于该时间计算的实时状态不再应用
+    private long statusLoadedAt = 0;
 
     public RoomStatusPanel(User user) {
         this.currentUser = user;
@@ -46,6 +75,74 @@ public class RoomStatusPanel extends JPanel {
         this.equipmentDAO = new EquipmentDAO();
         initComponents();
         loadRoomStatus();
+        subscribeLiveStatus();
+    }
+
+    @Override
+    public void onShow() {
+        if (freshness.isStale()) {
+            loadRoomStatus();
+        }
+        subscribeLiveStatus();
+    }
+
+    @Override
+    public void onHide() {
+        unsubscribeLiveStatus();
+        // 切换到其他面板时不再等待加载结果，下次显示时重新加载
+        if (tasks.cancelInFlight() > 0) {
+            freshness.invalidate();
+        }
+    }
+
+    @Override
+    public void onDispose() {
+        unsubscribeLiveStatus();
+        tasks.cancelAll();
+    }
+
+    private void subscribeLiveStatus() {
+        if (liveStatusSubscription == null) {
+            liveStatusSubscription = RoomStatusSnapshot.getShared().subscribe(this::applyLiveStatus);
+        }
+    }
+
+    private void unsubscribeLiveStatus() {
+        if (liveStatusSubscription != null) {
+            liveStatusSubscription.run();
+            liveStatusSubscription = null;
+        }
+    }
+
+    /**
+     * 用实时状态服务推送的状态更新卡片。可见的会议室和预订权限仍以最近一次完整加载为准。
+     */
+    private void applyLiveStatus(RoomStatusSnapshot.Snapshot snapshot) {
+        if (roomStatusList == null || snapshot.getComputedAt() < statusLoadedAt) {
+            return;
+        }
+        List<MeetingRoomDAO.MeetingRoomStatusDTO> updated = new ArrayList<>(roomStatusList.size());
+        boolean changed = false;
+        for (MeetingRoomDAO.MeetingRoomStatusDTO dto : roomStatusList) {
+            RoomStatusSnapshot.RoomState state = snapshot.getState(dto.getRoomId());
+            if (state == null || (state.getDisplayStatus().equals(dto.getStatus())
+                    && Objects.equals(state.getCurrentBookingSubject(), dto.getCurrentBookingSubject())
+                    && Objects.equals(state.getCurrentBookingTime(), dto.getCurrentBookingTime()))) {
+                updated.add(dto);
+                continue;
+            }
+            MeetingRoomDAO.MeetingRoomStatusDTO live = new MeetingRoomDAO.MeetingRoomStatusDTO(dto.getRoomId(),
+                    dto.getRoomName(), state.getDisplayStatus(), state.getCurrentBookingSubject(),
+                    state.getCurrentBookingTime());
+            live.setRoom(dto.getRoom());
+            live.setBookable(dto.isBookable());
+            updated.add(live);
+            changed = true;
+        }
+        if (changed) {
+            roomStatusList = updated;
+            cardListModel.setRooms(roomStatusList, currentStatusFilter);
+        }
     }
 
     private void initComponents() {
@@ -72,13 +169,41 @@ public class RoomStatusPanel extends JPanel {
         filterButton.addActionListener(e -> statusFilterMenu.show(filterButton, 0, filterButton.getHeight()));
         add(filterButton, "align right, wrap");
 
-        // 卡片面板布局优化，固定三列，居中显示
-        cardPanel = new JPanel();
-        cardPanel.setLayout(new net.miginfocom.swing.MigLayout("wrap 3, gap 24 24, align center top",
-                "[grow,fill][grow,fill][grow,fill]", ""));
-        cardPanel.setOpaque(false);
-        cardScrollPane = new JScrollPane(cardPanel);
+        // 卡片列表：固定三列，只绘制可见区域内的卡片，所有卡片共用一个渲染组件
+        cardListModel = new RoomCardListModel();
+        cardRenderer = new RoomCardRenderer();
+        cardList = new JList<MeetingRoomDAO.MeetingRoomStatusDTO>(cardListModel) {
+            @Override
+            protected void paintComponent(Graphics g) {
+                super.paintComponent(g);
+                if (getModel().getSize() == 0) {
+                    g.setFont(new Font("微软雅黑", Font.PLAIN, 16));
+                    g.setColor(getForeground());
+                    String text = "暂无会议室";
+                    int textWidth = g.getFontMetrics().stringWidth(text);
+                    g.drawString(text, (getWidth() - textWidth) / 2, 40);
+                }
+            }
+        };
+        cardList.setLayoutOrientation(JList.HORIZONTAL_WRAP);
+        cardList.setVisibleRowCount(-1);
+        cardList.setOpaque(false);
+        cardList.setCellRenderer(cardRenderer);
+        cardList.setFixedCellHeight(cardRenderer.getPreferredCardHeight());
+        cardList.setFixedCellWidth(CARD_MIN_WIDTH);
+        installCardMouseHandler();
+
+        cardScrollPane = new JScrollPane(cardList);
         cardScrollPane.setBorder(null);
+        cardScrollPane.getVerticalScrollBar().setUnitIncrement(16);
+        cardScrollPane.getViewport().addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentResized(ComponentEvent e) {
+                // 卡片宽度随可视区域变化，保持三列
+                int width = cardScrollPane.getViewport().getWidth();
+                cardList.setFixedCellWidth(Math.max(CARD_MIN_WIDTH, width / CARD_COLUMNS));
+            }
+        });
         add(cardScrollPane, "grow, push, span 2");
     }
 
@@ -86,165 +211,116 @@ public class RoomStatusPanel extends JPanel {
         if (roomStatusList == null) {
             return;
         }
-        String selectedStatus = currentStatusFilter;
-        List<MeetingRoomDAO.MeetingRoomStatusDTO> filteredList;
-        if (selectedStatus == null || selectedStatus.equals("全部")) {
-            filteredList = roomStatusList;
-        } else {
-            filteredList = roomStatusList.stream()
-                    .filter(dto -> selectedStatus.equals(dto.getStatus()))
-                    .collect(Collectors.toList());
-        }
-        updateCardPanel(filteredList);
+        // 筛选只更新列表模型，不创建任何组件
+        cardListModel.setFilter(currentStatusFilter);
     }
 
-    private void updateCardPanel(List<MeetingRoomDAO.MeetingRoomStatusDTO> dtoList) {
-        cardPanel.removeAll();
-        if (dtoList == null || dtoList.isEmpty()) {
-            JLabel emptyLabel = new JLabel("暂无会议室");
-            emptyLabel.setFont(new Font("微软雅黑", Font.PLAIN, 16));
-            cardPanel.add(emptyLabel, "span, center");
-        } else {
-            for (MeetingRoomDAO.MeetingRoomStatusDTO dto : dtoList) {
-                cardPanel.add(createRoomCard(dto), "grow");
+    // 处理卡片上的按钮：渲染组件不接收事件，按鼠标位置在对应卡片的布局中查找按钮
+    private void installCardMouseHandler() {
+        MouseAdapter handler = new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (!SwingUtilities.isLeftMouseButton(e)) {
+                    return;
+                }
+                int index = cardIndexAt(e.getPoint());
+                JButton button = index < 0 ? null : cardButtonAt(index, e.getPoint());
+                if (button == null) {
+                    return;
+                }
+                MeetingRoomDAO.MeetingRoomStatusDTO dto = cardListModel.getElementAt(index);
+                if (button == cardRenderer.detailsBtn) {
+                    showRoomDetailsById(dto.getRoomId());
+                } else if (button == cardRenderer.bookBtn) {
+                    bookRoomById(dto.getRoomId(), dto.getStatus());
+                }
             }
-        }
-        cardPanel.revalidate();
-        cardPanel.repaint();
-    }
 
-    private JPanel createRoomCard(MeetingRoomDAO.MeetingRoomStatusDTO dto) {
-        JPanel card = new JPanel(new BorderLayout());
-        // 使用UIManager获取主题色
-        final Color borderColor = UIManager.getColor("Separator.foreground");
-        final Color bgColor = UIManager.getColor("Panel.background");
-        final Color titleColor = UIManager.getColor("Label.foreground");
-        final Color infoColor = UIManager.getColor("Label.foreground");
-        final Color subInfoColor = UIManager.getColor("Label.disabledForeground");
-        card.setBorder(BorderFactory.createCompoundBorder(
-                BorderFactory.createLineBorder(borderColor != null ? borderColor : Color.GRAY, 2, true),
-                new EmptyBorder(16, 20, 16, 20)));
-        card.setBackground(bgColor != null ? bgColor : Color.WHITE);
-
-        // 标题区
-        JLabel nameLabel = new JLabel(dto.getRoomName() + " (ID: " + dto.getRoomId() + ")");
-        nameLabel.setFont(new Font("微软雅黑", Font.BOLD, 18));
-        nameLabel.setForeground(titleColor != null ? titleColor : Color.BLACK);
-        card.add(nameLabel, BorderLayout.NORTH);
-
-        // 信息区（异步加载更多详情）
-        JPanel infoPanel = new JPanel();
-        infoPanel.setLayout(new BoxLayout(infoPanel, BoxLayout.Y_AXIS));
-        infoPanel.setOpaque(false);
-
-        // 先展示基础信息
-        infoPanel.add(makeInfoLine("状态:", dto.getStatus(), infoColor != null ? infoColor : Color.DARK_GRAY));
-        infoPanel.add(
-                makeInfoLine("当前会议:", dto.getCurrentBookingSubject() != null ? dto.getCurrentBookingSubject() : "—",
-                        infoColor != null ? infoColor : Color.DARK_GRAY));
-        infoPanel.add(makeInfoLine("预订时间:",
-                dto.getCurrentBookingTime() != null && !dto.getCurrentBookingTime().isEmpty()
-                        ? dto.getCurrentBookingTime()
-                        : "—",
-                infoColor != null ? infoColor : Color.DARK_GRAY));
-        infoPanel.add(Box.createVerticalStrut(6));
-        infoPanel.add(new JSeparator());
-
-        // 异步加载详细信息
-        new SwingWorker<MeetingRoom, Void>() {
             @Override
-            protected MeetingRoom doInBackground() throws Exception {
-                return meetingRoomDAO.getMeetingRoomByIdWithType(dto.getRoomId());
+            public void mouseMoved(MouseEvent e) {
+                int index = cardIndexAt(e.getPoint());
+                JButton button = index < 0 ? null : cardButtonAt(index, e.getPoint());
+                cardList.setCursor(button != null ? Cursor.getPredefinedCursor(Cursor.HAND_CURSOR)
+                        : Cursor.getDefaultCursor());
+                setHoveredButton(button != null ? index : -1, button);
             }
 
             @Override
-            protected void done() {
-                try {
-                    MeetingRoom room = get();
-                    if (room != null) {
-                        infoPanel.add(makeInfoLine("容量:", room.getCapacity() + "人",
-                                subInfoColor != null ? subInfoColor : Color.GRAY));
-                        infoPanel.add(makeInfoLine("位置:", room.getLocation(),
-                                subInfoColor != null ? subInfoColor : Color.GRAY));
-                        infoPanel.add(makeInfoLine("类型:", room.getRoomTypeCode() != null ? room.getRoomTypeCode() : "—",
-                                subInfoColor != null ? subInfoColor : Color.GRAY));
-                        infoPanel.add(makeInfoLine("描述:",
-                                room.getDescription() != null && !room.getDescription().isEmpty()
-                                        ? room.getDescription()
-                                        : "—",
-                                subInfoColor != null ? subInfoColor : Color.GRAY));
-                        // 异步加载设备
-                        new SwingWorker<List<Equipment>, Void>() {
-                            @Override
-                            protected List<Equipment> doInBackground() throws Exception {
-                                return equipmentDAO.getEquipmentByRoomId(dto.getRoomId());
-                            }
-
-                            @Override
-                            protected void done() {
-                                try {
-                                    List<Equipment> eqs = get();
-                                    if (eqs != null && !eqs.isEmpty()) {
-                                        StringBuilder eqStr = new StringBuilder();
-                                        for (int i = 0; i < Math.min(3, eqs.size()); i++) {
-                                            eqStr.append(eqs.get(i).getName());
-                                            if (i < Math.min(3, eqs.size()) - 1)
-                                                eqStr.append("，");
-                                        }
-                                        if (eqs.size() > 3)
-                                            eqStr.append("...");
-                                        infoPanel.add(makeInfoLine("主要设备:", eqStr.toString(),
-                                                subInfoColor != null ? subInfoColor : Color.GRAY));
-                                    } else {
-                                        infoPanel.add(makeInfoLine("主要设备:", "无",
-                                                subInfoColor != null ? subInfoColor : Color.GRAY));
-                                    }
-                                    infoPanel.revalidate();
-                                    infoPanel.repaint();
-                                } catch (Exception ignore) {
-                                }
-                            }
-                        }.execute();
-                    }
-                    infoPanel.revalidate();
-                    infoPanel.repaint();
-                } catch (Exception ignore) {
-                }
+            public void mouseExited(MouseEvent e) {
+                cardList.setCursor(Cursor.getDefaultCursor());
+                setHoveredButton(-1, null);
+            }
+        };
+        cardList.addMouseListener(handler);
+        cardList.addMouseMotionListener(handler);
+    }
+
+    private void setHoveredButton(int index, JButton button) {
+        if (index == hoveredIndex && button == hoveredButton) {
+            return;
+        }
+        repaintCard(hoveredIndex);
+        hoveredIndex = index;
+        hoveredButton = button;
+        repaintCard(hoveredIndex);
+    }
+
+    private void repaintCard(int index) {
+        if (index >= 0 && index < cardListModel.getSize()) {
+            Rectangle bounds = cardList.getCellBounds(index, index);
+            if (bounds != null) {
+                cardList.repaint(bounds);
             }
-        }.execute();
-
-        card.add(infoPanel, BorderLayout.CENTER);
-
-        // 按钮区
-        JPanel btnPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 0));
-        btnPanel.setOpaque(false);
-        JButton detailsBtn = new JButton("查看详情");
-        JButton bookBtn = new JButton("预约会议室");
-        detailsBtn.setFont(new Font("微软雅黑", Font.PLAIN, 14));
-        bookBtn.setFont(new Font("微软雅黑", Font.PLAIN, 14));
-        detailsBtn.addActionListener(e -> showRoomDetailsById(dto.getRoomId()));
-        bookBtn.addActionListener(e -> bookRoomById(dto.getRoomId(), dto.getStatus()));
-        btnPanel.add(detailsBtn);
-        btnPanel.add(bookBtn);
-        card.add(btnPanel, BorderLayout.SOUTH);
-
-        updateBookButtonState(bookBtn, dto.getRoomId(), dto.getStatus());
-        return card;
+        }
     }
 
-    private JPanel makeInfoLine(String label, String value, Color fg) {
-        JPanel p = new JPanel(new FlowLayout(FlowLayout.LEFT, 0, 0));
-        p.setOpaque(false);
-        JLabel l1 = new JLabel(label);
-        l1.setForeground(fg);
-        l1.setFont(new Font("微软雅黑", Font.PLAIN, 14));
-        JLabel l2 = new JLabel(value);
-        l2.setForeground(fg);
-        l2.setFont(new Font("微软雅黑", Font.PLAIN, 14));
-        p.add(l1);
-        p.add(Box.createHorizontalStrut(6));
-        p.add(l2);
-        return p;
+    private int cardIndexAt(Point point) {
+        int index = cardList.locationToIndex(point);
+        if (index < 0) {
+            return -1;
+        }
+        Rectangle bounds = cardList.getCellBounds(index, index);
+        return bounds != null && bounds.contains(point) ? index : -1;
+    }
+
+    // 用渲染组件按该卡片的数据和尺寸布局，再查找鼠标位置下可用的按钮
+    private JButton cardButtonAt(int index, Point point) {
+        Rectangle bounds = cardList.getCellBounds(index, index);
+        Component card = cardRenderer.getListCellRendererComponent(cardList, cardListModel.getElementAt(index), index,
+                false, false);
+        card.setBounds(0, 0, bounds.width, bounds.height);
+        layoutTree(card);
+        Component hit = SwingUtilities.getDeepestComponentAt(card, point.x - bounds.x, point.y - bounds.y);
+        if (hit instanceof JButton && hit.isEnabled()) {
+            return (JButton) hit;
+        }
+        return null;
+    }
+
+    private static void layoutTree(Component component) {
+        if (component instanceof Container) {
+            Container container = (Container) component;
+            container.doLayout();
+            for (Component child : container.getComponents()) {
+                layoutTree(child);
+            }
+        }
+    }
+
+    // 生成设备摘要：最多列出三个设备名称
+    private String summarizeEquipment(List<Equipment> eqs) {
+        if (eqs == null || eqs.isEmpty()) {
+            return "无";
+        }
+        StringBuilder eqStr = new StringBuilder();
+        for (int i = 0; i < Math.min(3, eqs.size()); i++) {
+            eqStr.append(eqs.get(i).getName());
+            if (i < Math.min(3, eqs.size()) - 1)
+                eqStr.append("，");
+        }
+        if (eqs.size() > 3)
+            eqStr.append("...");
+        return eqStr.toString();
     }
 
     private void showRoomDetailsById(int roomId) {
@@ -257,176 +333,290 @@ public class RoomStatusPanel extends JPanel {
                 this.equipmentList = equipmentList;
             }
         }
-        new SwingWorker<RoomDetails, Void>() {
-            @Override
-            protected RoomDetails doInBackground() throws Exception {
-                MeetingRoom room = meetingRoomDAO.getMeetingRoomById(roomId);
-                if (room != null) {
-                    List<Equipment> equipment = equipmentDAO.getEquipmentByRoomId(roomId);
-                    return new RoomDetails(room, equipment);
-                }
-                return null;
+        tasks.run(() -> {
+            MeetingRoom room = meetingRoomDAO.getMeetingRoomById(roomId);
+            if (room != null) {
+                List<Equipment> equipment = equipmentDAO.getEquipmentByRoomId(roomId);
+                return new RoomDetails(room, equipment);
             }
-
-            @Override
-            protected void done() {
-                try {
-                    RoomDetails details = get();
-                    if (details != null && details.room != null) {
-                        StringBuilder htmlBuilder = new StringBuilder(
-                                "<html><body style='width: 300px; padding: 5px;'>");
-                        htmlBuilder.append("<h2>").append(details.room.getName()).append("</h2>");
-                        htmlBuilder.append("<p><b>位置:</b> ").append(details.room.getLocation()).append("</p>");
-                        htmlBuilder.append("<p><b>容量:</b> ").append(details.room.getCapacity()).append("人</p>");
-                        htmlBuilder.append("<p><b>状态:</b> ").append(details.room.getStatusText()).append("</p>");
-                        htmlBuilder.append("<p><b>描述:</b> ")
-                                .append(details.room.getDescription().isEmpty() ? "无" : details.room.getDescription())
-                                .append("</p>");
-                        htmlBuilder.append("<hr>");
-                        htmlBuilder.append("<h3>设备列表</h3>");
-                        if (details.equipmentList.isEmpty()) {
-                            htmlBuilder.append("<p>此会议室没有配置任何设备。</p>");
-                        } else {
-                            htmlBuilder.append("<table width='100%' border='0' cellspacing='0' cellpadding='2'>");
-                            htmlBuilder.append("<tr><th>设备名称</th><th>型号</th><th>状态</th></tr>");
-                            for (Equipment eq : details.equipmentList) {
-                                htmlBuilder.append("<tr>");
-                                htmlBuilder.append("<td>").append(eq.getName()).append("</td>");
-                                htmlBuilder.append("<td>").append(eq.getModel() != null ? eq.getModel() : "N/A")
-                                        .append("</td>");
-                                htmlBuilder.append("<td>").append(eq.getStatusText()).append("</td>");
-                                htmlBuilder.append("</tr>");
-                            }
-                            htmlBuilder.append("</table>");
-                        }
-                        htmlBuilder.append("</body></html>");
-                        JEditorPane editorPane = new JEditorPane("text/html", htmlBuilder.toString());
-                        editorPane.setEditable(false);
-                        editorPane.setBackground(UIManager.getColor("Panel.background"));
-                        JScrollPane scrollPane = new JScrollPane(editorPane);
-                        scrollPane.setPreferredSize(new Dimension(450, 300));
-                        JOptionPane.showMessageDialog(RoomStatusPanel.this, scrollPane, "会议室详情",
-                                JOptionPane.INFORMATION_MESSAGE);
-                    } else {
-                        JOptionPane.showMessageDialog(RoomStatusPanel.this, "无法获取会议室详情。", "错误",
-                                JOptionPane.ERROR_MESSAGE);
+            return null;
+        }, details -> {
+            if (details != null && details.room != null) {
+                StringBuilder htmlBuilder = new StringBuilder(
+                        "<html><body style='width: 300px; padding: 5px;'>");
+                htmlBuilder.append("<h2>").append(details.room.getName()).append("</h2>");
+                htmlBuilder.append("<p><b>位置:</b> ").append(details.room.getLocation()).append("</p>");
+                htmlBuilder.append("<p><b>容量:</b> ").append(details.room.getCapacity()).append("人</p>");
+                htmlBuilder.append("<p><b>状态:</b> ").append(details.room.getStatusText()).append("</p>");
+                htmlBuilder.append("<p><b>描述:</b> ")
+                        .append(details.room.getDescription().isEmpty() ? "无" : details.room.getDescription())
+                        .append("</p>");
+                htmlBuilder.append("<hr>");
+                htmlBuilder.append("<h3>设备列表</h3>");
+                if (details.equipmentList.isEmpty()) {
+                    htmlBuilder.append("<p>此会议室没有配置任何设备。</p>");
+                } else {
+                    htmlBuilder.append("<table width='100%' border='0' cellspacing='0' cellpadding='2'>");
+                    htmlBuilder.append("<tr><th>设备名称</th><th>型号</th><th>状态</th></tr>");
+                    for (Equipment eq : details.equipmentList) {
+                        htmlBuilder.append("<tr>");
+                        htmlBuilder.append("<td>").append(eq.getName()).append("</td>");
+                        htmlBuilder.append("<td>").append(eq.getModel() != null ? eq.getModel() : "N/A")
+                                .append("</td>");
+                        htmlBuilder.append("<td>").append(eq.getStatusText()).append("</td>");
+                        htmlBuilder.append("</tr>");
                     }
-                } catch (Exception e) {
-                    JOptionPane.showMessageDialog(RoomStatusPanel.this, "获取详情失败: " + e.getMessage(), "错误",
-                            JOptionPane.ERROR_MESSAGE);
-                    e.printStackTrace();
+                    htmlBuilder.append("</table>");
                 }
+                htmlBuilder.append("</body></html>");
+                JEditorPane editorPane = new JEditorPane("text/html", htmlBuilder.toString());
+                editorPane.setEditable(false);
+                editorPane.setBackground(UIManager.getColor("Panel.background"));
+                JScrollPane scrollPane = new JScrollPane(editorPane);
+                scrollPane.setPreferredSize(new Dimension(450, 300));
+                JOptionPane.showMessageDialog(RoomStatusPanel.this, scrollPane, "会议室详情",
+                        JOptionPane.INFORMATION_MESSAGE);
+            } else {
+                JOptionPane.showMessageDialog(RoomStatusPanel.this, "无法获取会议室详情。", "错误",
+                        JOptionPane.ERROR_MESSAGE);
             }
-        }.execute();
+        }, e -> {
+            JOptionPane.showMessageDialog(RoomStatusPanel.this, "获取详情失败: " + e.getMessage(), "错误",
+                    JOptionPane.ERROR_MESSAGE);
+            e.printStackTrace();
+        });
     }
 
     private void bookRoomById(int roomId, String status) {
-        new SwingWorker<Boolean, Void>() {
-            @Override
-            protected Boolean doInBackground() throws Exception {
-                return meetingRoomDAO.canUserBookRoom(currentUser.getRole(), roomId);
+        // 权限检查由内存中的权限矩阵回答，会议室详情使用批量加载的数据，必要时才查询数据库
+        MeetingRoom loadedRoom = roomsById.get(roomId);
+        tasks.run(() -> {
+            if (!meetingRoomDAO.canUserBookRoom(currentUser.getRole(), roomId)) {
+                return null;
             }
-
-            @Override
-            protected void done() {
-                try {
-                    boolean canBook = get();
-                    if (!canBook) {
-                        JOptionPane.showMessageDialog(RoomStatusPanel.this, "您没有权限预订此会议室。", "无法预约",
-                                JOptionPane.WARNING_MESSAGE);
-                        return;
-                    }
-                    new SwingWorker<MeetingRoom, Void>() {
-                        @Override
-                        protected MeetingRoom doInBackground() throws Exception {
-                            return meetingRoomDAO.getMeetingRoomByIdWithType(roomId);
+            return loadedRoom != null ? loadedRoom : meetingRoomDAO.getMeetingRoomByIdWithType(roomId);
+        }, roomToBook -> {
+            if (roomToBook == null) {
+                JOptionPane.showMessageDialog(RoomStatusPanel.this, "您没有权限预订此会议室。", "无法预约",
+                        JOptionPane.WARNING_MESSAGE);
+                return;
+            }
+            ReservationDialog dialog = new ReservationDialog(
+                    (Frame) SwingUtilities.getWindowAncestor(RoomStatusPanel.this),
+                    currentUser, roomToBook, null, (saved) -> {
+                        if (saved) {
+                            loadRoomStatus();
                         }
+                    });
+            dialog.setVisible(true);
+        }, e -> JOptionPane.showMessageDialog(RoomStatusPanel.this, "无法打开预订窗口: " + e.getMessage(), "错误",
+                JOptionPane.ERROR_MESSAGE));
+    }
 
-                        @Override
-                        protected void done() {
-                            try {
-                                MeetingRoom roomToBook = get();
-                                if (roomToBook != null) {
-                                    ReservationDialog dialog = new ReservationDialog(
-                                            (Frame) SwingUtilities.getWindowAncestor(RoomStatusPanel.this),
-                                            currentUser, roomToBook, null, (saved) -> {
-                                                if (saved) {
-                                                    loadRoomStatus();
-                                                }
-                                            });
-                                    dialog.setVisible(true);
-                                }
-                            } catch (Exception e) {
-                                JOptionPane.showMessageDialog(RoomStatusPanel.this, "无法打开预订窗口: " + e.getMessage(), "错误",
-                                        JOptionPane.ERROR_MESSAGE);
-                            }
-                        }
-                    }.execute();
-                } catch (Exception e) {
-                    JOptionPane.showMessageDialog(RoomStatusPanel.this, "权限检查失败: " + e.getMessage(), "错误",
-                            JOptionPane.ERROR_MESSAGE);
+    private void loadRoomStatus() {
+        freshness.markLoading();
+        long loadStartedAt = System.currentTimeMillis();
+        tasks.run(() -> {
+            RoomStatusData data = new RoomStatusData();
+            // 一次查询得到当前角色可见的会议室、当前预订和预订权限，按会议室ID建立映射
+            data.statuses.addAll(meetingRoomDAO.getAccessibleMeetingRoomsWithStatus(currentUser.getRole()));
+            for (MeetingRoomDAO.MeetingRoomStatusDTO statusDTO : data.statuses) {
+                data.roomsById.put(statusDTO.getRoomId(), statusDTO.getRoom());
+                if (statusDTO.isBookable()) {
+                    data.bookableRoomIds.add(statusDTO.getRoomId());
                 }
             }
-        }.execute();
+
+            // 一次性加载所有设备，卡片创建时不再访问数据库
+            data.equipmentByRoomId = equipmentDAO.getEquipmentGroupedByRoomId();
+            return data;
+        }, data -> {
+            roomsById = data.roomsById;
+            equipmentByRoomId = data.equipmentByRoomId;
+            bookableRoomIds = data.bookableRoomIds;
+            roomStatusList = data.statuses; // Store the full list
+            statusLoadedAt = loadStartedAt;
+            cardListModel.setRooms(roomStatusList, currentStatusFilter);
+        }, e -> {
+            e.printStackTrace();
+            JOptionPane.showMessageDialog(RoomStatusPanel.this, "加载会议室状态失败: " + e.getMessage(), "错误",
+                    JOptionPane.ERROR_MESSAGE);
+        });
     }
 
-    private void updateBookButtonState(JButton bookBtn, int roomId, String status) {
-        bookBtn.setEnabled(false);
-        new SwingWorker<Boolean, Void>() {
-            @Override
-            protected Boolean doInBackground() throws Exception {
-                return meetingRoomDAO.canUserBookRoom(currentUser.getRole(), roomId);
-            }
+    /**
+     * 一次批量加载得到的面板数据。
+     */
+    private static class RoomStatusData {
+        final List<MeetingRoomDAO.MeetingRoomStatusDTO> statuses = new ArrayList<>();
+        final Map<Integer, MeetingRoom> roomsById = new HashMap<>();
+        Map<Integer, List<Equipment>> equipmentByRoomId = new HashMap<>();
+        final Set<Integer> bookableRoomIds = new HashSet<>();
+    }
 
-            @Override
-            protected void done() {
-                try {
-                    boolean canBook = get();
-                    bookBtn.setEnabled(canBook);
-                } catch (Exception e) {
-                    bookBtn.setEnabled(false);
-                }
+    /**
+     * 会议室卡片列表模型，保存全部会议室，按状态筛选时只重新计算可见的下标。
+     */
+    private static class RoomCardListModel extends AbstractListModel<MeetingRoomDAO.MeetingRoomStatusDTO> {
+        private List<MeetingRoomDAO.MeetingRoomStatusDTO> allRooms = new ArrayList<>();
+        private List<MeetingRoomDAO.MeetingRoomStatusDTO> visibleRooms = new ArrayList<>();
+        private String statusFilter = "全部";
+
+        void setRooms(List<MeetingRoomDAO.MeetingRoomStatusDTO> rooms, String filter) {
+            allRooms = rooms;
+            setFilter(filter);
+        }
+
+        void setFilter(String filter) {
+            statusFilter = filter;
+            int oldSize = visibleRooms.size();
+            if (filter == null || filter.equals("全部")) {
+                visibleRooms = allRooms;
+            } else {
+                visibleRooms = allRooms.stream()
+                        .filter(dto -> filter.equals(dto.getStatus()))
+                        .collect(Collectors.toList());
+            }
+            if (oldSize > 0) {
+                fireIntervalRemoved(this, 0, oldSize - 1);
+            }
+            if (!visibleRooms.isEmpty()) {
+                fireIntervalAdded(this, 0, visibleRooms.size() - 1);
             }
-        }.execute();
+        }
+
+        @Override
+        public int getSize() {
+            return visibleRooms.size();
+        }
+
+        @Override
+        public MeetingRoomDAO.MeetingRoomStatusDTO getElementAt(int index) {
+            return visibleRooms.get(index);
+        }
     }
 
-    private void loadRoomStatus() {
-        new SwingWorker<List<MeetingRoomDAO.MeetingRoomStatusDTO>, Void>() {
-            @Override
-            protected List<MeetingRoomDAO.MeetingRoomStatusDTO> doInBackground() throws Exception {
-                // 根据用户角色获取可访问的会议室
-                List<MeetingRoom> accessibleRooms = meetingRoomDAO.getAccessibleMeetingRooms(currentUser.getRole());
-
-                // 获取所有会议室的完整状态信息
-                List<MeetingRoomDAO.MeetingRoomStatusDTO> allRoomStatuses = meetingRoomDAO
-                        .getAllMeetingRoomsWithStatus();
-
-                // 过滤出用户有权限访问的会议室
-                List<MeetingRoomDAO.MeetingRoomStatusDTO> accessibleRoomStatuses = new ArrayList<>();
-                for (MeetingRoomDAO.MeetingRoomStatusDTO statusDTO : allRoomStatuses) {
-                    for (MeetingRoom accessibleRoom : accessibleRooms) {
-                        if (accessibleRoom.getRoomId() == statusDTO.getRoomId()) {
-                            accessibleRoomStatuses.add(statusDTO);
-                            break;
-                        }
-                    }
-                }
+    /**
+     * 会议室卡片渲染器。只有一组组件，绘制每张卡片前按该卡片的数据重新设置内容。
+     */
+    private class RoomCardRenderer implements ListCellRenderer<MeetingRoomDAO.MeetingRoomStatusDTO> {
+        final JPanel card = new JPanel(new BorderLayout());
+        final JLabel nameLabel = new JLabel();
+        final JLabel statusValue;
+        final JLabel subjectValue;
+        final JLabel timeValue;
+        final JPanel roomInfoPanel = new JPanel();
+        final JLabel capacityValue;
+        final JLabel locationValue;
+        final JLabel typeValue;
+        final JLabel descriptionValue;
+        final JLabel equipmentValue;
+        final JButton detailsBtn = new JButton("查看详情");
+        final JButton bookBtn = new JButton("预约会议室");
+
+        RoomCardRenderer() {
+            // 使用UIManager获取主题色
+            final Color borderColor = UIManager.getColor("Separator.foreground");
+            final Color bgColor = UIManager.getColor("Panel.background");
+            final Color titleColor = UIManager.getColor("Label.foreground");
+            final Color infoColor = UIManager.getColor("Label.foreground");
+            final Color subInfoColor = UIManager.getColor("Label.disabledForeground");
+            // 外层空白边框形成卡片之间的间距
+            card.setBorder(BorderFactory.createCompoundBorder(new EmptyBorder(12, 12, 12, 12),
+                    BorderFactory.createCompoundBorder(
+                            BorderFactory.createLineBorder(borderColor != null ? borderColor : Color.GRAY, 2, true),
+                            new EmptyBorder(16, 20, 16, 20))));
+            card.setBackground(bgColor != null ? bgColor : Color.WHITE);
+            card.setOpaque(false);
+
+            // 标题区
+            nameLabel.setFont(new Font("微软雅黑", Font.BOLD, 18));
+            nameLabel.setForeground(titleColor != null ? titleColor : Color.BLACK);
+            card.add(nameLabel, BorderLayout.NORTH);
+
+            // 信息区
+            JPanel infoPanel = new JPanel();
+            infoPanel.setLayout(new BoxLayout(infoPanel, BoxLayout.Y_AXIS));
+            infoPanel.setOpaque(false);
+            Color info = infoColor != null ? infoColor : Color.DARK_GRAY;
+            statusValue = addInfoLine(infoPanel, "状态:", info);
+            subjectValue = addInfoLine(infoPanel, "当前会议:", info);
+            timeValue = addInfoLine(infoPanel, "预订时间:", info);
+            infoPanel.add(Box.createVerticalStrut(6));
+            infoPanel.add(new JSeparator());
+
+            roomInfoPanel.setLayout(new BoxLayout(roomInfoPanel, BoxLayout.Y_AXIS));
+            roomInfoPanel.setOpaque(false);
+            Color subInfo = subInfoColor != null ? subInfoColor : Color.GRAY;
+            capacityValue = addInfoLine(roomInfoPanel, "容量:", subInfo);
+            locationValue = addInfoLine(roomInfoPanel, "位置:", subInfo);
+            typeValue = addInfoLine(roomInfoPanel, "类型:", subInfo);
+            descriptionValue = addInfoLine(roomInfoPanel, "描述:", subInfo);
+            equipmentValue = addInfoLine(roomInfoPanel, "主要设备:", subInfo);
+            infoPanel.add(roomInfoPanel);
+            card.add(infoPanel, BorderLayout.CENTER);
+
+            // 按钮区
+            JPanel btnPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 0));
+            btnPanel.setOpaque(false);
+            detailsBtn.setFont(new Font("微软雅黑", Font.PLAIN, 14));
+            bookBtn.setFont(new Font("微软雅黑", Font.PLAIN, 14));
+            btnPanel.add(detailsBtn);
+            btnPanel.add(bookBtn);
+            card.add(btnPanel, BorderLayout.SOUTH);
+        }
 
-                return accessibleRoomStatuses;
-            }
+        private JLabel addInfoLine(JPanel parent, String label, Color fg) {
+            JPanel p = new JPanel(new FlowLayout(FlowLayout.LEFT, 0, 0));
+            p.setOpaque(false);
+            p.setAlignmentX(Component.LEFT_ALIGNMENT);
+            JLabel l1 = new JLabel(label);
+            l1.setForeground(fg);
+            l1.setFont(new Font("微软雅黑", Font.PLAIN, 14));
+            JLabel l2 = new JLabel(" ");
+            l2.setForeground(fg);
+            l2.setFont(new Font("微软雅黑", Font.PLAIN, 14));
+            p.add(l1);
+            p.add(Box.createHorizontalStrut(6));
+            p.add(l2);
+            parent.add(p);
+            return l2;
+        }
 
-            @Override
-            protected void done() {
-                try {
-                    roomStatusList = get(); // Store the full list
-                    applyFilters(); // Apply current filters to populate the table
-                } catch (Exception e) {
-                    e.printStackTrace();
-                    JOptionPane.showMessageDialog(RoomStatusPanel.this, "加载会议室状态失败: " + e.getMessage(), "错误",
-                            JOptionPane.ERROR_MESSAGE);
-                }
+        // 所有卡片高度相同，按包含完整信息的卡片计算
+        int getPreferredCardHeight() {
+            roomInfoPanel.setVisible(true);
+            return card.getPreferredSize().height;
+        }
+
+        @Override
+        public Component getListCellRendererComponent(JList<? extends MeetingRoomDAO.MeetingRoomStatusDTO> list,
+                MeetingRoomDAO.MeetingRoomStatusDTO dto, int index, boolean isSelected, boolean cellHasFocus) {
+            nameLabel.setText(dto.getRoomName() + " (ID: " + dto.getRoomId() + ")");
+            statusValue.setText(dto.getStatus());
+            subjectValue.setText(dto.getCurrentBookingSubject() != null ? dto.getCurrentBookingSubject() : "—");
+            timeValue.setText(dto.getCurrentBookingTime() != null && !dto.getCurrentBookingTime().isEmpty()
+                    ? dto.getCurrentBookingTime()
+                    : "—");
+
+            // 数据已在 loadRoomStatus 中批量加载，这里不再访问数据库
+            MeetingRoom room = roomsById.get(dto.getRoomId());
+            roomInfoPanel.setVisible(room != null);
+            if (room != null) {
+                capacityValue.setText(room.getCapacity() + "人");
+                locationValue.setText(room.getLocation());
+                typeValue.setText(room.getRoomTypeCode() != null ? room.getRoomTypeCode() : "—");
+                descriptionValue.setText(room.getDescription() != null && !room.getDescription().isEmpty()
+                        ? room.getDescription()
+                        : "—");
+                equipmentValue.setText(summarizeEquipment(equipmentByRoomId.get(dto.getRoomId())));
             }
-        }.execute();
+
+            bookBtn.setEnabled(bookableRoomIds.contains(dto.getRoomId()));
+            detailsBtn.getModel().setRollover(index == hoveredIndex && hoveredButton == detailsBtn);
+            bookBtn.getModel().setRollover(index == hoveredIndex && hoveredButton == bookBtn);
+            return card;
+        }
     }
 
     // Custom renderer to color the status cell
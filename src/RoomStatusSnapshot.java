@@ -0,0 +1,363 @@
+import javax.swing.SwingUtilities;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 会议室实时状态服务。
+ * 一次查询加载所有会议室以及未来一段时间内的已确认预订，在内存中计算每个会议室的当前状态；
+ * 之后在下一个预订开始或结束的时间点重新计算（只用内存中的数据，不访问数据库），而不是固定间隔轮询。
+ * <p>
+ * 数据库只在以下情况整体重新加载：本客户端修改了会议室或预订、超出预加载的时间范围、
+ * 或距上次加载超过重新加载间隔（增量同步未运行时用于感知其他客户端的修改）。
+ * DeltaSyncService 同步到其他客户端的修改时，只重新加载涉及的会议室的预订。
+ * 没有订阅者时服务不做任何事情。订阅者在事件分发线程上收到新的快照。
+ */
+public class RoomStatusSnapshot {
+
+    // 每次加载的预订时间范围
+    private static final long LOOKAHEAD_MILLIS = 12 * 60 * 60 * 1000L;
+    // 最长多久从数据库重新加载一次
+    private static final long RELOAD_INTERVAL_MILLIS = 2 * 60 * 1000L;
+    // 增量同步运行时，其他客户端的修改会通过同步触发重新加载，定期加载只作兜底
+    private static final long SYNCED_RELOAD_INTERVAL_MILLIS = 10 * 60 * 1000L;
+    // 加载失败后的重试间隔
+    private static final long RETRY_DELAY_MILLIS = 30 * 1000L;
+
+    private static final RoomStatusSnapshot SHARED = new RoomStatusSnapshot();
+
+    private final List<Consumer<Snapshot>> subscribers = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService scheduler;
+    private ScheduledFuture<?> scheduledTick;
+
+    // 以下字段只在调度线程上访问
+    private List<MeetingRoom> rooms = new ArrayList<>();
+    private Map<Integer, List<Reservation>> reservationsByRoom = new HashMap<>();
+    private long loadedAt = 0;
+    private long loadedUntil = 0;
+    private long loadedVersion = -1;
+
+    private volatile Snapshot current;
+    // 等待重新加载预订的会议室，以及会议室列表本身是否需要重新读取（由同步线程写入，调度线程取走）
+    private final Set<Integer> pendingRoomIds = ConcurrentHashMap.newKeySet();
+    private volatile boolean pendingRoomList = false;
+    // 有新的刷新请求。tick 开始时清除；tick 期间再次被设置时，tick 结束后立即再运行一次，
+    // 避免结尾的 schedule() 取消掉期间请求的立即刷新
+    private volatile boolean dirty = false;
+
+    /**
+     * 获取全局共享的状态服务。
+     */
+    public static RoomStatusSnapshot getShared() {
+        return SHARED;
+    }
+
+    private RoomStatusSnapshot() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "room-status-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 订阅会议室状态。已有快照时立即（异步）推送一次，之后每次状态变化时推送。
+     *
+     * @param listener 在事件分发线程上调用
+     * @return 用于取消订阅的对象
+     */
+    public Runnable subscribe(Consumer<Snapshot> listener) {
+        subscribers.add(listener);
+        Snapshot snapshot = current;
+        if (snapshot != null) {
+            SwingUtilities.invokeLater(() -> {
+                if (subscribers.contains(listener)) {
+                    listener.accept(snapshot);
+                }
+            });
+        }
+        requestRefresh();
+        return () -> subscribers.remove(listener);
+    }
+
+    /**
+     * 尽快重新计算状态，在本客户端修改了会议室或预订后调用。没有订阅者时忽略。
+     */
+    public void requestRefresh() {
+        if (!subscribers.isEmpty()) {
+            dirty = true;
+            schedule(0);
+        }
+    }
+
+    /**
+     * 重新加载指定会议室的预订后重新计算，用于同步到其他客户端的修改。没有订阅者时忽略。
+     *
+     * @param roomIds         预订发生变化的会议室
+     * @param roomListChanged 会议室本身（名称、状态、增删）是否发生变化
+     */
+    public void reloadRooms(Collection<Integer> roomIds, boolean roomListChanged) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        pendingRoomIds.addAll(roomIds);
+        if (roomListChanged) {
+            pendingRoomList = true;
+        }
+        dirty = true;
+        schedule(0);
+    }
+
+    /**
+     * 获取最近一次计算的快照，尚未计算时返回 null。
+     */
+    public Snapshot getCurrent() {
+        return current;
+    }
+
+    private synchronized void schedule(long delayMillis) {
+        if (scheduledTick != null) {
+            scheduledTick.cancel(false);
+        }
+        scheduledTick = scheduler.schedule(this::tick, Math.max(0, delayMillis), TimeUnit.MILLISECONDS);
+    }
+
+    private void tick() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        dirty = false;
+        long now = System.currentTimeMillis();
+        try {
+            if (needsReload(now)) {
+                pendingRoomIds.clear();
+                pendingRoomList = false;
+                load(now);
+            } else if (pendingRoomList || !pendingRoomIds.isEmpty()) {
+                loadPendingRooms(now);
+            }
+        } catch (SQLException e) {
+            System.err.println("加载会议室实时状态失败: " + e.getMessage());
+            schedule(RETRY_DELAY_MILLIS);
+            return;
+        }
+
+        Snapshot snapshot = compute(now);
+        Snapshot previous = current;
+        current = snapshot;
+        if (previous == null || !previous.sameStatesAs(snapshot)) {
+            for (Consumer<Snapshot> listener : subscribers) {
+                SwingUtilities.invokeLater(() -> {
+                    if (subscribers.contains(listener)) {
+                        listener.accept(snapshot);
+                    }
+                });
+            }
+        }
+
+        long nextRun = Math.min(snapshot.nextChangeAt, Math.min(loadedAt + reloadInterval(), loadedUntil));
+        if (dirty || pendingRoomList || !pendingRoomIds.isEmpty()
+                || loadedVersion != MeetingRoomDAO.getLocalDataVersion()) {
+            // 本次 tick 期间有新的刷新请求
+            nextRun = System.currentTimeMillis();
+        }
+        schedule(nextRun - System.currentTimeMillis());
+    }
+
+    private boolean needsReload(long now) {
+        return loadedVersion != MeetingRoomDAO.getLocalDataVersion()
+                || now - loadedAt >= reloadInterval()
+                || now >= loadedUntil;
+    }
+
+    private static long reloadInterval() {
+        return DeltaSyncService.getShared().isRunning() ? SYNCED_RELOAD_INTERVAL_MILLIS : RELOAD_INTERVAL_MILLIS;
+    }
+
+    private void load(long now) throws SQLException {
+        long version = MeetingRoomDAO.getLocalDataVersion();
+        List<MeetingRoom> loadedRooms = new MeetingRoomDAO().getAllMeetingRoomsWithType();
+        List<Reservation> reservations = new ReservationDAO().getConfirmedReservationsOverlapping(
+                new Timestamp(now), new Timestamp(now + LOOKAHEAD_MILLIS));
+        Map<Integer, List<Reservation>> byRoom = new HashMap<>();
+        for (Reservation r : reservations) {
+            byRoom.computeIfAbsent(r.getRoomId(), id -> new ArrayList<>()).add(r);
+        }
+        rooms = loadedRooms;
+        reservationsByRoom = byRoom;
+        loadedAt = now;
+        loadedUntil = now + LOOKAHEAD_MILLIS;
+        loadedVersion = version;
+    }
+
+    // 只重新读取有变化的会议室的预订；会议室列表来自会议室缓存（已由同步失效），不额外访问数据库
+    private void loadPendingRooms(long now) throws SQLException {
+        // 加载失败时保留待加载的会议室，重试时再加载
+        if (pendingRoomList) {
+            pendingRoomList = false;
+            try {
+                rooms = new MeetingRoomDAO().getAllMeetingRoomsWithType();
+            } catch (SQLException e) {
+                pendingRoomList = true;
+                throw e;
+            }
+        }
+        // 先取走再查询，查询期间新加入的会议室留到下一次
+        List<Integer> roomIds = new ArrayList<>(pendingRoomIds);
+        if (roomIds.isEmpty()) {
+            return;
+        }
+        pendingRoomIds.removeAll(roomIds);
+        List<Reservation> reservations;
+        try {
+            reservations = new ReservationDAO().getConfirmedReservationsOverlapping(roomIds, new Timestamp(now),
+                    new Timestamp(loadedUntil));
+        } catch (SQLException e) {
+            pendingRoomIds.addAll(roomIds);
+            throw e;
+        }
+        Map<Integer, List<Reservation>> byRoom = new HashMap<>(reservationsByRoom);
+        for (Integer roomId : roomIds) {
+            byRoom.remove(roomId);
+        }
+        for (Reservation r : reservations) {
+            byRoom.computeIfAbsent(r.getRoomId(), id -> new ArrayList<>()).add(r);
+        }
+        reservationsByRoom = byRoom;
+    }
+
+    /**
+     * 根据内存中的数据计算 now 时刻的状态，以及之后第一个状态变化的时间点。
+     * 与数据库查询一致，预订在 [startTime, endTime] 内（包含两端）视为使用中，因此结束后 1 毫秒状态才变化。
+     */
+    private Snapshot compute(long now) {
+        Map<Integer, RoomState> states = new HashMap<>();
+        TreeSet<Long> boundaries = new TreeSet<>();
+        for (MeetingRoom room : rooms) {
+            Reservation active = null;
+            for (Reservation r : reservationsByRoom.getOrDefault(room.getRoomId(), Collections.emptyList())) {
+                long start = r.getStartTime().getTime();
+                long end = r.getEndTime().getTime();
+                if (start > now) {
+                    boundaries.add(start);
+                } else if (end >= now) {
+                    boundaries.add(end + 1);
+                    if (active == null) {
+                        active = r;
+                    }
+                }
+            }
+            String subject = active == null ? null : active.getSubject();
+            String bookingTime = active == null ? ""
+                    : MeetingRoomDAO.formatBookingTime(active.getStartTime(), active.getEndTime());
+            states.put(room.getRoomId(), new RoomState(room,
+                    MeetingRoomDAO.toDisplayStatus(room.getStatus(), subject), subject, bookingTime));
+        }
+        long nextChangeAt = boundaries.isEmpty() ? Long.MAX_VALUE : boundaries.first();
+        return new Snapshot(states, now, nextChangeAt);
+    }
+
+    /**
+     * 一个会议室在某一时刻的状态。
+     */
+    public static class RoomState {
+        private final MeetingRoom room;
+        private final String displayStatus;
+        private final String currentBookingSubject;
+        private final String currentBookingTime;
+
+        RoomState(MeetingRoom room, String displayStatus, String currentBookingSubject, String currentBookingTime) {
+            this.room = room;
+            this.displayStatus = displayStatus;
+            this.currentBookingSubject = currentBookingSubject;
+            this.currentBookingTime = currentBookingTime;
+        }
+
+        public MeetingRoom getRoom() {
+            return room;
+        }
+
+        public String getDisplayStatus() {
+            return displayStatus;
+        }
+
+        public String getCurrentBookingSubject() {
+            return currentBookingSubject;
+        }
+
+        public String getCurrentBookingTime() {
+            return currentBookingTime;
+        }
+
+        boolean sameAs(RoomState other) {
+            return displayStatus.equals(other.displayStatus)
+                    && Objects.equals(currentBookingSubject, other.currentBookingSubject)
+                    && currentBookingTime.equals(other.currentBookingTime)
+                    && Objects.equals(room.getName(), other.room.getName());
+        }
+    }
+
+    /**
+     * 某一时刻所有会议室的状态（不可变）。
+     */
+    public static class Snapshot {
+        private final Map<Integer, RoomState> states;
+        private final long computedAt;
+        private final long nextChangeAt;
+
+        Snapshot(Map<Integer, RoomState> states, long computedAt, long nextChangeAt) {
+            this.states = Collections.unmodifiableMap(states);
+            this.computedAt = computedAt;
+            this.nextChangeAt = nextChangeAt;
+        }
+
+        /**
+         * 获取指定会议室的状态，会议室不存在时返回 null。
+         */
+        public RoomState getState(int roomId) {
+            return states.get(roomId);
+        }
+
+        public Map<Integer, RoomState> getStates() {
+            return states;
+        }
+
+        public long getComputedAt() {
+            return computedAt;
+        }
+
+        /**
+         * 下一次状态变化的时间点，预加载范围内没有变化时为 Long.MAX_VALUE。
+         */
+        public long getNextChangeAt() {
+            return nextChangeAt;
+        }
+
+        boolean sameStatesAs(Snapshot other) {
+            if (!states.keySet().equals(other.states.keySet())) {
+                return false;
+            }
+            for (Map.Entry<Integer, RoomState> entry : states.entrySet()) {
+                if (!entry.getValue().sameAs(other.states.get(entry.getKey()))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -27,6 +27,12 @@ public class RoomType {
         this.description = description;
     }
 
+    // 复制构造函数
+    public RoomType(RoomType other) {
+        this(other.roomTypeId, other.typeName, other.typeCode, other.description, other.createTime,
+                other.updateTime);
+    }
+
     // Getters
     public int getRoomTypeId() {
         return roomTypeId;
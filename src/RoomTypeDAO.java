@@ -7,13 +7,18 @@ import java.util.List;
  * 用于管理会议室类型的数据库操作
  */
 public class RoomTypeDAO {
-    private static final String URL = "jdbc:mysql://117.72.60.69:3306/conference_room_booking";
-    private static final String USER = "conference_room_booking";
-    private static final String PASSWORD = "rainknows";
-
-    // 获取数据库连接
+    // 会议室类型只在管理员修改时变化，缓存后由增删改方法精确失效；其他客户端的修改通过有效期感知
+    private static final long TYPE_CACHE_TTL_MILLIS = 10 * 60 * 1000L;
+    private static final ReadThroughCache<Integer, RoomType> TYPE_CACHE = new ReadThroughCache<>(
+            "RoomType", 100, TYPE_CACHE_TTL_MILLIS, RoomType::new);
+    private static final ReadThroughCache<String, RoomType> TYPE_BY_CODE_CACHE = new ReadThroughCache<>(
+            "RoomTypeByCode", 100, TYPE_CACHE_TTL_MILLIS, RoomType::new);
+    private static final ReadThroughCache<Boolean, List<RoomType>> TYPE_LIST_CACHE = new ReadThroughCache<>(
+            "RoomTypeList", 1, TYPE_CACHE_TTL_MILLIS, RoomTypeDAO::copyRoomTypes);
+
+    // 获取数据库连接（与其他 DAO 共用同一个连接池）
     public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(URL, USER, PASSWORD);
+        return UserDAO.getConnection();
     }
 
     // 关闭资源
@@ -30,10 +35,22 @@ public class RoomTypeDAO {
         }
     }
 
+    private static List<RoomType> copyRoomTypes(List<RoomType> roomTypes) {
+        List<RoomType> copy = new ArrayList<>(roomTypes.size());
+        for (RoomType roomType : roomTypes) {
+            copy.add(new RoomType(roomType));
+        }
+        return copy;
+    }
+
     /**
-     * 获取所有会议室类型
+     * 获取所有会议室类型（经过缓存）
      */
     public List<RoomType> getAllRoomTypes() throws SQLException {
+        return TYPE_LIST_CACHE.get(Boolean.TRUE, () -> queryGetAllRoomTypes());
+    }
+
+    private List<RoomType> queryGetAllRoomTypes() throws SQLException {
         List<RoomType> roomTypes = new ArrayList<>();
         String sql = "SELECT * FROM RoomType ORDER BY roomTypeId";
 
@@ -56,9 +73,13 @@ public class RoomTypeDAO {
     }
 
     /**
-     * 根据ID获取会议室类型
+     * 根据ID获取会议室类型（经过缓存）
      */
     public RoomType getRoomTypeById(int roomTypeId) throws SQLException {
+        return TYPE_CACHE.get(roomTypeId, () -> queryGetRoomTypeById(roomTypeId));
+    }
+
+    private RoomType queryGetRoomTypeById(int roomTypeId) throws SQLException {
         String sql = "SELECT * FROM RoomType WHERE roomTypeId = ?";
 
         try (Connection conn = getConnection();
@@ -82,9 +103,13 @@ public class RoomTypeDAO {
     }
 
     /**
-     * 根据类型代码获取会议室类型
+     * 根据类型代码获取会议室类型（经过缓存）
      */
     public RoomType getRoomTypeByCode(String typeCode) throws SQLException {
+        return TYPE_BY_CODE_CACHE.get(typeCode, () -> queryGetRoomTypeByCode(typeCode));
+    }
+
+    private RoomType queryGetRoomTypeByCode(String typeCode) throws SQLException {
         String sql = "SELECT * FROM RoomType WHERE typeCode = ?";
 
         try (Connection conn = getConnection();
@@ -121,6 +146,10 @@ public class RoomTypeDAO {
             pstmt.setString(3, roomType.getDescription());
 
             int affectedRows = pstmt.executeUpdate();
+            if (affectedRows > 0) {
+                TYPE_LIST_CACHE.invalidateAll();
+                TYPE_BY_CODE_CACHE.invalidate(roomType.getTypeCode());
+            }
             return affectedRows > 0;
         }
     }
@@ -141,6 +170,14 @@ public class RoomTypeDAO {
             pstmt.setInt(4, roomType.getRoomTypeId());
 
             int affectedRows = pstmt.executeUpdate();
+            if (affectedRows > 0) {
+                TYPE_CACHE.invalidate(roomType.getRoomTypeId());
+                // 类型代码可能被修改，旧代码对应的缓存项无法确定，全部失效
+                TYPE_BY_CODE_CACHE.invalidateAll();
+                TYPE_LIST_CACHE.invalidateAll();
+                PermissionMatrix.getShared().invalidate();
+                MeetingRoomDAO.invalidateRoomCache();
+            }
             return affectedRows > 0;
         }
     }
@@ -171,6 +208,13 @@ public class RoomTypeDAO {
             pstmt.setInt(1, roomTypeId);
 
             int affectedRows = pstmt.executeUpdate();
+            if (affectedRows > 0) {
+                TYPE_CACHE.invalidate(roomTypeId);
+                TYPE_BY_CODE_CACHE.invalidateAll();
+                TYPE_LIST_CACHE.invalidateAll();
+                PermissionMatrix.getShared().invalidate();
+                MeetingRoomDAO.invalidateRoomCache();
+            }
             return affectedRows > 0;
         }
     }
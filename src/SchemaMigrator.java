@@ -0,0 +1,384 @@
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * 数据库结构迁移工具。
+ * 按版本号顺序执行尚未应用的迁移，并在 SchemaVersion 表中记录已应用的版本。
+ * 每个迁移在执行前都会检查目标结构是否已存在，因此可以重复执行（例如多个客户端同时启动）。
+ * <p>
+ * 启动时会检查关键索引是否存在，缺失时在控制台给出警告。
+ * 也可以单独运行本类的 main 方法，对本地的 MySQL/H2 数据库执行迁移。
+ */
+public class SchemaMigrator {
+
+    private static final String VERSION_TABLE = "SchemaVersion";
+
+    // 预订表的时间范围查询依赖的索引
+    private static final List<IndexSpec> REQUIRED_INDEXES = Arrays.asList(
+            new IndexSpec("idx_reservation_room_time", "Reservation", "roomId", "startTime", "endTime"),
+            new IndexSpec("idx_reservation_user_start", "Reservation", "userId", "startTime"),
+            new IndexSpec("idx_reservation_status_start", "Reservation", "status", "startTime"));
+
+    // 所有迁移，按版本号升序排列
+    private static final List<Migration> MIGRATIONS = Arrays.asList(
+            new Migration(1, "为 Reservation 表添加时间范围查询索引", conn -> {
+                for (IndexSpec index : REQUIRED_INDEXES) {
+                    createIndexIfMissing(conn, index);
+                }
+            }),
+            new Migration(ChangeLogDAO.SCHEMA_VERSION, "添加变更日志表 ChangeLog，用于客户端增量同步", conn -> {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.executeUpdate("CREATE TABLE IF NOT EXISTS ChangeLog (" +
+                            "version BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+                            "entityType VARCHAR(32) NOT NULL, " +
+                            "entityId INT NOT NULL, " +
+                            "operation VARCHAR(16) NOT NULL, " +
+                            "roomId INT NULL, " +
+                            "clientId VARCHAR(64) NULL, " +
+                            "changeTime TIMESTAMP DEFAULT CURRENT_TIMESTAMP)");
+                }
+                createIndexIfMissing(conn, new IndexSpec("idx_changelog_time", "ChangeLog", "changeTime"));
+            }),
+            new Migration(ReservationSeriesDAO.SCHEMA_VERSION, "添加重复预订系列表 ReservationSeries 和 Reservation.seriesId",
+                    conn -> {
+                        try (Statement stmt = conn.createStatement()) {
+                            stmt.executeUpdate("CREATE TABLE IF NOT EXISTS ReservationSeries (" +
+                                    "seriesId INT AUTO_INCREMENT PRIMARY KEY, " +
+                                    "userId INT NOT NULL, " +
+                                    "roomId INT NOT NULL, " +
+                                    "subject VARCHAR(255) NULL, " +
+                                    "recurrenceRule VARCHAR(1024) NOT NULL, " +
+                                    "createTime TIMESTAMP DEFAULT CURRENT_TIMESTAMP)");
+                        }
+                        addColumnIfMissing(conn, "Reservation", "seriesId", "INT NULL");
+                        createIndexIfMissing(conn, new IndexSpec("idx_reservation_series", "Reservation", "seriesId"));
+                    }),
+            new Migration(ReservationDAO.GROUP_SCHEMA_VERSION, "添加 Reservation.groupKey，关联同一次联合预订的多个会议室",
+                    conn -> {
+                        addColumnIfMissing(conn, "Reservation", "groupKey", "VARCHAR(36) NULL");
+                        createIndexIfMissing(conn, new IndexSpec("idx_reservation_group", "Reservation", "groupKey"));
+                    }));
+
+    // 已应用的最高版本，-1 表示尚未读取；低于最新迁移时每隔 VERSION_RECHECK_MILLIS 重新读取一次，
+    // 以便感知由其他客户端或管理员单独执行的迁移
+    private static final long VERSION_RECHECK_MILLIS = 30 * 1000L;
+    private static final int LATEST_VERSION = MIGRATIONS.get(MIGRATIONS.size() - 1).version;
+    private static volatile int currentVersion = -1;
+    private static volatile long versionCheckedAt = 0;
+
+    /**
+     * 执行所有尚未应用的迁移。
+     *
+     * @return 本次应用的迁移数量
+     * @throws SQLException 数据库访问异常
+     */
+    public static int migrate() throws SQLException {
+        int applied = 0;
+        try (Connection conn = UserDAO.getConnection()) {
+            ensureVersionTable(conn);
+            Set<Integer> appliedVersions = loadAppliedVersions(conn);
+            for (Migration migration : MIGRATIONS) {
+                if (appliedVersions.contains(migration.version)) {
+                    continue;
+                }
+                migration.step.apply(conn);
+                if (recordVersion(conn, migration)) {
+                    applied++;
+                    System.out.println("已应用数据库迁移 V" + migration.version + ": " + migration.description);
+                }
+            }
+            currentVersion = loadAppliedVersions(conn).stream().mapToInt(Integer::intValue).max().orElse(0);
+            versionCheckedAt = System.currentTimeMillis();
+        }
+        return applied;
+    }
+
+    /**
+     * 获取数据库当前已应用的最高迁移版本。
+     * 与是否由本客户端执行迁移无关（例如 -Ddb.migrate=false，或缺少 DDL 权限、由管理员单独执行迁移）：
+     * 尚未读取或低于最新迁移时，从 SchemaVersion 表读取。数据库无法访问时返回 -1。
+     */
+    public static int getCurrentVersion() {
+        int version = currentVersion;
+        if (version >= LATEST_VERSION || System.currentTimeMillis() - versionCheckedAt < VERSION_RECHECK_MILLIS) {
+            return version;
+        }
+        return reloadCurrentVersion();
+    }
+
+    private static synchronized int reloadCurrentVersion() {
+        if (System.currentTimeMillis() - versionCheckedAt < VERSION_RECHECK_MILLIS) {
+            return currentVersion;
+        }
+        try (Connection conn = UserDAO.getConnection()) {
+            int version = hasTable(conn, VERSION_TABLE)
+                    ? loadAppliedVersions(conn).stream().mapToInt(Integer::intValue).max().orElse(0)
+                    : 0;
+            // 迁移可能在读取期间完成，不降低已知的版本
+            currentVersion = Math.max(currentVersion, version);
+        } catch (SQLException e) {
+            System.err.println("读取数据库结构版本失败: " + e.getMessage());
+        }
+        versionCheckedAt = System.currentTimeMillis();
+        return currentVersion;
+    }
+
+    /**
+     * 检查关键索引是否存在。
+     *
+     * @return 缺失的索引列表，全部存在时为空
+     * @throws SQLException 数据库访问异常
+     */
+    public static List<IndexSpec> findMissingIndexes() throws SQLException {
+        List<IndexSpec> missing = new ArrayList<>();
+        try (Connection conn = UserDAO.getConnection()) {
+            for (IndexSpec index : REQUIRED_INDEXES) {
+                if (!hasIndex(conn, index)) {
+                    missing.add(index);
+                }
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * 启动检查：按配置执行迁移（默认开启，可用 -Ddb.migrate=false 关闭），然后检查关键索引，缺失时打印警告。
+     * 任何异常都只记录日志，不影响程序启动。
+     */
+    public static void runStartupCheck() {
+        if (Boolean.parseBoolean(System.getProperty("db.migrate", "true"))) {
+            try {
+                migrate();
+            } catch (SQLException e) {
+                System.err.println("数据库迁移失败（可能缺少 DDL 权限），请由管理员执行 SchemaMigrator: " + e.getMessage());
+            }
+        }
+        try {
+            List<IndexSpec> missing = findMissingIndexes();
+            for (IndexSpec index : missing) {
+                System.err.println("警告：缺少索引 " + index + "，相关查询将进行全表扫描");
+            }
+        } catch (SQLException e) {
+            System.err.println("检查数据库索引失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 单独执行迁移，例如：
+     * java -cp "out:lib/*" -Ddb.url=jdbc:mysql://localhost:3306/conference_room_booking SchemaMigrator
+     */
+    public static void main(String[] args) throws SQLException {
+        int applied = migrate();
+        System.out.println("迁移完成，本次应用 " + applied + " 个迁移，当前版本 V" + currentVersion);
+        List<IndexSpec> missing = findMissingIndexes();
+        System.out.println(missing.isEmpty() ? "关键索引检查通过" : "仍缺少索引: " + missing);
+        UserDAO.getConnectionPool().shutdown();
+    }
+
+    // --- 内部实现 ---
+
+    private static void ensureVersionTable(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("CREATE TABLE IF NOT EXISTS " + VERSION_TABLE + " (" +
+                    "version INT PRIMARY KEY, " +
+                    "description VARCHAR(255) NOT NULL, " +
+                    "appliedTime TIMESTAMP DEFAULT CURRENT_TIMESTAMP)");
+        }
+    }
+
+    private static Set<Integer> loadAppliedVersions(Connection conn) throws SQLException {
+        Set<Integer> versions = new HashSet<>();
+        try (Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery("SELECT version FROM " + VERSION_TABLE)) {
+            while (rs.next()) {
+                versions.add(rs.getInt(1));
+            }
+        }
+        return versions;
+    }
+
+    /**
+     * 记录迁移版本。其他客户端同时完成同一迁移时插入会因主键重复失败，此时视为已记录。
+     *
+     * @return 是否由本次调用记录
+     */
+    private static boolean recordVersion(Connection conn, Migration migration) throws SQLException {
+        String sql = "INSERT INTO " + VERSION_TABLE + " (version, description) VALUES (?, ?)";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, migration.version);
+            pstmt.setString(2, migration.description);
+            pstmt.executeUpdate();
+            return true;
+        } catch (SQLException e) {
+            if (loadAppliedVersions(conn).contains(migration.version)) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    private static void createIndexIfMissing(Connection conn, IndexSpec index) throws SQLException {
+        if (hasIndex(conn, index)) {
+            return;
+        }
+        String sql = "CREATE INDEX " + index.name + " ON " + index.table + " (" + String.join(", ", index.columns)
+                + ")";
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate(sql);
+        } catch (SQLException e) {
+            // 其他客户端可能刚刚创建了同一个索引
+            if (!hasIndex(conn, index)) {
+                throw e;
+            }
+        }
+    }
+
+    private static void addColumnIfMissing(Connection conn, String table, String column, String definition)
+            throws SQLException {
+        if (hasColumn(conn, table, column)) {
+            return;
+        }
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("ALTER TABLE " + table + " ADD COLUMN " + column + " " + definition);
+        } catch (SQLException e) {
+            // 其他客户端可能刚刚添加了同一列
+            if (!hasColumn(conn, table, column)) {
+                throw e;
+            }
+        }
+    }
+
+    private static boolean hasColumn(Connection conn, String table, String column) throws SQLException {
+        DatabaseMetaData meta = conn.getMetaData();
+        for (String name : new String[] { table, table.toUpperCase(Locale.ROOT), table.toLowerCase(Locale.ROOT) }) {
+            try (ResultSet rs = meta.getColumns(conn.getCatalog(), null, name, null)) {
+                while (rs.next()) {
+                    if (column.equalsIgnoreCase(rs.getString("COLUMN_NAME"))) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasTable(Connection conn, String table) throws SQLException {
+        DatabaseMetaData meta = conn.getMetaData();
+        for (String name : new String[] { table, table.toUpperCase(Locale.ROOT), table.toLowerCase(Locale.ROOT) }) {
+            try (ResultSet rs = meta.getTables(conn.getCatalog(), null, name, null)) {
+                if (rs.next()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 判断表上是否存在以指定列为前缀的索引（不要求索引名相同）。
+     */
+    private static boolean hasIndex(Connection conn, IndexSpec index) throws SQLException {
+        DatabaseMetaData meta = conn.getMetaData();
+        // 不同数据库对未加引号的表名大小写处理不同（MySQL 保留原样，H2 转为大写）
+        for (String table : new String[] { index.table, index.table.toUpperCase(Locale.ROOT),
+                index.table.toLowerCase(Locale.ROOT) }) {
+            Map<String, TreeMap<Integer, String>> indexColumns = new LinkedHashMap<>();
+            try (ResultSet rs = meta.getIndexInfo(conn.getCatalog(), null, table, false, true)) {
+                while (rs.next()) {
+                    String indexName = rs.getString("INDEX_NAME");
+                    String column = rs.getString("COLUMN_NAME");
+                    if (indexName == null || column == null) {
+                        continue;
+                    }
+                    indexColumns.computeIfAbsent(indexName, k -> new TreeMap<>())
+                            .put((int) rs.getShort("ORDINAL_POSITION"), column);
+                }
+            }
+            for (TreeMap<Integer, String> columns : indexColumns.values()) {
+                if (startsWithColumns(new ArrayList<>(columns.values()), index.columns)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean startsWithColumns(List<String> indexColumns, List<String> required) {
+        if (indexColumns.size() < required.size()) {
+            return false;
+        }
+        for (int i = 0; i < required.size(); i++) {
+            if (!indexColumns.get(i).equalsIgnoreCase(required.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 迁移的执行内容。
+     */
+    private interface MigrationStep {
+        void apply(Connection conn) throws SQLException;
+    }
+
+    /**
+     * 一个带版本号的迁移。
+     */
+    private static class Migration {
+        final int version;
+        final String description;
+        final MigrationStep step;
+
+        Migration(int version, String description, MigrationStep step) {
+            this.version = version;
+            this.description = description;
+            this.step = step;
+        }
+    }
+
+    /**
+     * 索引定义。
+     */
+    public static class IndexSpec {
+        private final String name;
+        private final String table;
+        private final List<String> columns;
+
+        IndexSpec(String name, String table, String... columns) {
+            this.name = name;
+            this.table = table;
+            this.columns = Arrays.asList(columns);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getTable() {
+            return table;
+        }
+
+        public List<String> getColumns() {
+            return columns;
+        }
+
+        @Override
+        public String toString() {
+            return name + " ON " + table + "(" + String.join(", ", columns) + ")";
+        }
+    }
+}
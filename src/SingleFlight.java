@@ -0,0 +1,115 @@
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * 合并相同的并发读取请求。
+ * 同一个键的请求正在执行时，后来的调用方不再发起新的查询，而是等待并共享第一个请求的结果；
+ * 请求完成后立即移除，不做缓存。
+ * <p>
+ * 第一个调用方的任务被取消（见 StatementScope）导致失败时，等待者不会收到这个失败，而是重新发起查询。
+ * 在写操作之后调用 forget()，之后的读取不会合并到写操作之前开始的查询上。
+ *
+ * @param <K> 请求的键，需要正确实现 equals/hashCode
+ * @param <V> 查询结果，会被所有等待者共享
+ */
+public class SingleFlight<K, V> {
+
+    /**
+     * 实际执行的查询。
+     */
+    public interface Loader<V> {
+        V load() throws SQLException;
+    }
+
+    private final ConcurrentHashMap<K, Call<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * 执行查询；同一个键已有查询在执行时等待其结果。
+     *
+     * @param key    请求的键
+     * @param loader 查询
+     * @return 查询结果（可能与其他调用方共享同一个对象）
+     * @throws SQLException 查询失败，或等待时线程被中断
+     */
+    public V execute(K key, Loader<V> loader) throws SQLException {
+        while (true) {
+            Call<V> call = new Call<>();
+            Call<V> existing = inFlight.putIfAbsent(key, call);
+            if (existing == null) {
+                return runAsLeader(key, call, loader);
+            }
+            V result = await(existing);
+            if (!existing.abandoned) {
+                return result;
+            }
+            // 第一个调用方被取消，重新发起查询
+        }
+    }
+
+    /**
+     * 放弃所有正在执行的查询的合并：它们仍会把结果返回给已经在等待的调用方，
+     * 但之后的调用会发起新的查询。在修改相关数据后调用。
+     */
+    public void forget() {
+        inFlight.clear();
+    }
+
+    /**
+     * 正在执行的查询数量。
+     */
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    private V runAsLeader(K key, Call<V> call, Loader<V> loader) throws SQLException {
+        try {
+            V result = loader.load();
+            call.future.complete(result);
+            return result;
+        } catch (SQLException | RuntimeException | Error e) {
+            StatementScope scope = StatementScope.current();
+            call.abandoned = scope != null && scope.isCancelled();
+            call.future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    private V await(Call<V> call) throws SQLException {
+        try {
+            return call.future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("等待数据库查询结果时线程被中断", e);
+        } catch (ExecutionException e) {
+            if (call.abandoned) {
+                return null;
+            }
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException) {
+                // 包装一层，保留等待者自己的调用栈
+                SQLException original = (SQLException) cause;
+                throw new SQLException(original.getMessage(), original.getSQLState(), original.getErrorCode(),
+                        original);
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new SQLException(cause);
+        }
+    }
+
+    /**
+     * 一次正在执行的查询。
+     */
+    private static class Call<V> {
+        final CompletableFuture<V> future = new CompletableFuture<>();
+        volatile boolean abandoned = false;
+    }
+}
@@ -0,0 +1,133 @@
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 最早可用时间段查找：在所有满足条件且当前用户可以预订的会议室中，
+ * 找出不早于指定时间、长度为指定时长的第一个空闲时间段，例如“周二 10:00 之后第一个有投影仪的一小时”。
+ * <p>
+ * 每个会议室的预订区间在索引中按开始时间排序，逐个会议室从起始时间向后扫描，遇到足够长的空档即停止；
+ * 已找到的最早时间作为之后会议室的扫描上限，因此大部分会议室只需查看少量区间。
+ * 候选会议室与 FreeRoomFinder 相同（权限矩阵、会议室条件、设备索引）。
+ * 共享的预订区间索引无法覆盖起始时间时，用一次查询取出候选会议室在查找范围内的预订，建立临时索引后同样扫描。
+ * <p>
+ * 查找结果只用于展示，保存预订时仍由 ReservationDAO 在数据库中做最终的冲突检查。
+ */
+public class SlotFinder {
+
+    // 默认最多向后查找的天数
+    public static final int DEFAULT_SEARCH_DAYS = 14;
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+
+    private final FreeRoomFinder freeRoomFinder = new FreeRoomFinder();
+    private final ReservationDAO reservationDAO = new ReservationDAO();
+
+    /**
+     * 查找最早的可用时间段，最多向后查找 DEFAULT_SEARCH_DAYS 天。
+     *
+     * @param userRole  用户角色
+     * @param notBefore 最早的开始时间
+     * @param duration  时长（毫秒）
+     * @param criteria  会议室条件
+     * @return 最早的时间段；查找范围内没有时返回 null
+     * @throws SQLException 数据库访问异常
+     */
+    public Slot findEarliestSlot(String userRole, Timestamp notBefore, long duration,
+            FreeRoomFinder.Criteria criteria) throws SQLException {
+        return findEarliestSlot(userRole, notBefore, duration, criteria,
+                new Timestamp(notBefore.getTime() + DEFAULT_SEARCH_DAYS * DAY_MILLIS));
+    }
+
+    /**
+     * 查找最早的可用时间段。
+     *
+     * @param userRole    用户角色
+     * @param notBefore   最早的开始时间
+     * @param duration    时长（毫秒）
+     * @param criteria    会议室条件
+     * @param latestStart 最晚的开始时间
+     * @return 最早的时间段；查找范围内没有时返回 null。多个会议室同时可用时返回容量最接近需求的一个
+     * @throws SQLException 数据库访问异常
+     */
+    public Slot findEarliestSlot(String userRole, Timestamp notBefore, long duration,
+            FreeRoomFinder.Criteria criteria, Timestamp latestStart) throws SQLException {
+        if (duration <= 0) {
+            throw new IllegalArgumentException("时长必须大于 0");
+        }
+        List<MeetingRoom> candidates = freeRoomFinder.getCandidateRooms(userRole, criteria);
+        candidates.sort(FreeRoomFinder.BEST_FIT);
+
+        if (candidates.isEmpty()) {
+            return null;
+        }
+
+        long from = notBefore.getTime();
+        ReservationIntervalIndex index = ReservationIntervalIndex.getShared();
+        if (!index.covers(from)) {
+            List<Integer> roomIds = new ArrayList<>(candidates.size());
+            for (MeetingRoom room : candidates) {
+                roomIds.add(room.getRoomId());
+            }
+            List<Reservation> reservations = reservationDAO.getActiveReservationsOverlapping(roomIds, notBefore,
+                    new Timestamp(latestStart.getTime() + duration));
+            index = new ReservationIntervalIndex();
+            index.load(reservations, from);
+        }
+        return findEarliestSlot(candidates, index, from, duration, latestStart.getTime());
+    }
+
+    /**
+     * 在给定的候选会议室和区间索引上查找，不访问数据库。
+     * 开始时间相同时取候选列表中靠前的会议室。
+     */
+    static Slot findEarliestSlot(List<MeetingRoom> candidates, ReservationIntervalIndex index, long from,
+            long duration, long latestStart) {
+        MeetingRoom bestRoom = null;
+        long bestStart = -1;
+        long limit = latestStart;
+        for (MeetingRoom room : candidates) {
+            long start = index.findEarliestGap(room.getRoomId(), from, duration, limit);
+            if (start < 0) {
+                continue;
+            }
+            bestRoom = room;
+            bestStart = start;
+            if (start == from) {
+                // 不可能更早
+                break;
+            }
+            // 之后的会议室只有严格更早才替换
+            limit = start - 1;
+        }
+        return bestRoom == null ? null
+                : new Slot(bestRoom, new Timestamp(bestStart), new Timestamp(bestStart + duration));
+    }
+
+    /**
+     * 一个可用的时间段。
+     */
+    public static class Slot {
+        private final MeetingRoom room;
+        private final Timestamp startTime;
+        private final Timestamp endTime;
+
+        public Slot(MeetingRoom room, Timestamp startTime, Timestamp endTime) {
+            this.room = room;
+            this.startTime = startTime;
+            this.endTime = endTime;
+        }
+
+        public MeetingRoom getRoom() {
+            return room;
+        }
+
+        public Timestamp getStartTime() {
+            return startTime;
+        }
+
+        public Timestamp getEndTime() {
+            return endTime;
+        }
+    }
+}
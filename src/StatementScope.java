@@ -0,0 +1,130 @@
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 一个后台任务执行期间创建的 JDBC 语句的集合，用于取消任务时中止正在执行的查询。
+ * <p>
+ * 任务执行前通过 enter() 绑定到当前线程，连接池在该线程上创建语句时调用 track() 登记，
+ * 语句关闭时自动注销。cancel() 对所有未关闭的语句调用 Statement.cancel()，
+ * 取消之后再创建语句会直接失败。登记的语句还会设置默认的查询超时时间。
+ */
+public class StatementScope {
+
+    private static final ThreadLocal<StatementScope> CURRENT = new ThreadLocal<>();
+
+    private final Set<Statement> statements = ConcurrentHashMap.newKeySet();
+    private final int queryTimeoutSeconds;
+    private volatile boolean cancelled = false;
+
+    /**
+     * @param queryTimeoutSeconds 登记的语句未设置超时时使用的查询超时（秒），0 表示不限制
+     */
+    public StatementScope(int queryTimeoutSeconds) {
+        this.queryTimeoutSeconds = queryTimeoutSeconds;
+    }
+
+    /**
+     * 获取绑定到当前线程的作用域，没有时返回 null。
+     */
+    public static StatementScope current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 把本作用域绑定到当前线程。
+     *
+     * @return 之前绑定的作用域，需要传给 exit() 恢复
+     */
+    public StatementScope enter() {
+        StatementScope previous = CURRENT.get();
+        CURRENT.set(this);
+        return previous;
+    }
+
+    /**
+     * 解除绑定，恢复 enter() 之前的作用域。
+     */
+    public void exit(StatementScope previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    /**
+     * 取消作用域：中止所有正在执行的语句。
+     * 部分驱动（例如 MySQL）的 cancel() 需要新建连接发送 KILL QUERY，因此不要在事件分发线程上调用。
+     */
+    public void cancel() {
+        cancelled = true;
+        for (Statement statement : statements) {
+            try {
+                statement.cancel();
+            } catch (SQLException e) {
+                // 语句可能刚好执行完毕或已关闭
+            }
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * 正在登记的语句数量。
+     */
+    public int getOpenStatementCount() {
+        return statements.size();
+    }
+
+    /**
+     * 登记一个新创建的语句，返回的代理在关闭时自动注销。
+     *
+     * @param statement 驱动返回的语句
+     * @param type      语句接口（Statement、PreparedStatement 或 CallableStatement）
+     * @throws SQLException 作用域已取消
+     */
+    public Statement track(Statement statement, Class<?> type) throws SQLException {
+        if (cancelled) {
+            statement.close();
+            throw new SQLException("任务已取消");
+        }
+        if (queryTimeoutSeconds > 0 && statement.getQueryTimeout() == 0) {
+            statement.setQueryTimeout(queryTimeoutSeconds);
+        }
+        statements.add(statement);
+        // 取消可能发生在登记之前的一刻
+        if (cancelled) {
+            statements.remove(statement);
+            statement.close();
+            throw new SQLException("任务已取消");
+        }
+
+        InvocationHandler handler = (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "close":
+                    statements.remove(statement);
+                    statement.close();
+                    return null;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    try {
+                        return method.invoke(statement, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+            }
+        };
+        return (Statement) Proxy.newProxyInstance(StatementScope.class.getClassLoader(), new Class<?>[] { type },
+                handler);
+    }
+}
@@ -3,14 +3,28 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class UserDAO {
-    // 数据库连接信息
-    private static final String URL = "jdbc:mysql://117.72.60.69:3306/conference_room_booking";
-    private static final String USER = "conference_room_booking";
-    private static final String PASSWORD = "rainknows";
+    // 数据库连接信息（可通过 -Ddb.url 等系统属性覆盖，便于连接本地数据库）
+    private static final String URL = System.getProperty("db.url",
+            "jdbc:mysql://117.72.60.69:3306/conference_room_booking");
+    private static final String USER = System.getProperty("db.user", "conference_room_booking");
+    private static final String PASSWORD = System.getProperty("db.password", "rainknows");
 
-    // 获取数据库连接
+    // 全局共享的连接池，所有 DAO 都从这里获取连接
+    private static final ConnectionPool POOL = new ConnectionPool(URL, USER, PASSWORD,
+            Integer.getInteger("db.pool.minSize", 2),
+            Integer.getInteger("db.pool.maxSize", 10),
+            Long.getLong("db.pool.idleTimeoutMs", 5 * 60 * 1000L),
+            Long.getLong("db.pool.borrowTimeoutMs", 10 * 1000L),
+            Long.getLong("db.pool.leakThresholdMs", 60 * 1000L));
+
+    // 获取数据库连接（从连接池借出，close() 时归还）
     public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(URL, USER, PASSWORD);
+        return POOL.getConnection();
+    }
+
+    // 获取连接池，用于查看统计信息
+    public static ConnectionPool getConnectionPool() {
+        return POOL;
     }
 
     // 关闭资源
@@ -244,6 +258,18 @@ public class UserDAO {
             conn = getConnection();
             conn.setAutoCommit(false); // 开启事务
             
+            // 记下将被删除的预订，用于写变更日志和更新本地缓存
+            List<int[]> deletedReservations = new ArrayList<>();
+            String selectReservationsSql = "SELECT reservationId, roomId FROM reservation WHERE userId = ?";
+            try (PreparedStatement pstmt = conn.prepareStatement(selectReservationsSql)) {
+                pstmt.setInt(1, userId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        deletedReservations.add(new int[] { rs.getInt("reservationId"), rs.getInt("roomId") });
+                    }
+                }
+            }
+
             // 首先删除用户相关的预订记录
             String deleteReservationsSql = "DELETE FROM reservation WHERE userId = ?";
             try (PreparedStatement pstmt = conn.prepareStatement(deleteReservationsSql)) {
@@ -258,7 +284,23 @@ public class UserDAO {
                 int affectedRows = pstmt.executeUpdate();
                 
                 if (affectedRows > 0) {
+                    int[] reservationIds = new int[deletedReservations.size()];
+                    int[] roomIds = new int[deletedReservations.size()];
+                    for (int i = 0; i < reservationIds.length; i++) {
+                        reservationIds[i] = deletedReservations.get(i)[0];
+                        roomIds[i] = deletedReservations.get(i)[1];
+                    }
+                    ChangeLogDAO.recordBatch(conn, ChangeLogDAO.ENTITY_RESERVATION, reservationIds,
+                            ChangeLogDAO.OP_DELETE, roomIds);
                     conn.commit(); // 提交事务
+                    if (reservationIds.length > 0) {
+                        ReservationIntervalIndex index = ReservationIntervalIndex.getShared();
+                        for (int reservationId : reservationIds) {
+                            index.remove(reservationId);
+                        }
+                        DailyBookingCounter.getShared().invalidateAll();
+                        MeetingRoomDAO.invalidateDashboardSnapshot();
+                    }
                     return true;
                 } else {
                     conn.rollback(); // 回滚事务